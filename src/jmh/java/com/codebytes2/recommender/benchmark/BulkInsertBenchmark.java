@@ -0,0 +1,254 @@
+package com.codebytes2.recommender.benchmark;
+
+import com.codebytes2.recommender.model.id.UuidV7;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput on the ratings and tournament_registrations tables of a PostgreSQL database
+ * migrated by Flyway, with the statements Hibernate issues when it flushes new entities. Without
+ * the prod profile ({@code tuned=false}) every row is its own round trip and gets a random
+ * (version 4) id; with it ({@code tuned=true}) rows go in JDBC batches of
+ * {@code hibernate.jdbc.batch_size} and get time-ordered (version 7) ids, so primary key inserts
+ * append to the right edge of the index. Each operation is one transaction of
+ * {@value #ROWS_PER_TRANSACTION} rows and scores are in rows per second; the tables grow over the
+ * trial, which is where random ids start to cost page reads and splits.
+ * <p>
+ * Uses a throwaway PostgreSQL container (needs Docker) unless {@code -p jdbcUrl=...} is given.
+ * Rows created by the benchmark are deleted at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    private static final int ROWS_PER_TRANSACTION = 500;
+
+    // hibernate.jdbc.batch_size in application-prod.yml
+    private static final int BATCH_SIZE = 50;
+
+    // Users x products and users x tournaments: 4M distinct pairs for each unique constraint
+    private static final int PARENTS = 2_000;
+
+    private static final String INSERT_RATING =
+            "INSERT INTO ratings (id, user_id, product_id, score, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String INSERT_REGISTRATION =
+            "INSERT INTO tournament_registrations (id, tournament_id, user_id, nickname, status, registered_at) " +
+                    "VALUES (?, ?, ?, ?, 'REGISTERED', ?)";
+
+    @Param({"false", "true"})
+    public boolean tuned;
+
+    @Param("")
+    public String jdbcUrl;
+
+    @Param("postgres")
+    public String username;
+
+    @Param("postgres")
+    public String password;
+
+    private PostgreSQLContainer<?> postgres;
+    private Connection connection;
+    private UUID[] users;
+    private UUID[] products;
+    private UUID[] tournaments;
+    private long ratingPair;
+    private long registrationPair;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = jdbcUrl;
+        String user = username;
+        String secret = password;
+        if (url.isEmpty()) {
+            postgres = new PostgreSQLContainer<>("postgres:15");
+            postgres.start();
+            url = postgres.getJdbcUrl();
+            user = postgres.getUsername();
+            secret = postgres.getPassword();
+        }
+        Flyway.configure().dataSource(url, user, secret).load().migrate();
+
+        // Same driver setting as the application's datasource URL
+        url += (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true";
+        connection = DriverManager.getConnection(url, user, secret);
+        connection.setAutoCommit(false);
+
+        users = ids();
+        products = ids();
+        tournaments = ids();
+        seed();
+        ratingPair = 0;
+        registrationPair = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try {
+            delete("DELETE FROM ratings WHERE user_id = ANY (?)", users);
+            delete("DELETE FROM tournament_registrations WHERE user_id = ANY (?)", users);
+            delete("DELETE FROM products WHERE id = ANY (?)", products);
+            delete("DELETE FROM tournaments WHERE id = ANY (?)", tournaments);
+            delete("DELETE FROM users WHERE id = ANY (?)", users);
+            connection.commit();
+        } finally {
+            connection.close();
+            if (postgres != null) {
+                postgres.stop();
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_TRANSACTION)
+    public int insertRatings() throws SQLException {
+        Timestamp now = Timestamp.from(Instant.now());
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_RATING)) {
+            for (int i = 0; i < ROWS_PER_TRANSACTION; i++) {
+                long pair = next(ratingPair++);
+                statement.setObject(1, id());
+                statement.setObject(2, users[(int) (pair / PARENTS)]);
+                statement.setObject(3, products[(int) (pair % PARENTS)]);
+                statement.setInt(4, 1 + (int) (pair % 5));
+                statement.setTimestamp(5, now);
+                write(statement, i);
+            }
+        }
+        connection.commit();
+        return ROWS_PER_TRANSACTION;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_TRANSACTION)
+    public int insertRegistrations() throws SQLException {
+        Timestamp now = Timestamp.from(Instant.now());
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_REGISTRATION)) {
+            for (int i = 0; i < ROWS_PER_TRANSACTION; i++) {
+                long pair = next(registrationPair++);
+                statement.setObject(1, id());
+                statement.setObject(2, tournaments[(int) (pair % PARENTS)]);
+                statement.setObject(3, users[(int) (pair / PARENTS)]);
+                statement.setString(4, "player-" + pair);
+                statement.setTimestamp(5, now);
+                write(statement, i);
+            }
+        }
+        connection.commit();
+        return ROWS_PER_TRANSACTION;
+    }
+
+    private UUID id() {
+        return tuned ? UuidV7.next() : UUID.randomUUID();
+    }
+
+    /**
+     * One round trip per row, or a batch every {@link #BATCH_SIZE} rows and at the end of the transaction.
+     */
+    private void write(PreparedStatement statement, int row) throws SQLException {
+        if (!tuned) {
+            statement.executeUpdate();
+            return;
+        }
+        statement.addBatch();
+        if ((row + 1) % BATCH_SIZE == 0 || row == ROWS_PER_TRANSACTION - 1) {
+            statement.executeBatch();
+        }
+    }
+
+    private static long next(long pair) {
+        if (pair >= (long) PARENTS * PARENTS) {
+            throw new IllegalStateException("No quedan pares (usuario, producto/torneo) libres; reduce la duración");
+        }
+        return pair;
+    }
+
+    private void seed() throws SQLException {
+        Timestamp now = Timestamp.from(Instant.now());
+        Timestamp later = Timestamp.from(Instant.now().plus(30, ChronoUnit.DAYS));
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        try (PreparedStatement insertUser = connection.prepareStatement(
+                "INSERT INTO users (id, username, email, password, enabled, account_non_expired, " +
+                        "account_non_locked, credentials_non_expired, created_at) " +
+                        "VALUES (?, ?, ?, 'benchmark', true, true, true, true, ?)");
+             PreparedStatement insertProduct = connection.prepareStatement(
+                     "INSERT INTO products (id, name, popularity_score, created_at) VALUES (?, ?, 0, ?)");
+             PreparedStatement insertTournament = connection.prepareStatement(
+                     "INSERT INTO tournaments (id, name, game, start_date, end_date, registration_open_at, " +
+                             "registration_close_at, status, active_registrations, created_at) " +
+                             "VALUES (?, ?, 'benchmark', ?, ?, ?, ?, 'OPEN', 0, ?)")) {
+            for (int i = 0; i < PARENTS; i++) {
+                insertUser.setObject(1, users[i]);
+                insertUser.setString(2, "bench-" + suffix + "-" + i);
+                insertUser.setString(3, "bench-" + suffix + "-" + i + "@test.com");
+                insertUser.setTimestamp(4, now);
+                insertUser.addBatch();
+
+                insertProduct.setObject(1, products[i]);
+                insertProduct.setString(2, "bench-" + suffix + "-" + i);
+                insertProduct.setTimestamp(3, now);
+                insertProduct.addBatch();
+
+                insertTournament.setObject(1, tournaments[i]);
+                insertTournament.setString(2, "bench-" + suffix + "-" + i);
+                insertTournament.setTimestamp(3, later);
+                insertTournament.setTimestamp(4, later);
+                insertTournament.setTimestamp(5, now);
+                insertTournament.setTimestamp(6, later);
+                insertTournament.setTimestamp(7, now);
+                insertTournament.addBatch();
+            }
+            insertUser.executeBatch();
+            insertProduct.executeBatch();
+            insertTournament.executeBatch();
+        }
+        connection.commit();
+    }
+
+    private void delete(String sql, UUID[] ids) throws SQLException {
+        Array array = connection.createArrayOf("uuid", ids);
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setArray(1, array);
+            statement.executeUpdate();
+        } finally {
+            array.free();
+        }
+    }
+
+    private static UUID[] ids() {
+        UUID[] ids = new UUID[PARENTS];
+        for (int i = 0; i < PARENTS; i++) {
+            ids[i] = UUID.randomUUID();
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,57 @@
+package com.codebytes2.recommender.benchmark;
+
+import com.codebytes2.recommender.auth.commons.models.enums.UserRole;
+import com.codebytes2.recommender.auth.service.impl.JwtServiceImpl;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link JwtServiceImpl#getClaims} for a client that sends the same token on every
+ * request: with the verified-token cache disabled (signature check and JSON parsing on each call)
+ * and enabled (a SHA-256 of the token and a map lookup).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-at-least-32-bytes-long";
+
+    private JwtServiceImpl verifiedPerCall;
+    private JwtServiceImpl cached;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        verifiedPerCall = new JwtServiceImpl(SECRET, 0);
+        cached = new JwtServiceImpl(SECRET, 10_000);
+        token = cached.generateToken("player@test.com", Set.of(UserRole.PLAYER)).getAccessToken();
+        cached.getClaims(token);
+    }
+
+    @Benchmark
+    public Claims verifiedPerCall() {
+        return verifiedPerCall.getClaims(token);
+    }
+
+    @Benchmark
+    public Claims cached() {
+        return cached.getClaims(token);
+    }
+}
@@ -0,0 +1,210 @@
+package com.codebytes2.recommender.benchmark;
+
+import com.codebytes2.recommender.auth.commons.models.entity.UserEntity;
+import com.codebytes2.recommender.auth.repository.UserEntityRepository;
+import com.codebytes2.recommender.config.recommendation.RecommendationProperties;
+import com.codebytes2.recommender.dto.response.RecommendationResponseDto;
+import com.codebytes2.recommender.mapper.RecommendationMapper;
+import com.codebytes2.recommender.model.Product;
+import com.codebytes2.recommender.model.ProductRatingStats;
+import com.codebytes2.recommender.model.Rating;
+import com.codebytes2.recommender.repository.ProductRatingStatsRepository;
+import com.codebytes2.recommender.repository.ProductRepository;
+import com.codebytes2.recommender.repository.RatingRepository;
+import com.codebytes2.recommender.repository.RecommendationRepository;
+import com.codebytes2.recommender.repository.projection.ProductTag;
+import com.codebytes2.recommender.service.cache.RecommendationResultCache;
+import com.codebytes2.recommender.service.history.RecommendationHistoryWriter;
+import com.codebytes2.recommender.service.impl.RecommendationServiceImpl;
+import com.codebytes2.recommender.service.index.ProductTagIndex;
+import com.codebytes2.recommender.service.scoring.ItemNeighborIndex;
+import com.codebytes2.recommender.service.scoring.MatrixFactorizationModel;
+import com.codebytes2.recommender.service.scoring.RatingMatrixLoader;
+import com.codebytes2.recommender.service.scoring.TagScoring;
+import com.codebytes2.recommender.service.scoring.TopKSelector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Throughput of the default ("v1.0") scoring path of {@link RecommendationServiceImpl} over synthetic
+ * catalogs. Repositories are stubbed with precomputed answers so only in-memory work is measured:
+ * tag preferences, candidate lookup in the tag index, relevance scoring and top-K selection.
+ * The tag preference and tag score steps are also measured on their own, on the same fixed inputs.
+ * Run with {@code -prof gc} (the profile default) to also report the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecommendationScoringBenchmark {
+
+    private static final int LIMIT = 20;
+
+    @Param({"1000", "10000", "100000"})
+    private int catalogSize;
+
+    // Number of distinct tags in the catalog; fewer tags means more candidates per user
+    @Param({"20", "500"})
+    private int tagCardinality;
+
+    @Param({"5", "50"})
+    private int userRatings;
+
+    private RecommendationServiceImpl recommendationService;
+    private UUID userId;
+    private List<Rating> ratings;
+    private List<Product> candidates;
+    private Map<String, Double> tagPreferences;
+    private double[] scores;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+
+        List<Product> catalog = new ArrayList<>(catalogSize);
+        List<ProductRatingStats> stats = new ArrayList<>();
+        for (int i = 0; i < catalogSize; i++) {
+            Product product = new Product();
+            product.setId(new UUID(0, i));
+            product.setName("Product " + i);
+            product.setCreatedAt(Instant.EPOCH);
+            product.setPopularityScore((long) random.nextInt(10_000));
+            Set<String> tags = new HashSet<>();
+            int tagCount = 3 + random.nextInt(4);
+            while (tags.size() < Math.min(tagCount, tagCardinality)) {
+                tags.add("tag" + random.nextInt(tagCardinality));
+            }
+            product.setTags(tags);
+            catalog.add(product);
+
+            // Most products have been rated at least once
+            if (random.nextInt(10) < 7) {
+                ProductRatingStats productStats = new ProductRatingStats(product.getId());
+                int ratings = 1 + random.nextInt(20);
+                for (int r = 0; r < ratings; r++) {
+                    productStats.addScore(1 + random.nextInt(5));
+                }
+                stats.add(productStats);
+            }
+        }
+
+        UserEntity user = new UserEntity();
+        userId = UUID.randomUUID();
+        user.setId(userId);
+
+        ratings = new ArrayList<>(userRatings);
+        for (int i = 0; i < userRatings; i++) {
+            Rating rating = new Rating();
+            rating.setUserEntity(user);
+            rating.setProduct(catalog.get(random.nextInt(catalogSize)));
+            rating.setScore(1 + random.nextInt(5));
+            ratings.add(rating);
+        }
+
+        // stubOnly: no invocation recording, so the stubs neither leak nor allocate per call
+        ProductRepository productRepository = mock(ProductRepository.class, withSettings().stubOnly());
+        RatingRepository ratingRepository = mock(RatingRepository.class, withSettings().stubOnly());
+        UserEntityRepository userEntityRepository = mock(UserEntityRepository.class, withSettings().stubOnly());
+        ProductRatingStatsRepository productRatingStatsRepository =
+                mock(ProductRatingStatsRepository.class, withSettings().stubOnly());
+        RecommendationRepository recommendationRepository =
+                mock(RecommendationRepository.class, withSettings().stubOnly());
+        RecommendationHistoryWriter historyWriter = mock(RecommendationHistoryWriter.class, withSettings().stubOnly());
+
+        when(productRepository.streamAllTags()).thenAnswer(invocation -> catalog.stream()
+                .flatMap(product -> product.getTags().stream().map(tag -> new ProductTag(product.getId(), tag))));
+        ProductTagIndex productTagIndex = new ProductTagIndex(productRepository);
+        productTagIndex.rebuild();
+
+        // The candidate set only depends on the user's tags, so findAllWithTagsByIdIn can answer with a fixed list
+        Set<String> userTags = new HashSet<>();
+        ratings.forEach(rating -> userTags.addAll(rating.getProduct().getTags()));
+        Set<UUID> candidateIds = productTagIndex.findCandidates(userTags);
+        candidates = catalog.stream()
+                .filter(product -> candidateIds.contains(product.getId()))
+                .toList();
+        List<ProductRatingStats> candidateStats = stats.stream()
+                .filter(productStats -> candidateIds.contains(productStats.getProductId()))
+                .toList();
+
+        when(userEntityRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(recommendationRepository.findTopByUserIdOrderByComputedAtDesc(userId)).thenReturn(Optional.empty());
+        when(ratingRepository.findByUserEntityId(userId)).thenReturn(ratings);
+        when(productRepository.findAllWithTagsByIdIn(any())).thenReturn(candidates);
+        when(productRatingStatsRepository.findAllById(any())).thenReturn(candidateStats);
+
+        RecommendationProperties properties = new RecommendationProperties();
+        // Every call is scored; the in-memory result cache would answer all but the first
+        properties.getResultCache().setMaxSize(0);
+        recommendationService = new RecommendationServiceImpl(
+                recommendationRepository, productRepository, ratingRepository, userEntityRepository,
+                mock(RecommendationMapper.class, withSettings().stubOnly()), productTagIndex,
+                productRatingStatsRepository, properties, historyWriter,
+                new ItemNeighborIndex(new RatingMatrixLoader(ratingRepository), properties),
+                new MatrixFactorizationModel(new RatingMatrixLoader(ratingRepository), properties),
+                new RecommendationResultCache(properties, new SimpleMeterRegistry()));
+
+        tagPreferences = TagScoring.userTagPreferences(ratings);
+
+        scores = new double[catalogSize];
+        for (int i = 0; i < catalogSize; i++) {
+            scores[i] = random.nextDouble();
+        }
+    }
+
+    @Benchmark
+    public RecommendationResponseDto recommendForUser() {
+        return recommendationService.getRecommendationsForUser(userId, LIMIT);
+    }
+
+    @Benchmark
+    public Map<String, Double> userTagPreferences() {
+        return TagScoring.userTagPreferences(ratings);
+    }
+
+    /**
+     * Tag score of every candidate of the user, the per-product step of the default algorithm.
+     */
+    @Benchmark
+    public double tagScoreOfCandidates() {
+        double total = 0;
+        for (Product product : candidates) {
+            total += TagScoring.tagScore(product, tagPreferences);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int[] selectTopK() {
+        return TopKSelector.selectTopK(scores, LIMIT);
+    }
+}
@@ -0,0 +1,82 @@
+package com.codebytes2.recommender.auth.service.impl;
+
+import com.codebytes2.recommender.config.security.AuthProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Users already loaded, by the email they log in with, so that authenticating a request with a
+ * JWT does not read the user and its roles from the database every time. Entries expire after a
+ * fixed time and the least recently used one is dropped when the cache is full. Saving or deleting
+ * a user evicts it (see {@link UserCacheEvictionListener}).
+ */
+@Component
+public class BoundedUserCache {
+
+    private record Entry(UserDetails user, Instant expiresAt) {
+    }
+
+    private final Duration ttl;
+    private final int maxSize;
+    private final Clock clock;
+    private final Map<String, Entry> entries;
+
+    @Autowired
+    public BoundedUserCache(AuthProperties authProperties) {
+        this(authProperties.getPrincipalCache().getTtl(), authProperties.getPrincipalCache().getMaxSize(),
+                Clock.systemUTC());
+    }
+
+    public BoundedUserCache(Duration ttl, int maxSize, Clock clock) {
+        this.ttl = ttl;
+        this.maxSize = maxSize;
+        this.clock = clock;
+        // Access order: iteration starts at the least recently used entry
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > BoundedUserCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * The cached user, or null when it is not cached or has expired.
+     */
+    public synchronized UserDetails get(String email) {
+        Entry entry = entries.get(email);
+        if (entry == null) {
+            return null;
+        }
+        if (!clock.instant().isBefore(entry.expiresAt())) {
+            entries.remove(email);
+            return null;
+        }
+        return entry.user();
+    }
+
+    public synchronized void put(String email, UserDetails user) {
+        if (maxSize > 0) {
+            entries.put(email, new Entry(user, clock.instant().plus(ttl)));
+        }
+    }
+
+    public synchronized void evict(String email) {
+        entries.remove(email);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -4,11 +4,13 @@ import com.codebytes2.recommender.auth.commons.dto.response.TokenResponse;
 import com.codebytes2.recommender.auth.commons.models.enums.UserRole;
 import com.codebytes2.recommender.auth.service.JwtService;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -25,12 +27,27 @@ public class JwtServiceImpl implements JwtService {
     private static final Logger log = LoggerFactory.getLogger(JwtServiceImpl.class);
     private final SecretKey secretKey;
     private static final long EXPIRATION_TIME = 864_000_000; // 10 días
+    private static final int DEFAULT_VERIFIED_CACHE_SIZE = 10_000;
 
-    public JwtServiceImpl(@Value("${jwt.secret}") String secret) {
+    // Thread-safe and immutable, so one parser serves every request
+    private final JwtParser parser;
+    private final VerifiedTokenCache verifiedTokens;
+
+    public JwtServiceImpl(String secret) {
+        this(secret, DEFAULT_VERIFIED_CACHE_SIZE);
+    }
+
+    @Autowired
+    public JwtServiceImpl(@Value("${jwt.secret}") String secret,
+                          @Value("${jwt.verified-cache-size:" + DEFAULT_VERIFIED_CACHE_SIZE + "}") int verifiedCacheSize) {
         if (secret.getBytes().length < 32) {
             throw new IllegalArgumentException("La clave secreta de JWT debe tener al menos 32 caracteres.");
         }
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(secretKey)
+                .build();
+        this.verifiedTokens = new VerifiedTokenCache(verifiedCacheSize);
     }
 
     @Override
@@ -59,12 +76,14 @@ public class JwtServiceImpl implements JwtService {
 
     @Override
     public Claims getClaims(String token) {
+        Claims verified = verifiedTokens.get(token);
+        if (verified != null) {
+            return verified;
+        }
         try {
-            return Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            verifiedTokens.put(token, claims);
+            return claims;
         } catch (Exception e) {
             log.error("Error al parsear JWT: {}, Causa: {}", e.getMessage(),
                     e.getCause() != null ? e.getCause().getMessage() : "N/A");
@@ -0,0 +1,81 @@
+package com.codebytes2.recommender.auth.service.impl;
+
+import com.codebytes2.recommender.auth.commons.models.entity.UserEntity;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts a user from the {@link BoundedUserCache} when it is updated or deleted, so the next
+ * request authenticates with the saved state. Registered as a Hibernate listener rather than a JPA
+ * callback because a change to the roles alone only touches the {@code user_roles} collection,
+ * which fires no {@code @PostUpdate}.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCacheEvictionListener implements PostUpdateEventListener, PostDeleteEventListener,
+        PostCollectionUpdateEventListener, PostCollectionRecreateEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final BoundedUserCache userCache;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        evict(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        evict(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        evictOwner(event);
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        evictOwner(event);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void evictOwner(AbstractCollectionEvent event) {
+        evict(event.getAffectedOwnerOrNull());
+    }
+
+    private void evict(Object entity) {
+        if (entity instanceof UserEntity user) {
+            userCache.evict(user.getEmail());
+        }
+    }
+}
@@ -12,11 +12,18 @@ import org.springframework.stereotype.Service;
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserEntityRepository userEntityRepository;
+    private final BoundedUserCache userCache;
 
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userEntityRepository.findByEmail(username)
+        UserDetails cached = userCache.get(username);
+        if (cached != null) {
+            return cached;
+        }
+        UserDetails user = userEntityRepository.findByEmail(username)
                 .orElseThrow(()-> new UsernameNotFoundException("Usuario con email" + username + "no existe"));
+        userCache.put(username, user);
+        return user;
     }
 }
@@ -0,0 +1,96 @@
+package com.codebytes2.recommender.auth.service.impl;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Claims of tokens whose signature has already been verified, so a client sending the same token
+ * again skips the HMAC check and the JSON parsing. Entries are keyed by the SHA-256 of the token,
+ * which only matches the exact token that was verified and keeps the tokens themselves out of
+ * memory, and are dropped once the token expires. When full, expired entries are purged and, if
+ * there is still no room, new tokens are simply not cached.
+ */
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    });
+
+    private record Entry(Claims claims, long expiresAtMillis) {
+    }
+
+    private final Map<ByteBuffer, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final LongSupplier currentTimeMillis;
+
+    public VerifiedTokenCache(int maxSize) {
+        this(maxSize, System::currentTimeMillis);
+    }
+
+    public VerifiedTokenCache(int maxSize, LongSupplier currentTimeMillis) {
+        this.maxSize = maxSize;
+        this.currentTimeMillis = currentTimeMillis;
+    }
+
+    /**
+     * The claims of a token verified before and not yet expired, or null.
+     */
+    public Claims get(String token) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        ByteBuffer key = digest(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (currentTimeMillis.getAsLong() >= entry.expiresAtMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.claims();
+    }
+
+    /**
+     * Remembers a token whose signature has just been verified. Tokens without expiration are not cached.
+     */
+    public void put(String token, Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (maxSize <= 0 || expiration == null) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            purgeExpired();
+            if (entries.size() >= maxSize) {
+                return;
+            }
+        }
+        entries.put(digest(token), new Entry(claims, expiration.getTime()));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void purgeExpired() {
+        long now = currentTimeMillis.getAsLong();
+        entries.values().removeIf(entry -> now >= entry.expiresAtMillis());
+    }
+
+    private static ByteBuffer digest(String token) {
+        // ByteBuffer compares and hashes by content
+        return ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
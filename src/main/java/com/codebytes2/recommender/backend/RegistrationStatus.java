@@ -4,5 +4,7 @@ public enum RegistrationStatus {
     REGISTERED,
     CONFIRMED,
     CANCELLED,
-    REJECTED
+    REJECTED,
+    // Tournament was full; promoted to REGISTERED in arrival order when a slot frees up
+    WAITLISTED
 }
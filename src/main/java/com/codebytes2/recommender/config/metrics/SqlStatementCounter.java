@@ -0,0 +1,88 @@
+package com.codebytes2.recommender.config.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Counts the SQL statements executed on the current thread between {@link #start()} and
+ * {@link #stop()}, so that the statements issued by a single HTTP request can be measured.
+ * Counting happens on the JDBC connections of the wrapped data source, so queries run through
+ * {@code JdbcTemplate} are included as well as those of Hibernate; a JDBC batch counts as one
+ * statement, since it is one round trip.
+ */
+public class SqlStatementCounter extends DelegatingDataSource {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    public SqlStatementCounter(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    /**
+     * Returns the number of statements since {@link #start()} and stops counting.
+     */
+    public static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count != null ? count[0] : 0;
+    }
+
+    private static Connection counting(Connection connection) {
+        return proxy(Connection.class, connection, (method, result) -> {
+            if (result instanceof Statement statement && method.getReturnType().isInterface()) {
+                return proxy(method.getReturnType(), statement, (statementMethod, value) -> value);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Proxies {@code target} as {@code type}, counting every {@code execute*} call and passing the
+     * result of each call through {@code wrapper}.
+     */
+    private static <T> T proxy(Class<?> type, Object target, ResultWrapper wrapper) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getName().startsWith("execute")) {
+                int[] count = COUNT.get();
+                if (count != null) {
+                    count[0]++;
+                }
+            }
+            try {
+                return wrapper.wrap(method, method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        @SuppressWarnings("unchecked")
+        T proxy = (T) Proxy.newProxyInstance(SqlStatementCounter.class.getClassLoader(), new Class<?>[]{type}, handler);
+        return proxy;
+    }
+
+    @FunctionalInterface
+    private interface ResultWrapper {
+        Object wrap(Method method, Object result);
+    }
+}
@@ -0,0 +1,27 @@
+package com.codebytes2.recommender.config.product;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "product")
+public class ProductProperties {
+
+    private final BulkImport bulkImport = new BulkImport();
+
+    @Data
+    public static class BulkImport {
+
+        /**
+         * Products written per JDBC batch and per transaction; their tags go in the same transaction.
+         */
+        private int batchSize = 1_000;
+
+        /**
+         * Maximum number of line errors listed in the response; all of them are counted.
+         */
+        private int maxReportedErrors = 100;
+    }
+}
@@ -0,0 +1,27 @@
+package com.codebytes2.recommender.config.rating;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "rating")
+public class RatingProperties {
+
+    private final BulkImport bulkImport = new BulkImport();
+
+    @Data
+    public static class BulkImport {
+
+        /**
+         * Ratings written per JDBC batch and per transaction.
+         */
+        private int batchSize = 1_000;
+
+        /**
+         * Maximum number of line errors listed in the response; all of them are counted.
+         */
+        private int maxReportedErrors = 100;
+    }
+}
@@ -0,0 +1,104 @@
+package com.codebytes2.recommender.config.recommendation;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "recommendation")
+public class RecommendationProperties {
+
+    /**
+     * How long a persisted recommendation is served before being recomputed.
+     * A new rating by the user invalidates it earlier.
+     */
+    private Duration cacheTtl = Duration.ofMinutes(10);
+
+    /**
+     * Scorer used for new recommendations: "v1.0" (tags, ratings and popularity), "item-cf-v1"
+     * (item-to-item collaborative filtering) or "als-v1" (matrix factorization).
+     */
+    private String algorithmVersion = "v1.0";
+
+    private final History history = new History();
+
+    private final ResultCache resultCache = new ResultCache();
+
+    private final ItemCf itemCf = new ItemCf();
+
+    private final Als als = new Als();
+
+    @Data
+    public static class History {
+
+        /**
+         * Maximum number of recommendation records waiting to be written. When full, new records are dropped.
+         */
+        private int queueCapacity = 10_000;
+
+        /**
+         * Number of records written per JDBC batch.
+         */
+        private int batchSize = 200;
+
+        /**
+         * Maximum time a record waits in the queue before being flushed.
+         */
+        private Duration flushInterval = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class ResultCache {
+
+        /**
+         * Maximum number of users whose last response is kept in memory; 0 disables the cache.
+         */
+        private long maxSize = 10_000;
+
+        /**
+         * How long a response is served from memory. A new rating by the user, or a change to one
+         * of the recommended products, evicts it earlier.
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class ItemCf {
+
+        /**
+         * Number of most similar products kept per product.
+         */
+        private int neighbors = 20;
+
+        /**
+         * Time between rebuilds of the neighbor lists from the ratings table.
+         */
+        private Duration rebuildInterval = Duration.ofHours(1);
+    }
+
+    @Data
+    public static class Als {
+
+        /**
+         * Number of latent factors per user and product.
+         */
+        private int rank = 10;
+
+        private int iterations = 10;
+
+        private double regularization = 0.1;
+
+        /**
+         * Fraction of the ratings left out of training to measure the RMSE of the model.
+         */
+        private double holdoutFraction = 0.1;
+
+        /**
+         * Time between retrainings of the model from the ratings table.
+         */
+        private Duration retrainInterval = Duration.ofHours(6);
+    }
+}
@@ -0,0 +1,39 @@
+package com.codebytes2.recommender.config.search;
+
+import com.codebytes2.recommender.repository.ProductRepository;
+import com.codebytes2.recommender.repository.TournamentRepository;
+import com.codebytes2.recommender.service.search.InMemoryTextSearch;
+import com.codebytes2.recommender.service.search.TextSearch;
+import com.codebytes2.recommender.service.search.TrigramTextSearch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+@Configuration
+public class SearchConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchConfig.class);
+
+    /**
+     * pg_trgm indexes on PostgreSQL; any other database (H2) gets the in-memory trigram index.
+     */
+    @Bean
+    public TextSearch textSearch(DataSource dataSource,
+                                 ProductRepository productRepository,
+                                 TournamentRepository tournamentRepository) throws MetaDataAccessException {
+        String database = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        if ("PostgreSQL".equals(database)) {
+            log.info("Búsqueda de texto con índices pg_trgm");
+            return new TrigramTextSearch(new NamedParameterJdbcTemplate(dataSource));
+        }
+        log.info("Búsqueda de texto con índice de trigramas en memoria ({})", database);
+        return new InMemoryTextSearch(productRepository, tournamentRepository);
+    }
+}
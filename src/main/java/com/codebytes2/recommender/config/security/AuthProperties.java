@@ -0,0 +1,46 @@
+package com.codebytes2.recommender.config.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "auth")
+public class AuthProperties {
+
+    private final PrincipalCache principalCache = new PrincipalCache();
+    private final PasswordHashing passwordHashing = new PasswordHashing();
+
+    @Data
+    public static class PrincipalCache {
+
+        /**
+         * How long an authenticated user is reused before being read again from the database.
+         * Changes saved through JPA evict it earlier.
+         */
+        private Duration ttl = Duration.ofMinutes(5);
+
+        /**
+         * Maximum number of users kept; the least recently used one is dropped first.
+         */
+        private int maxSize = 10_000;
+    }
+
+    @Data
+    public static class PasswordHashing {
+
+        /**
+         * Threads that run BCrypt; at most this many cores are spent on hashing at once.
+         */
+        private int threads = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Hashing operations that may wait for a thread. Beyond threads + queue capacity, logins and
+         * registrations are rejected with 503 instead of holding request threads.
+         */
+        private int queueCapacity = 32;
+    }
+}
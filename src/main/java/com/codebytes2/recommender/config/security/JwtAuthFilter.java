@@ -1,6 +1,7 @@
 package com.codebytes2.recommender.config.security;
 
 import com.codebytes2.recommender.auth.service.JwtService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -45,12 +46,15 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         final String jwt = authHeader.substring(7);
 
         try {
-            String userEmail = jwtService.extractEmail(jwt);
+            // One parse: the signature and expiration are checked here, and an invalid token throws
+            Claims claims = jwtService.getClaims(jwt);
+            String userEmail = claims.getSubject();
 
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Served from the user cache on repeat requests, without touching the database
                 UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
 
-                if (!jwtService.isExpired(jwt)) {
+                if (userDetails.isEnabled() && userDetails.isAccountNonLocked()) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -0,0 +1,31 @@
+package com.codebytes2.recommender.config.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public TokenBucketRateLimiter tokenBucketRateLimiter(RateLimitProperties properties) {
+        return new TokenBucketRateLimiter(properties.getCapacity(), properties.getRefillPerSecond());
+    }
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(RateLimitProperties properties, TokenBucketRateLimiter rateLimiter,
+                                           MeterRegistry meterRegistry) {
+        return new RateLimitFilter(properties, rateLimiter, meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        // Only runs inside the security chain, where the authenticated user is known
+        registration.setEnabled(false);
+        return registration;
+    }
+}
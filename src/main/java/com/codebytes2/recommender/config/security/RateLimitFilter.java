@@ -0,0 +1,107 @@
+package com.codebytes2.recommender.config.security;
+
+import com.codebytes2.recommender.auth.commons.models.entity.UserEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Charges every request to a token bucket: the authenticated user's, or the client IP's on
+ * anonymous requests. It runs right after {@link JwtAuthFilter} in the security chain. Expensive
+ * routes cost more tokens (see {@link RateLimitProperties}); a request that finds too few tokens
+ * gets 429 with {@code Retry-After} and is counted in {@code http.server.requests.rate.limited}.
+ * <p>
+ * The client IP is {@link HttpServletRequest#getRemoteAddr()}; behind a proxy, set
+ * {@code server.forward-headers-strategy} so it is the original client's.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String DEFAULT_ROUTE = "default";
+
+    private record RouteCost(String method, PathPattern pattern, int cost) {
+    }
+
+    private final TokenBucketRateLimiter rateLimiter;
+    private final int defaultCost;
+    private final List<RouteCost> routes;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(RateLimitProperties properties, TokenBucketRateLimiter rateLimiter,
+                           MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.defaultCost = properties.getDefaultCost();
+        this.meterRegistry = meterRegistry;
+        this.routes = properties.getRoutes().stream()
+                .map(route -> new RouteCost(
+                        StringUtils.hasText(route.getMethod()) ? route.getMethod() : null,
+                        PathPatternParser.defaultInstance.parse(route.getPath()),
+                        route.getCost()))
+                .toList();
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String pathWithinApplication = request.getRequestURI().substring(request.getContextPath().length());
+        PathContainer path = PathContainer.parsePath(pathWithinApplication);
+        RouteCost route = routes.stream()
+                .filter(candidate -> candidate.method() == null || candidate.method().equalsIgnoreCase(request.getMethod()))
+                .filter(candidate -> candidate.pattern().matches(path))
+                .findFirst()
+                .orElse(null);
+        int cost = route != null ? route.cost() : defaultCost;
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean authenticated = authentication != null && authentication.isAuthenticated();
+        String key = authenticated ? "user:" + principalId(authentication) : "ip:" + request.getRemoteAddr();
+
+        long waitNanos = rateLimiter.tryAcquire(key, cost);
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        rejectedCounter(route != null ? route.pattern().getPatternString() : DEFAULT_ROUTE,
+                authenticated ? "user" : "ip").increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType("application/json");
+        response.getWriter().write("{\"error\":\"Too Many Requests\",\"status\":" + HttpStatus.TOO_MANY_REQUESTS.value() + "}");
+    }
+
+    private static String principalId(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof UserEntity user && user.getId() != null) {
+            return user.getId().toString();
+        }
+        return authentication.getName();
+    }
+
+    private Counter rejectedCounter(String route, String keyType) {
+        return Counter.builder("http.server.requests.rate.limited")
+                .description("Requests rejected with 429 by the rate limiter")
+                .tag("route", route)
+                .tag("key", keyType)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,55 @@
+package com.codebytes2.recommender.config.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Tokens in a full bucket: the burst a client can spend at once.
+     */
+    private int capacity = 60;
+
+    /**
+     * Tokens given back to each client per second.
+     */
+    private double refillPerSecond = 10;
+
+    /**
+     * Tokens taken by a request that matches none of {@link #routes}.
+     */
+    private int defaultCost = 1;
+
+    /**
+     * Cost of specific routes; the first match wins.
+     */
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+
+        /**
+         * HTTP method, or empty for any method.
+         */
+        private String method;
+
+        /**
+         * Path pattern within the application, e.g. {@code /api/recommendations/**}.
+         */
+        private String path;
+
+        /**
+         * Tokens taken per request; 0 leaves the route unlimited.
+         */
+        private int cost = 1;
+    }
+}
@@ -3,6 +3,7 @@ package com.codebytes2.recommender.config.security;
 
 import com.codebytes2.recommender.auth.service.impl.UserDetailsServiceImpl;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -12,8 +13,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import jakarta.servlet.http.HttpServletResponse;
@@ -26,6 +25,8 @@ public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
     private final UserDetailsServiceImpl userDetailsService;
+    // Absent when rate-limit.enabled is false
+    private final ObjectProvider<RateLimitFilter> rateLimitFilter;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -38,6 +39,8 @@ public class SecurityConfig {
 
                         .requestMatchers("/auth/**", "/api/health").permitAll()
 
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+
                         .requestMatchers(HttpMethod.GET, "/api/tournaments").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/tournaments/status/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/tournaments/search/**").permitAll()
@@ -57,6 +60,8 @@ public class SecurityConfig {
                         }))
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
 
+        rateLimitFilter.ifAvailable(filter -> http.addFilterAfter(filter, JwtAuthFilter.class));
+
         return http.build();
     }
 
@@ -64,9 +69,4 @@ public class SecurityConfig {
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
     }
-
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.codebytes2.recommender.config.security;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * One token bucket per client key. Buckets refill continuously and are updated with a
+ * compare-and-set of their state, so concurrent requests of the same client never block each
+ * other. Buckets that have refilled completely are indistinguishable from new ones and are
+ * dropped periodically, which keeps the map as small as the set of recently active clients.
+ */
+public class TokenBucketRateLimiter {
+
+    private record State(double tokens, long updatedAtNanos) {
+    }
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final LongSupplier nanoTime;
+    private final Map<String, AtomicReference<State>> buckets = new ConcurrentHashMap<>();
+
+    public TokenBucketRateLimiter(int capacity, double refillPerSecond) {
+        this(capacity, refillPerSecond, System::nanoTime);
+    }
+
+    public TokenBucketRateLimiter(int capacity, double refillPerSecond, LongSupplier nanoTime) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Takes {@code cost} tokens from the bucket of {@code key}. Returns 0 when they were taken, or
+     * the nanoseconds until the bucket will hold enough of them. A cost above the capacity is
+     * charged as a full bucket.
+     */
+    public long tryAcquire(String key, int cost) {
+        if (cost <= 0) {
+            return 0;
+        }
+        double needed = Math.min(cost, capacity);
+        long now = nanoTime.getAsLong();
+
+        AtomicReference<State> bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicReference<>(new State(capacity, now)));
+        }
+
+        while (true) {
+            State current = bucket.get();
+            long updatedAt = Math.max(now, current.updatedAtNanos());
+            double tokens = refilled(current, updatedAt);
+            if (tokens < needed) {
+                return (long) Math.ceil((needed - tokens) / refillPerNano);
+            }
+            if (bucket.compareAndSet(current, new State(tokens - needed, updatedAt))) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops the buckets that are full again. A request racing with the removal may be charged to
+     * the dropped bucket, which at worst lets that client through once more.
+     */
+    @Scheduled(initialDelayString = "${rate-limit.cleanup-interval:PT1M}",
+            fixedDelayString = "${rate-limit.cleanup-interval:PT1M}")
+    public void evictFullBuckets() {
+        long now = nanoTime.getAsLong();
+        buckets.values().removeIf(bucket -> refilled(bucket.get(), now) >= capacity);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private double refilled(State state, long now) {
+        long elapsed = Math.max(0, now - state.updatedAtNanos());
+        return Math.min(capacity, state.tokens() + elapsed * refillPerNano);
+    }
+}
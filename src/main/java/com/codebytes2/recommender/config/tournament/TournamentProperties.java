@@ -0,0 +1,28 @@
+package com.codebytes2.recommender.config.tournament;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "tournament")
+public class TournamentProperties {
+
+    private final Lifecycle lifecycle = new Lifecycle();
+
+    @Data
+    public static class Lifecycle {
+
+        /**
+         * Number of upcoming registration opening/closing instants kept in memory. Later ones are
+         * loaded from the database once these have been applied.
+         */
+        private int queueSize = 1_000;
+
+        /**
+         * Maximum number of tournaments updated per statement when applying transitions.
+         */
+        private int batchSize = 500;
+    }
+}
@@ -2,8 +2,11 @@ package com.codebytes2.recommender.controller;
 
 import com.codebytes2.recommender.dto.request.ProductCreateRequest;
 import com.codebytes2.recommender.dto.request.ProductUpdateRequest;
+import com.codebytes2.recommender.dto.response.CursorSliceDto;
 import com.codebytes2.recommender.dto.response.ProductDetailDto;
+import com.codebytes2.recommender.dto.response.ProductImportResultDto;
 import com.codebytes2.recommender.dto.response.ProductSummaryDto;
+import com.codebytes2.recommender.service.ProductCatalogService;
 import com.codebytes2.recommender.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -20,10 +23,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.UUID;
 
 @Tag(name = "🛍️ Products", description = "Gestión de productos (solo ADMIN puede crear/actualizar/eliminar)")
@@ -32,7 +38,10 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class ProductController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final ProductService productService;
+    private final ProductCatalogService productCatalogService;
 
     @Operation(
             summary = "Crear un nuevo producto",
@@ -107,6 +116,81 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    @Operation(
+            summary = "Importar productos de forma masiva",
+            description = "Solo accesible para usuarios con rol **ADMIN**.\n" +
+                    "Crea productos desde el cuerpo de la petición en NDJSON (`application/x-ndjson`), uno por línea, " +
+                    "con el mismo formato que devuelve `GET /api/products/export`. El cuerpo se procesa a medida que " +
+                    "llega y se guarda por lotes, con los tags de cada lote en una sola inserción por lotes. " +
+                    "Una línea puede incluir el `id` del producto; los IDs que ya existen se omiten. " +
+                    "Las líneas inválidas no detienen la importación: se cuentan y se devuelven en el resultado.",
+            security = @SecurityRequirement(name = "bearerAuth"),
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Productos, uno por línea",
+                    required = true,
+                    content = @Content(
+                            mediaType = "application/x-ndjson",
+                            examples = @ExampleObject(
+                                    name = "NDJSON",
+                                    value = """
+                        {"name": "Counter-Strike 2", "category": "FPS", "tags": ["shooter", "competitive"], "popularityScore": 100}
+                        {"id": "f47ac10b-58cc-4372-a567-0e02b2c3d479", "name": "Valorant", "category": "FPS", "tags": ["shooter"]}
+                        """
+                            )
+                    )
+            ),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Importación terminada; incluye los errores por línea",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ProductImportResultDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Acceso denegado (usuario no es ADMIN)",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = com.codebytes2.recommender.auth.commons.dto.response.ErrorResponse.class)
+                            )
+                    )
+            }
+    )
+    @PostMapping(value = "/bulk", consumes = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ProductImportResultDto> importProducts(InputStream body) {
+        return ResponseEntity.ok(productCatalogService.importProducts(body));
+    }
+
+    @Operation(
+            summary = "Exportar el catálogo",
+            description = "Solo accesible para usuarios con rol **ADMIN**.\n" +
+                    "Devuelve todos los productos con sus tags en NDJSON, uno por línea. La respuesta se escribe " +
+                    "a medida que se leen los productos de la base de datos, sin cargar el catálogo en memoria, " +
+                    "y puede volver a importarse con `POST /api/products/bulk`.",
+            security = @SecurityRequirement(name = "bearerAuth"),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Catálogo en NDJSON",
+                            content = @Content(mediaType = "application/x-ndjson")
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Acceso denegado (usuario no es ADMIN)"
+                    )
+            }
+    )
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(productCatalogService::exportProducts);
+    }
+
     @Operation(
             summary = "Obtener detalle de un producto",
             description = "Endpoint público. Devuelve información detallada del producto.",
@@ -200,9 +284,36 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    @Operation(
+            summary = "Listar productos por cursor",
+            description = "Endpoint público. Variante de la lista para scroll infinito: se activa con `after` (vacío en la primera petición, después el `nextCursor` recibido). No calcula el total de elementos.",
+            parameters = {
+                    @Parameter(name = "after", description = "Cursor opaco devuelto en `nextCursor`; vacío para empezar", example = "", in = ParameterIn.QUERY),
+                    @Parameter(name = "size", description = "Elementos por porción", example = "20", in = ParameterIn.QUERY),
+                    @Parameter(name = "sort", description = "Criterio de ordenación (ej: name,asc); el cursor solo vale para la misma ordenación", example = "name,asc", in = ParameterIn.QUERY)
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Porción de productos"),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Cursor no válido",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = com.codebytes2.recommender.auth.commons.dto.response.ErrorResponse.class)
+                            )
+                    )
+            }
+    )
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorSliceDto<ProductSummaryDto>> getAllProductsByCursor(
+            @RequestParam String after,
+            @PageableDefault(size = 20, sort = "name") Pageable pageable) {
+        return ResponseEntity.ok(productService.getAllProducts(after, pageable));
+    }
+
     @Operation(
             summary = "Buscar productos por nombre",
-            description = "Endpoint público. Busca productos cuyo nombre contenga el texto proporcionado (búsqueda parcial, no sensible a mayúsculas).",
+            description = "Endpoint público. Busca productos cuyo nombre contenga el texto proporcionado (búsqueda parcial, no sensible a mayúsculas). Por defecto los resultados se ordenan por nombre; `sort=relevance` los ordena por similitud de trigramas con el texto buscado.",
             parameters = {
                     @Parameter(
                             name = "name",
@@ -211,7 +322,8 @@ public class ProductController {
                             example = "counter-strike"
                     ),
                     @Parameter(name = "page", description = "Número de página", example = "0"),
-                    @Parameter(name = "size", description = "Elementos por página", example = "10")
+                    @Parameter(name = "size", description = "Elementos por página", example = "10"),
+                    @Parameter(name = "sort", description = "Criterio de ordenación (ej: name,asc, por defecto). `relevance` ordena por similitud con el texto buscado", example = "name,asc")
             },
             responses = {
                     @ApiResponse(
@@ -247,6 +359,34 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    @Operation(
+            summary = "Buscar productos por nombre, por cursor",
+            description = "Endpoint público. Variante de la búsqueda para scroll infinito: se activa con `after` (vacío en la primera petición, después el `nextCursor` recibido). No calcula el total de elementos.",
+            parameters = {
+                    @Parameter(name = "name", description = "Nombre o parte del nombre del producto", required = true, example = "counter-strike"),
+                    @Parameter(name = "after", description = "Cursor opaco devuelto en `nextCursor`; vacío para empezar", example = "", in = ParameterIn.QUERY),
+                    @Parameter(name = "size", description = "Elementos por porción", example = "20")
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Porción de productos"),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Cursor no válido",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = com.codebytes2.recommender.auth.commons.dto.response.ErrorResponse.class)
+                            )
+                    )
+            }
+    )
+    @GetMapping(value = "/search", params = "after")
+    public ResponseEntity<CursorSliceDto<ProductSummaryDto>> searchProductsByCursor(
+            @RequestParam String name,
+            @RequestParam String after,
+            @PageableDefault(size = 20, sort = "name") Pageable pageable) {
+        return ResponseEntity.ok(productService.searchProducts(name, after, pageable));
+    }
+
     @Operation(
             summary = "Actualizar un producto",
             description = "Solo accesible para usuarios con rol **ADMIN**.",
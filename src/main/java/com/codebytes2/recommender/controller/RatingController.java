@@ -3,7 +3,10 @@ package com.codebytes2.recommender.controller;
 import com.codebytes2.recommender.auth.commons.dto.response.ErrorResponse;
 import com.codebytes2.recommender.auth.commons.models.entity.UserEntity;
 import com.codebytes2.recommender.dto.request.ProductRatingRequest;
+import com.codebytes2.recommender.dto.response.ProductRatingStatsDto;
+import com.codebytes2.recommender.dto.response.RatingImportResultDto;
 import com.codebytes2.recommender.dto.response.RatingResponseDto;
+import com.codebytes2.recommender.service.RatingImportService;
 import com.codebytes2.recommender.service.RatingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -16,14 +19,16 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Map;
+import java.io.InputStream;
 import java.util.UUID;
 
 @Tag(name = "⭐ Ratings", description = "Gestión de valoraciones de productos")
@@ -33,6 +38,7 @@ import java.util.UUID;
 public class RatingController {
 
     private final RatingService ratingService;
+    private final RatingImportService ratingImportService;
 
     @Operation(
             summary = "Valorar un producto",
@@ -126,7 +132,8 @@ public class RatingController {
 
     @Operation(
             summary = "Obtener promedio de valoraciones de un producto",
-            description = "Devuelve la puntuación promedio de un producto basada en todas las valoraciones recibidas.",
+            description = "Devuelve la puntuación promedio de un producto basada en todas las valoraciones recibidas, " +
+                    "junto con el total de valoraciones y su distribución por puntuación.",
             parameters = @Parameter(
                     name = "productId",
                     description = "ID del producto",
@@ -139,13 +146,14 @@ public class RatingController {
                             description = "Promedio de valoraciones obtenido exitosamente",
                             content = @Content(
                                     mediaType = "application/json",
-                                    schema = @Schema(implementation = Map.class),
+                                    schema = @Schema(implementation = ProductRatingStatsDto.class),
                                     examples = @ExampleObject(
                                             name = "Respuesta exitosa",
                                             value = """
                             {
                               "averageRating": 4.2,
-                              "totalRatings": 5
+                              "totalRatings": 5,
+                              "distribution": { "1": 0, "2": 0, "3": 1, "4": 2, "5": 2 }
                             }
                             """
                                     )
@@ -162,23 +170,71 @@ public class RatingController {
             }
     )
     @GetMapping("/average/{productId}")
-    public ResponseEntity<Map<String, Object>> getAverageRating(@PathVariable UUID productId) {
-        Double averageRating = ratingService.getAverageRatingByProduct(productId);
-        long totalRatings = ratingService.getRatingCountByProduct(productId);
-
-        if (totalRatings == 0) {
-            // If no ratings exist, return a default response
-            Map<String, Object> response = Map.of(
-                    "averageRating", 0.0,
-                    "totalRatings", 0
-            );
-            return ResponseEntity.ok(response);
-        }
+    public ResponseEntity<ProductRatingStatsDto> getAverageRating(@PathVariable UUID productId) {
+        return ResponseEntity.ok(ratingService.getRatingStatsByProduct(productId));
+    }
 
-        Map<String, Object> response = Map.of(
-                "averageRating", averageRating,
-                "totalRatings", totalRatings
-        );
-        return ResponseEntity.ok(response);
+    @Operation(
+            summary = "Importar valoraciones de forma masiva",
+            description = "Carga valoraciones desde el cuerpo de la petición, una por línea, en formato NDJSON " +
+                    "(`application/x-ndjson`) o CSV (`text/csv`, columnas `userId,productId,score[,createdAt]` " +
+                    "con cabecera opcional). El cuerpo se procesa a medida que llega y se guarda por lotes. " +
+                    "Las líneas inválidas y las valoraciones ya existentes no detienen la importación: " +
+                    "se cuentan y se devuelven en el resultado. Requiere rol **ADMIN**.",
+            security = @SecurityRequirement(name = "bearerAuth"),
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Valoraciones, una por línea",
+                    required = true,
+                    content = {
+                            @Content(
+                                    mediaType = "application/x-ndjson",
+                                    examples = @ExampleObject(
+                                            name = "NDJSON",
+                                            value = """
+                        {"userId": "e89b158e-0000-1111-2222-123456789abc", "productId": "f47ac10b-58cc-4372-a567-0e02b2c3d479", "score": 4}
+                        {"userId": "e89b158e-0000-1111-2222-123456789abc", "productId": "a0eebc99-9c0b-4ef8-bb6d-6bb9bd380a11", "score": 5, "createdAt": "2025-11-18T12:00:00Z"}
+                        """
+                                    )
+                            ),
+                            @Content(
+                                    mediaType = "text/csv",
+                                    examples = @ExampleObject(
+                                            name = "CSV",
+                                            value = """
+                        userId,productId,score,createdAt
+                        e89b158e-0000-1111-2222-123456789abc,f47ac10b-58cc-4372-a567-0e02b2c3d479,4,
+                        e89b158e-0000-1111-2222-123456789abc,a0eebc99-9c0b-4ef8-bb6d-6bb9bd380a11,5,2025-11-18T12:00:00Z
+                        """
+                                    )
+                            )
+                    }
+            ),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Importación terminada; incluye los errores por línea",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = RatingImportResultDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "No autenticado"
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Acceso denegado - No tiene rol ADMIN"
+                    )
+            }
+    )
+    @PostMapping(value = "/bulk", consumes = {"application/x-ndjson", "text/csv"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RatingImportResultDto> importRatings(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                               InputStream body) {
+        RatingImportService.Format format = MediaType.valueOf("text/csv").isCompatibleWith(contentType)
+                ? RatingImportService.Format.CSV
+                : RatingImportService.Format.NDJSON;
+        return ResponseEntity.ok(ratingImportService.importRatings(body, format));
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.codebytes2.recommender.controller;
 
+import com.codebytes2.recommender.dto.response.RecommendationModelStatusDto;
 import com.codebytes2.recommender.dto.response.RecommendationResponseDto;
 import com.codebytes2.recommender.service.RecommendationService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,6 +14,7 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.UUID;
@@ -37,6 +39,12 @@ public class RecommendationController {
                             example = "e89b158e-0000-1111-2222-123456789abc",
                             in = ParameterIn.PATH
                     ),
+                    @Parameter(
+                            name = "limit",
+                            description = "Número máximo de productos recomendados (1-100)",
+                            example = "20",
+                            in = ParameterIn.QUERY
+                    ),
                     @Parameter(
                             name = "Authorization",
                             description = "Bearer token para autenticación",
@@ -76,6 +84,14 @@ public class RecommendationController {
                                     )
                             )
                     ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Límite fuera de rango",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = com.codebytes2.recommender.auth.commons.dto.response.ErrorResponse.class)
+                            )
+                    ),
                     @ApiResponse(
                             responseCode = "401",
                             description = "No autenticado",
@@ -99,8 +115,45 @@ public class RecommendationController {
             }
     )
     @GetMapping("/{userId}")
-    public ResponseEntity<RecommendationResponseDto> getRecommendations(@PathVariable UUID userId) {
-        RecommendationResponseDto recommendations = recommendationService.getRecommendationsForUser(userId);
+    public ResponseEntity<RecommendationResponseDto> getRecommendations(
+            @PathVariable UUID userId,
+            @RequestParam(defaultValue = "20") int limit) {
+        RecommendationResponseDto recommendations = recommendationService.getRecommendationsForUser(userId, limit);
         return ResponseEntity.ok(recommendations);
     }
-}
\ No newline at end of file
+
+    @Operation(
+            summary = "Estado del modelo de factorización de matrices",
+            description = "Solo accesible para usuarios con rol **ADMIN**.\n" +
+                    "Devuelve la versión del modelo ALS en uso, cuándo se entrenó, el tiempo de entrenamiento " +
+                    "y el RMSE sobre las valoraciones reservadas.",
+            security = @SecurityRequirement(name = "bearerAuth"),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Estado del modelo",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = RecommendationModelStatusDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "No autenticado",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = com.codebytes2.recommender.auth.commons.dto.response.ErrorResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Acceso denegado (no es ADMIN)"
+                    )
+            }
+    )
+    @GetMapping("/model")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RecommendationModelStatusDto> getModelStatus() {
+        return ResponseEntity.ok(recommendationService.getModelStatus());
+    }
+}
@@ -4,6 +4,8 @@ import com.codebytes2.recommender.auth.commons.dto.response.ErrorResponse;
 import com.codebytes2.recommender.backend.TournamentStatus;
 import com.codebytes2.recommender.dto.request.TournamentCreateRequest;
 import com.codebytes2.recommender.dto.request.TournamentJoinRequest;
+import com.codebytes2.recommender.dto.response.CursorSliceDto;
+import com.codebytes2.recommender.dto.response.RegistrationReconcileResultDto;
 import com.codebytes2.recommender.dto.response.TournamentDetailDto;
 import com.codebytes2.recommender.dto.response.TournamentJoinResponse;
 import com.codebytes2.recommender.dto.response.TournamentSummaryDto;
@@ -297,7 +299,7 @@ public class TournamentController {
             parameters = {
                     @Parameter(name = "page", description = "Número de página (0-based)", example = "0", in = ParameterIn.QUERY),
                     @Parameter(name = "size", description = "Elementos por página", example = "10", in = ParameterIn.QUERY),
-                    @Parameter(name = "sort", description = "Criterio de ordenación (ej: startDate,asc)", example = "startDate,asc", in = ParameterIn.QUERY),
+                    @Parameter(name = "sort", description = "Criterio de ordenación (ej: startDate,asc). Con `q`, `relevance` ordena por similitud con el texto buscado", example = "startDate,asc", in = ParameterIn.QUERY),
                     @Parameter(name = "status", description = "Filtrar por estado del torneo (UPCOMING, OPEN, CLOSED)", example = "OPEN", in = ParameterIn.QUERY),
                     @Parameter(name = "game", description = "Filtrar por nombre del juego", example = "Valorant", in = ParameterIn.QUERY),
                     @Parameter(name = "q", description = "Texto libre para búsqueda en nombre o descripción", example = "LATAM", in = ParameterIn.QUERY)
@@ -352,9 +354,42 @@ public class TournamentController {
         return ResponseEntity.ok(tournaments);
     }
 
+    @Operation(
+            summary = "Listar torneos por cursor",
+            description = "Endpoint público. Variante de la lista para scroll infinito: se activa con `after` (vacío en la primera petición, después el `nextCursor` recibido). Admite los mismos filtros y no calcula el total de elementos.",
+            parameters = {
+                    @Parameter(name = "after", description = "Cursor opaco devuelto en `nextCursor`; vacío para empezar", example = "", in = ParameterIn.QUERY),
+                    @Parameter(name = "size", description = "Elementos por porción", example = "20", in = ParameterIn.QUERY),
+                    @Parameter(name = "sort", description = "Criterio de ordenación (ej: startDate,asc); el cursor solo vale para la misma ordenación", example = "startDate,asc", in = ParameterIn.QUERY),
+                    @Parameter(name = "status", description = "Filtrar por estado del torneo (UPCOMING, OPEN, CLOSED)", example = "OPEN", in = ParameterIn.QUERY),
+                    @Parameter(name = "game", description = "Filtrar por nombre del juego", example = "Valorant", in = ParameterIn.QUERY),
+                    @Parameter(name = "q", description = "Texto libre para búsqueda en nombre o juego", example = "LATAM", in = ParameterIn.QUERY)
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Porción de torneos"),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Cursor no válido",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            )
+                    )
+            }
+    )
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorSliceDto<TournamentSummaryDto>> getAllTournamentsByCursor(
+            @RequestParam String after,
+            @PageableDefault(size = 20, sort = "startDate") Pageable pageable,
+            @RequestParam(required = false) TournamentStatus status,
+            @RequestParam(required = false) String game,
+            @RequestParam(required = false, name = "q") String searchQuery) {
+        return ResponseEntity.ok(service.getAllTournaments(after, pageable, status, game, searchQuery));
+    }
+
     @Operation(
             summary = "Unirse a un torneo",
-            description = "Permite a un jugador unirse a un torneo. Valida existencia del torneo, periodo de inscripción activo, plazas disponibles y que el usuario no esté ya inscrito.",
+            description = "Permite a un jugador unirse a un torneo. Valida existencia del torneo, periodo de inscripción activo y que el usuario no esté ya inscrito. Si no quedan plazas, la inscripción queda en lista de espera (`WAITLISTED`) y se promociona automáticamente, por orden de llegada, cuando otra inscripción se cancela o se rechaza.",
             security = @SecurityRequirement(name = "bearerAuth"),
             parameters = {
                     @Parameter(
@@ -408,7 +443,15 @@ public class TournamentController {
                     ),
                     @ApiResponse(
                             responseCode = "400",
-                            description = "Solicitud inválida (campos faltantes, fuera de periodo de inscripción, sin plazas, ya inscrito)",
+                            description = "Solicitud inválida (campos faltantes)",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "409",
+                            description = "Fuera de periodo de inscripción o ya inscrito",
                             content = @Content(
                                     mediaType = "application/json",
                                     schema = @Schema(implementation = ErrorResponse.class)
@@ -455,6 +498,151 @@ public class TournamentController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(
+            summary = "Cancelar la inscripción a un torneo",
+            description = "Cancela la inscripción (o la plaza en lista de espera) del jugador autenticado. Si la inscripción ocupaba plaza, esta pasa a la inscripción más antigua de la lista de espera.",
+            security = @SecurityRequirement(name = "bearerAuth"),
+            parameters = @Parameter(
+                    name = "id",
+                    description = "ID del torneo (UUID)",
+                    required = true,
+                    example = "f47ac10b-58cc-4372-a567-0e02b2c3d479"
+            ),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Inscripción cancelada",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = TournamentJoinResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Acceso denegado (no es PLAYER)",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "El usuario no está inscrito en el torneo",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "409",
+                            description = "La inscripción ya estaba cancelada o rechazada",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            )
+                    )
+            }
+    )
+    @DeleteMapping("/{id}/join")
+    @PreAuthorize("hasRole('PLAYER')")
+    public ResponseEntity<TournamentJoinResponse> cancelRegistration(@PathVariable UUID id) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        com.codebytes2.recommender.auth.commons.models.entity.UserEntity authenticatedUser =
+                (com.codebytes2.recommender.auth.commons.models.entity.UserEntity) authentication.getPrincipal();
+
+        return ResponseEntity.ok(service.cancelRegistration(id, authenticatedUser.getId()));
+    }
+
+    @Operation(
+            summary = "Rechazar una inscripción",
+            description = "Solo accesible para usuarios con rol **ADMIN**. Rechaza una inscripción del torneo; si ocupaba plaza, esta pasa a la inscripción más antigua de la lista de espera.",
+            security = @SecurityRequirement(name = "bearerAuth"),
+            parameters = {
+                    @Parameter(
+                            name = "id",
+                            description = "ID del torneo (UUID)",
+                            required = true,
+                            example = "f47ac10b-58cc-4372-a567-0e02b2c3d479"
+                    ),
+                    @Parameter(
+                            name = "registrationId",
+                            description = "ID de la inscripción (UUID)",
+                            required = true,
+                            example = "0d6f2a1e-8b3c-4e5f-9a7b-1c2d3e4f5a6b"
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Inscripción rechazada",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = TournamentJoinResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Acceso denegado (no es ADMIN)",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Inscripción no encontrada en el torneo",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "409",
+                            description = "La inscripción ya estaba cancelada o rechazada",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            )
+                    )
+            }
+    )
+    @PostMapping("/{id}/registrations/{registrationId}/reject")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TournamentJoinResponse> rejectRegistration(
+            @PathVariable UUID id,
+            @PathVariable UUID registrationId) {
+        return ResponseEntity.ok(service.rejectRegistration(id, registrationId));
+    }
+
+    @Operation(
+            summary = "Recalcular los contadores de inscripciones",
+            description = "Operación de mantenimiento. Recalcula, torneo a torneo y con la fila bloqueada, el número de inscripciones activas a partir de las inscripciones y corrige los contadores que no coinciden. Solo accesible para usuarios con rol **ADMIN**.",
+            security = @SecurityRequirement(name = "bearerAuth"),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Contadores revisados",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = RegistrationReconcileResultDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Acceso denegado (no es ADMIN)",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            )
+                    )
+            }
+    )
+    @PostMapping("/maintenance/reconcile-registrations")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RegistrationReconcileResultDto> reconcileRegistrationCounts() {
+        return ResponseEntity.ok(service.reconcileRegistrationCounts());
+    }
+
     @Operation(
             summary = "Eliminar un torneo",
             description = "Solo accesible para usuarios con rol **ADMIN**.",
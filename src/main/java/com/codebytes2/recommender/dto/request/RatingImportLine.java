@@ -0,0 +1,31 @@
+package com.codebytes2.recommender.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Una línea de la importación masiva de valoraciones (NDJSON); en CSV: userId,productId,score[,createdAt]")
+public class RatingImportLine {
+
+    @Schema(description = "ID del usuario que valoró", example = "e89b158e-0000-1111-2222-123456789abc")
+    private UUID userId;
+
+    @Schema(description = "ID del producto valorado", example = "a1b2c3d4-e5f6-7890-g1h2-i3j4k5l6m7n8")
+    private UUID productId;
+
+    @Schema(description = "Puntuación de 1 a 5", example = "4")
+    private Integer score;
+
+    @Schema(description = "Fecha de la valoración original; si falta se usa la de la importación",
+            example = "2024-05-01T10:00:00Z")
+    private Instant createdAt;
+}
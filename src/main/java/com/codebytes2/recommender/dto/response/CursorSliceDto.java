@@ -0,0 +1,30 @@
+package com.codebytes2.recommender.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Porción de resultados paginada por cursor (sin recuento total)")
+public class CursorSliceDto<T> {
+
+    @Schema(description = "Elementos de esta porción")
+    private List<T> content;
+
+    @Schema(description = "Número de elementos de esta porción", example = "20")
+    private int size;
+
+    @Schema(description = "Indica si hay más resultados después de esta porción", example = "true")
+    private boolean hasNext;
+
+    @Schema(description = "Cursor opaco para pedir la siguiente porción con `?after=`; null si no hay más",
+            example = "eyJuYW1lIjp7InQiOiJTIiwidiI6IkNTMiJ9fQ")
+    private String nextCursor;
+}
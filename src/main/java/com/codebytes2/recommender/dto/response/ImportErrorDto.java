@@ -0,0 +1,21 @@
+package com.codebytes2.recommender.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Línea rechazada en una importación masiva")
+public class ImportErrorDto {
+
+    @Schema(description = "Número de línea en el cuerpo de la petición (desde 1)", example = "42")
+    private long line;
+
+    @Schema(description = "Motivo del rechazo", example = "Producto no encontrado")
+    private String message;
+}
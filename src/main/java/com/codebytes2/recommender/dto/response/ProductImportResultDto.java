@@ -0,0 +1,39 @@
+package com.codebytes2.recommender.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado de una importación masiva de productos")
+public class ProductImportResultDto {
+
+    @Schema(description = "Líneas con datos recibidas", example = "500000")
+    private long received;
+
+    @Schema(description = "Productos creados", example = "499000")
+    private long imported;
+
+    @Schema(description = "Productos omitidos porque su ID ya existía (en la base de datos o antes en el mismo fichero)",
+            example = "990")
+    private long duplicates;
+
+    @Schema(description = "Líneas rechazadas por formato o datos inválidos", example = "10")
+    private long rejected;
+
+    @Schema(description = "Detalle de las primeras líneas rechazadas")
+    private List<ImportErrorDto> errors;
+
+    @Schema(description = "Duración de la importación en milisegundos", example = "60000")
+    private long elapsedMs;
+
+    @Schema(description = "Líneas procesadas por segundo", example = "8333.3")
+    private double productsPerSecond;
+}
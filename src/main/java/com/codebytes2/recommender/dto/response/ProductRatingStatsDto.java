@@ -0,0 +1,26 @@
+package com.codebytes2.recommender.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO with the aggregated ratings of a product")
+public class ProductRatingStatsDto {
+
+    @Schema(description = "Average score of the product (0.0 when it has no ratings)", example = "4.2")
+    private Double averageRating;
+
+    @Schema(description = "Total number of ratings received", example = "5")
+    private Long totalRatings;
+
+    @Schema(description = "Number of ratings per score (1 to 5)", example = "{\"1\": 0, \"2\": 0, \"3\": 1, \"4\": 2, \"5\": 2}")
+    private Map<Integer, Long> distribution;
+}
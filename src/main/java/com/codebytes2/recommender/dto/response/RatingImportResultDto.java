@@ -0,0 +1,39 @@
+package com.codebytes2.recommender.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado de una importación masiva de valoraciones")
+public class RatingImportResultDto {
+
+    @Schema(description = "Líneas con datos recibidas", example = "100000")
+    private long received;
+
+    @Schema(description = "Valoraciones guardadas", example = "99500")
+    private long imported;
+
+    @Schema(description = "Valoraciones omitidas porque el usuario ya había valorado el producto (en la base de datos o antes en el mismo fichero)",
+            example = "480")
+    private long duplicates;
+
+    @Schema(description = "Líneas rechazadas por formato o datos inválidos", example = "20")
+    private long rejected;
+
+    @Schema(description = "Detalle de las primeras líneas rechazadas")
+    private List<ImportErrorDto> errors;
+
+    @Schema(description = "Duración de la importación en milisegundos", example = "41000")
+    private long elapsedMs;
+
+    @Schema(description = "Líneas procesadas por segundo", example = "2439.0")
+    private double ratingsPerSecond;
+}
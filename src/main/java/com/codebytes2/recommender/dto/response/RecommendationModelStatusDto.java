@@ -0,0 +1,44 @@
+package com.codebytes2.recommender.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO with the state of the matrix factorization model")
+public class RecommendationModelStatusDto {
+
+    @Schema(description = "Algorithm version stored with the recommendations it produces", example = "als-v1")
+    private String algorithmVersion;
+
+    @Schema(description = "Model version, incremented on every training (0 if never trained)", example = "3")
+    private Long modelVersion;
+
+    @Schema(description = "When the model in use was trained", example = "2025-11-18T12:00:00Z")
+    private Instant trainedAt;
+
+    @Schema(description = "Training time in milliseconds", example = "850")
+    private Long trainingTimeMs;
+
+    @Schema(description = "Root mean squared error on the held-out ratings (null if none were held out)", example = "0.91")
+    private Double rmse;
+
+    @Schema(description = "Number of users in the model", example = "120")
+    private Integer users;
+
+    @Schema(description = "Number of products in the model", example = "300")
+    private Integer products;
+
+    @Schema(description = "Ratings the model in use was trained on (all of them)", example = "5000")
+    private Integer trainingRatings;
+
+    @Schema(description = "Ratings held out from a separate evaluation model to compute the RMSE", example = "500")
+    private Integer holdoutRatings;
+}
@@ -0,0 +1,21 @@
+package com.codebytes2.recommender.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO with the result of recomputing the registration counters of the tournaments")
+public class RegistrationReconcileResultDto {
+
+    @Schema(description = "Tournaments checked", example = "120")
+    private Integer tournaments;
+
+    @Schema(description = "Tournaments whose counter did not match their active registrations and was corrected", example = "2")
+    private Integer corrected;
+}
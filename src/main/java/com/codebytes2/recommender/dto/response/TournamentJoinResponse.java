@@ -26,4 +26,7 @@ public class TournamentJoinResponse {
 
     @Schema(description = "Estado de la inscripción", example = "REGISTERED")
     private String status;
+
+    @Schema(description = "Posición en la lista de espera (solo si el estado es WAITLISTED)", example = "3")
+    private Long waitlistPosition;
 }
\ No newline at end of file
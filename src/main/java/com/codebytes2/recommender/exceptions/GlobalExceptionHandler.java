@@ -2,11 +2,14 @@ package com.codebytes2.recommender.exceptions;
 
 import com.codebytes2.recommender.auth.commons.dto.response.ErrorResponse;
 import com.codebytes2.recommender.auth.exceptions.DuplicateEmailException;
+import com.codebytes2.recommender.auth.exceptions.PasswordHashingUnavailableException;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -95,6 +98,30 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseEntity<ErrorResponse> handlePasswordHashingUnavailableException(PasswordHashingUnavailableException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                ex.getMessage(),
+                (Map<String, String>) null);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
+    /**
+     * The authentication provider wraps whatever fails while it loads the user, so a hashing
+     * rejection raised on that path still has to reach the client as a 503.
+     */
+    @ExceptionHandler(InternalAuthenticationServiceException.class)
+    public ResponseEntity<ErrorResponse> handleInternalAuthenticationServiceException(InternalAuthenticationServiceException ex) {
+        if (ex.getCause() instanceof PasswordHashingUnavailableException unavailable) {
+            return handlePasswordHashingUnavailableException(unavailable);
+        }
+        return handleGenericException(ex);
+    }
+
     @ExceptionHandler(DuplicateRatingException.class)
     @ResponseStatus(HttpStatus.CONFLICT)
     public ResponseEntity<ErrorResponse> handleDuplicateRatingException(DuplicateRatingException ex) {
@@ -16,6 +16,7 @@ public interface RatingMapper {
     @Mapping(target = "userEntity", ignore = true) // Will be set separately
     @Mapping(target = "product", ignore = true)   // Will be set separately
     @Mapping(target = "createdAt", ignore = true)  // Will be auto-generated
+    @Mapping(target = "insertedAt", ignore = true)
     Rating toEntity(ProductRatingRequest request);
 
     // Map from request with user and product
@@ -14,6 +14,7 @@ public interface TournamentMapper {
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "status", ignore = true)
     @Mapping(target = "registrations", ignore = true)
+    @Mapping(target = "activeRegistrations", ignore = true)
     Tournament toEntity(TournamentCreateRequest request);
 
     @Mapping(source = "registeredCount", target = "participants")
@@ -1,9 +1,11 @@
 package com.codebytes2.recommender.model;
 
+import com.codebytes2.recommender.model.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.Instant;
 import java.util.HashSet;
@@ -11,7 +13,8 @@ import java.util.Set;
 import java.util.UUID;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = @Index(name = "idx_products_popularity_score",
+        columnList = "popularity_score DESC"))
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -19,6 +22,7 @@ public class Product {
 
     @Id
     @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7.class)
     private UUID id;
 
     @Column(nullable = false)
@@ -29,7 +33,8 @@ public class Product {
     private String category;
 
     @ElementCollection
-    @CollectionTable(name = "product_tags", joinColumns = @JoinColumn(name = "product_id"))
+    @CollectionTable(name = "product_tags", joinColumns = @JoinColumn(name = "product_id"),
+            indexes = @Index(name = "idx_product_tags_tag", columnList = "tag, product_id"))
     @Column(name = "tag")
     private Set<String> tags = new HashSet<>();
 
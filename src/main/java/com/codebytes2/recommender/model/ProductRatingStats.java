@@ -0,0 +1,87 @@
+package com.codebytes2.recommender.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Rating aggregate per product (sum, count and per-star histogram), maintained on every
+ * rating write so averages and counts can be read without scanning the ratings table.
+ */
+@Entity
+@Table(name = "product_rating_stats")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductRatingStats {
+
+    @Id
+    @Column(name = "product_id")
+    private UUID productId;
+
+    @Column(nullable = false)
+    private Long ratingSum = 0L;
+
+    @Column(nullable = false)
+    private Long ratingCount = 0L;
+
+    @Column(nullable = false)
+    private Long oneStarCount = 0L;
+
+    @Column(nullable = false)
+    private Long twoStarCount = 0L;
+
+    @Column(nullable = false)
+    private Long threeStarCount = 0L;
+
+    @Column(nullable = false)
+    private Long fourStarCount = 0L;
+
+    @Column(nullable = false)
+    private Long fiveStarCount = 0L;
+
+    private Instant updatedAt;
+
+    public ProductRatingStats(UUID productId) {
+        this.productId = productId;
+    }
+
+    public void addScore(int score) {
+        ratingSum += score;
+        ratingCount++;
+        switch (score) {
+            case 1 -> oneStarCount++;
+            case 2 -> twoStarCount++;
+            case 3 -> threeStarCount++;
+            case 4 -> fourStarCount++;
+            case 5 -> fiveStarCount++;
+            default -> throw new IllegalArgumentException("La puntuación debe estar entre 1 y 5");
+        }
+        updatedAt = Instant.now();
+    }
+
+    @Transient
+    public Double getAverageRating() {
+        if (ratingCount == null || ratingCount == 0) {
+            return null;
+        }
+        return (double) ratingSum / ratingCount;
+    }
+
+    @Transient
+    public Map<Integer, Long> getDistribution() {
+        Map<Integer, Long> distribution = new LinkedHashMap<>();
+        distribution.put(1, oneStarCount);
+        distribution.put(2, twoStarCount);
+        distribution.put(3, threeStarCount);
+        distribution.put(4, fourStarCount);
+        distribution.put(5, fiveStarCount);
+        return distribution;
+    }
+}
@@ -1,6 +1,7 @@
 package com.codebytes2.recommender.model;
 
 import com.codebytes2.recommender.auth.commons.models.entity.UserEntity;
+import com.codebytes2.recommender.model.id.UuidV7;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -8,12 +9,16 @@ import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@Table(name = "ratings", uniqueConstraints = @UniqueConstraint(columnNames = { "user_id", "product_id" }))
+@Table(name = "ratings", uniqueConstraints = @UniqueConstraint(columnNames = { "user_id", "product_id" }), indexes = {
+        @Index(name = "idx_ratings_product_id", columnList = "product_id"),
+        @Index(name = "idx_ratings_user_inserted_at", columnList = "user_id, inserted_at")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -21,6 +26,7 @@ public class Rating {
 
     @Id
     @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7.class)
     private UUID id;
 
     @NotNull
@@ -42,10 +48,15 @@ public class Rating {
     @Column(nullable = false, updatable = false)
     private Instant createdAt;
 
+    // When the row was written; unlike createdAt it cannot be set in the past by an import
+    @Column(nullable = false, updatable = false)
+    private Instant insertedAt;
+
     @PrePersist
     protected void onCreate() {
+        insertedAt = Instant.now();
         if (createdAt == null) {
-            createdAt = Instant.now();
+            createdAt = insertedAt;
         }
     }
 }
@@ -1,9 +1,11 @@
 package com.codebytes2.recommender.model;
 
+import com.codebytes2.recommender.model.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.Instant;
 import java.util.ArrayList;
@@ -11,7 +13,8 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "recommendations")
+@Table(name = "recommendations", indexes = @Index(name = "idx_recommendations_user_computed_at",
+        columnList = "user_id, computed_at"))
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -19,6 +22,7 @@ public class Recommendation {
 
     @Id
     @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7.class)
     private UUID id;
 
     @Column(name = "user_id", nullable = false)
@@ -26,8 +30,8 @@ public class Recommendation {
 
     @ElementCollection
     @CollectionTable(name = "recommended_products", joinColumns = @JoinColumn(name = "recommendation_result_id"))
-    @Column(name = "product_id")
-    private List<UUID> productIds = new ArrayList<>();
+    @OrderColumn(name = "position")
+    private List<RecommendedItem> items = new ArrayList<>();
 
     @Column(nullable = false, updatable = false)
     private Instant computedAt;
@@ -35,6 +39,19 @@ public class Recommendation {
     @Column(nullable = false)
     private String algorithmVersion;
 
+    // Algorithm configured when this result was computed; algorithmVersion is v1.0 after a fallback
+    private String configuredAlgorithmVersion;
+
+    // Limit requested when this result was computed; it can serve any request up to this size
+    private Integer resultLimit;
+
+    @Transient
+    public List<UUID> getProductIds() {
+        return items.stream()
+                .map(RecommendedItem::getProductId)
+                .toList();
+    }
+
     @PrePersist
     protected void onCreate() {
         if (computedAt == null) {
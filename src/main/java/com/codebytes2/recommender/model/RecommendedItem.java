@@ -0,0 +1,22 @@
+package com.codebytes2.recommender.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Embeddable
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecommendedItem {
+
+    @Column(name = "product_id", nullable = false)
+    private UUID productId;
+
+    @Column(name = "relevance_score")
+    private Double relevanceScore;
+}
@@ -1,12 +1,15 @@
 package com.codebytes2.recommender.model;
 
 import com.codebytes2.recommender.backend.TournamentStatus;
+import com.codebytes2.recommender.model.id.UuidV7;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.Instant;
 import java.util.ArrayList;
@@ -14,7 +17,12 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "tournaments")
+@Table(name = "tournaments", indexes = {
+        @Index(name = "idx_tournaments_status_start_date", columnList = "status, start_date"),
+        @Index(name = "idx_tournaments_start_date", columnList = "start_date"),
+        @Index(name = "idx_tournaments_registration_open_at", columnList = "registration_open_at"),
+        @Index(name = "idx_tournaments_registration_close_at", columnList = "registration_close_at")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -23,6 +31,7 @@ public class Tournament {
 
     @Id
     @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7.class)
     private UUID id;
 
     @Column(nullable = false)
@@ -59,12 +68,16 @@ public class Tournament {
     @Builder.Default
     private List<TournamentRegistration> registrations = new ArrayList<>();
 
+    // Denormalized number of REGISTERED/CONFIRMED registrations, so listing tournaments
+    // never has to load the registrations collection
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer activeRegistrations = 0;
+
     @Transient
     public int getRegisteredCount() {
-        return registrations.stream()
-                .filter(TournamentRegistration::isActive)
-                .toList()
-                .size();
+        return activeRegistrations != null ? activeRegistrations : 0;
     }
 
     @Transient
@@ -74,6 +87,23 @@ public class Tournament {
         return Math.max(0, maxParticipants - getRegisteredCount());
     }
 
+    /**
+     * Status that the registration window and the free slots give at {@code now}. Same rule as
+     * {@code TournamentRepository.applyScheduledStatus}, which the lifecycle scheduler applies.
+     */
+    public TournamentStatus scheduledStatusAt(Instant now) {
+        if (!registrationCloseAt.isAfter(now)) {
+            return TournamentStatus.CLOSED;
+        }
+        if (registrationOpenAt.isAfter(now)) {
+            return TournamentStatus.UPCOMING;
+        }
+        if (maxParticipants != null && getRegisteredCount() >= maxParticipants) {
+            return TournamentStatus.CLOSED;
+        }
+        return TournamentStatus.OPEN;
+    }
+
     public void setParticipants(ArrayList<Object> objects) {
     }
 
@@ -2,19 +2,22 @@ package com.codebytes2.recommender.model;
 
 import com.codebytes2.recommender.auth.commons.models.entity.UserEntity;
 import com.codebytes2.recommender.backend.RegistrationStatus;
+import com.codebytes2.recommender.model.id.UuidV7;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.Instant;
 import java.util.UUID;
 
 @Entity
 @Table(name = "tournament_registrations", uniqueConstraints = @UniqueConstraint(columnNames = { "tournament_id",
-        "user_id" }))
+        "user_id" }), indexes = @Index(name = "idx_tournament_registrations_waitlist",
+        columnList = "tournament_id, status, registered_at"))
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -23,6 +26,7 @@ public class TournamentRegistration {
 
     @Id
     @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7.class)
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
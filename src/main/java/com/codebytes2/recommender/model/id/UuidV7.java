@@ -0,0 +1,40 @@
+package com.codebytes2.recommender.model.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUIDs (version 7, RFC 9562): the first 48 bits are the Unix time in milliseconds,
+ * so new ids land at the right edge of the primary key B-tree instead of on a random page, and the
+ * remaining bits stay random like those of {@link UUID#randomUUID()}. The 12 bits after the version
+ * are a counter, which keeps ids generated by this JVM strictly increasing even within the same
+ * millisecond or when the clock steps back.
+ * <p>
+ * Used by the entities through {@code @UuidGenerator(algorithm = UuidV7.class)} and directly by
+ * the code that inserts rows with JDBC.
+ */
+public class UuidV7 implements UuidValueGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // Milliseconds << 12 | counter of the last id handed out
+    private static final AtomicLong LAST = new AtomicLong();
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long stamp = LAST.updateAndGet(last -> Math.max(now, last + 1));
+
+        long mostSignificant = (stamp >>> 12) << 16 | 0x7000L | (stamp & 0xFFFL);
+        long leastSignificant = RANDOM.nextLong() & 0x3FFF_FFFF_FFFF_FFFFL | 0x8000_0000_0000_0000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return next();
+    }
+}
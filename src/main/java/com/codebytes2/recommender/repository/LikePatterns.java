@@ -0,0 +1,24 @@
+package com.codebytes2.recommender.repository;
+
+/**
+ * LIKE patterns that match user text literally. {@code %}, {@code _} and the escape character itself
+ * are escaped with a backslash, which every query using these patterns names with {@code ESCAPE}.
+ */
+public final class LikePatterns {
+
+    public static final char ESCAPE = '\\';
+
+    private LikePatterns() {
+    }
+
+    public static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Pattern matching any value that contains {@code text}.
+     */
+    public static String containing(String text) {
+        return "%" + escape(text) + "%";
+    }
+}
@@ -0,0 +1,78 @@
+package com.codebytes2.recommender.repository;
+
+import com.codebytes2.recommender.model.ProductRatingStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface ProductRatingStatsRepository extends JpaRepository<ProductRatingStats, UUID> {
+
+    /**
+     * Atomically adds one score to the product's aggregate, creating the row on the product's first rating.
+     */
+    /**
+     * Creates the empty aggregate of a new product with the upsert, so no SELECT precedes the insert.
+     */
+    default void createEmpty(UUID productId, Instant updatedAt) {
+        addScores(productId, 0, 0, 0, 0, 0, 0, 0, updatedAt);
+    }
+
+    default void addScore(UUID productId, int score, Instant updatedAt) {
+        if (score < 1 || score > 5) {
+            throw new IllegalArgumentException("La puntuación debe estar entre 1 y 5");
+        }
+        addScores(productId, score, 1,
+                score == 1 ? 1 : 0, score == 2 ? 1 : 0, score == 3 ? 1 : 0, score == 4 ? 1 : 0, score == 5 ? 1 : 0,
+                updatedAt);
+    }
+
+    /**
+     * Adds a batch of scores to the product's aggregate in a single upsert (ON CONFLICT on PostgreSQL,
+     * MERGE on H2), so concurrent first ratings of a product cannot both try to insert its row.
+     */
+    @Modifying
+    @Query("INSERT INTO ProductRatingStats (productId, ratingSum, ratingCount, " +
+            "oneStarCount, twoStarCount, threeStarCount, fourStarCount, fiveStarCount, updatedAt) " +
+            "VALUES (:productId, :sum, :count, :one, :two, :three, :four, :five, :updatedAt) " +
+            "ON CONFLICT (productId) DO UPDATE SET " +
+            "ratingSum = ratingSum + excluded.ratingSum, " +
+            "ratingCount = ratingCount + excluded.ratingCount, " +
+            "oneStarCount = oneStarCount + excluded.oneStarCount, " +
+            "twoStarCount = twoStarCount + excluded.twoStarCount, " +
+            "threeStarCount = threeStarCount + excluded.threeStarCount, " +
+            "fourStarCount = fourStarCount + excluded.fourStarCount, " +
+            "fiveStarCount = fiveStarCount + excluded.fiveStarCount, " +
+            "updatedAt = excluded.updatedAt")
+    void addScores(@Param("productId") UUID productId,
+                   @Param("sum") long sum,
+                   @Param("count") long count,
+                   @Param("one") long one,
+                   @Param("two") long two,
+                   @Param("three") long three,
+                   @Param("four") long four,
+                   @Param("five") long five,
+                   @Param("updatedAt") Instant updatedAt);
+
+    /**
+     * Creates the aggregate of every rated product that has none, computed from the ratings table.
+     * Existing rows are left untouched; if a product gets its first rating meanwhile, the statement
+     * fails on the primary key and can simply be run again.
+     */
+    @Modifying
+    @Query("INSERT INTO ProductRatingStats (productId, ratingSum, ratingCount, " +
+            "oneStarCount, twoStarCount, threeStarCount, fourStarCount, fiveStarCount) " +
+            "SELECT r.product.id, SUM(r.score), COUNT(r), " +
+            "SUM(CASE WHEN r.score = 1 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN r.score = 2 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN r.score = 3 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN r.score = 4 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN r.score = 5 THEN 1 ELSE 0 END) " +
+            "FROM Rating r " +
+            "WHERE NOT EXISTS (SELECT 1 FROM ProductRatingStats s WHERE s.productId = r.product.id) " +
+            "GROUP BY r.product.id")
+    int insertMissingFromRatings();
+}
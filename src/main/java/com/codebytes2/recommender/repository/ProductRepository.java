@@ -1,13 +1,65 @@
 package com.codebytes2.recommender.repository;
 
 import com.codebytes2.recommender.model.Product;
+import com.codebytes2.recommender.repository.projection.CatalogRow;
+import com.codebytes2.recommender.repository.projection.ProductTag;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface ProductRepository extends JpaRepository<Product, UUID> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpecificationExecutor<Product> {
 
-    Page<Product> findByNameContainingIgnoreCase(String name, Pageable pageable);
+    default Page<Product> findByNameContainingIgnoreCase(String name, Pageable pageable) {
+        return findByNameLikeIgnoreCase(LikePatterns.containing(name), pageable);
+    }
+
+    // LOWER rather than the UPPER of a derived IgnoreCase query, to match the lower(name) trigram index
+    @Query("SELECT p FROM Product p WHERE LOWER(p.name) LIKE LOWER(:pattern) ESCAPE '\\'")
+    Page<Product> findByNameLikeIgnoreCase(@Param("pattern") String pattern, Pageable pageable);
+
+    /**
+     * Ids of the most popular products, used as cold-start candidates for recommendations
+     */
+    @Query("SELECT p.id FROM Product p ORDER BY p.popularityScore DESC")
+    List<UUID> findMostPopularIds(Pageable pageable);
+
+    /**
+     * Products with their tags loaded in the same query, so that scoring and mapping them does not
+     * issue one tag query per product
+     */
+    @EntityGraph(attributePaths = "tags")
+    List<Product> findAllWithTagsByIdIn(Collection<UUID> ids);
+
+    /**
+     * Every (product, tag) pair, for rebuilding the tag index. Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.codebytes2.recommender.repository.projection.ProductTag(p.id, t) " +
+            "FROM Product p JOIN p.tags t")
+    Stream<ProductTag> streamAllTags();
+
+    /**
+     * The whole catalog as flat rows ordered by product, read through a Hibernate scrollable result
+     * so that only one fetch of rows is in memory at a time. Must be consumed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.codebytes2.recommender.repository.projection.CatalogRow(" +
+            "p.id, p.name, p.description, p.category, p.popularityScore, p.createdAt, t) " +
+            "FROM Product p LEFT JOIN p.tags t ORDER BY p.id")
+    Stream<CatalogRow> streamCatalog();
 }
@@ -1,14 +1,33 @@
 package com.codebytes2.recommender.repository;
 
 import com.codebytes2.recommender.model.Rating;
+import com.codebytes2.recommender.repository.projection.RatingEntry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface RatingRepository extends JpaRepository<Rating, UUID> {
+    @EntityGraph(attributePaths = {"product", "product.tags"})
     List<Rating> findByUserEntityId(UUID userId);
     List<Rating> findByProductId(UUID productId);
     boolean existsByUserEntityIdAndProductId(UUID userId, UUID productId);
     long countByProductId(UUID productId);
+    boolean existsByUserEntityIdAndInsertedAtAfter(UUID userId, Instant insertedAt);
+
+    /**
+     * Every rating as a (user, product, score) row in id order, scrolled in fetch-size chunks instead of
+     * loaded as a list. Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.codebytes2.recommender.repository.projection.RatingEntry(" +
+            "r.userEntity.id, r.product.id, r.score) FROM Rating r ORDER BY r.id")
+    Stream<RatingEntry> streamAllEntries();
 }
@@ -1,9 +1,11 @@
 package com.codebytes2.recommender.repository;
 
 import com.codebytes2.recommender.model.Recommendation;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface RecommendationRepository extends JpaRepository<Recommendation, UUID> {
@@ -12,5 +14,6 @@ public interface RecommendationRepository extends JpaRepository<Recommendation,
     /**
      * Finds the most recent recommendation for a specific user
      */
-    Recommendation findTopByUserIdOrderByComputedAtDesc(UUID userId);
-}
\ No newline at end of file
+    @EntityGraph(attributePaths = "items")
+    Optional<Recommendation> findTopByUserIdOrderByComputedAtDesc(UUID userId);
+}
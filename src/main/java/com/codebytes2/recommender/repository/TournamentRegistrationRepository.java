@@ -2,17 +2,25 @@ package com.codebytes2.recommender.repository;
 
 import com.codebytes2.recommender.backend.RegistrationStatus;
 import com.codebytes2.recommender.model.TournamentRegistration;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface TournamentRegistrationRepository extends JpaRepository<TournamentRegistration, UUID> {
 
     boolean existsByTournamentIdAndUserEntityId(UUID tournamentId, UUID userId);
 
+    Optional<TournamentRegistration> findByTournamentIdAndUserEntityId(UUID tournamentId, UUID userId);
+
+    Optional<TournamentRegistration> findByIdAndTournamentId(UUID id, UUID tournamentId);
+
     @Query("SELECT COUNT(tr) FROM TournamentRegistration tr " +
             "WHERE tr.tournament.id = :tournamentId AND tr.status IN " +
             "(com.codebytes2.recommender.backend.RegistrationStatus.REGISTERED, " +
@@ -24,4 +32,26 @@ public interface TournamentRegistrationRepository extends JpaRepository<Tourname
             List<RegistrationStatus> statuses
     );
 
+    // Waitlist in arrival order; the id breaks ties between registrations made in the same instant
+    @Query("SELECT tr.id FROM TournamentRegistration tr " +
+            "WHERE tr.tournament.id = :tournamentId " +
+            "AND tr.status = com.codebytes2.recommender.backend.RegistrationStatus.WAITLISTED " +
+            "ORDER BY tr.registeredAt, tr.id")
+    List<UUID> findWaitlistIds(@Param("tournamentId") UUID tournamentId, Pageable pageable);
+
+    @Query("SELECT COUNT(tr) FROM TournamentRegistration tr " +
+            "WHERE tr.tournament.id = :tournamentId " +
+            "AND tr.status = com.codebytes2.recommender.backend.RegistrationStatus.WAITLISTED " +
+            "AND tr.registeredAt <= :registeredAt")
+    long countWaitlistedUpTo(@Param("tournamentId") UUID tournamentId, @Param("registeredAt") Instant registeredAt);
+
+    /**
+     * Moves a waitlisted registration to REGISTERED. Returns 0 when a concurrent release already promoted it.
+     */
+    @Modifying
+    @Query("UPDATE TournamentRegistration tr " +
+            "SET tr.status = com.codebytes2.recommender.backend.RegistrationStatus.REGISTERED " +
+            "WHERE tr.id = :id AND tr.status = com.codebytes2.recommender.backend.RegistrationStatus.WAITLISTED")
+    int promoteFromWaitlist(@Param("id") UUID id);
+
 }
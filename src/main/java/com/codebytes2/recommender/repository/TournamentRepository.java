@@ -2,26 +2,118 @@ package com.codebytes2.recommender.repository;
 
 import com.codebytes2.recommender.backend.TournamentStatus;
 import com.codebytes2.recommender.model.Tournament;
+import com.codebytes2.recommender.repository.projection.StatusTransition;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface TournamentRepository extends JpaRepository<Tournament, UUID> {
+public interface TournamentRepository extends JpaRepository<Tournament, UUID>, JpaSpecificationExecutor<Tournament> {
     Page<Tournament> findByStatus(TournamentStatus status, Pageable pageable);
 
-    Page<Tournament> findByGameContainingIgnoreCase(String game, Pageable pageable);
+    default Page<Tournament> findByGameContainingIgnoreCase(String game, Pageable pageable) {
+        return findByGameLikeIgnoreCase(LikePatterns.containing(game), pageable);
+    }
 
-    Page<Tournament> findByStatusAndGameContainingIgnoreCase(TournamentStatus status, String game, Pageable pageable);
+    default Page<Tournament> findByStatusAndGameContainingIgnoreCase(TournamentStatus status, String game,
+                                                                     Pageable pageable) {
+        return findByStatusAndGameLikeIgnoreCase(status, LikePatterns.containing(game), pageable);
+    }
 
-    @Query("SELECT t FROM Tournament t WHERE LOWER(t.name) LIKE LOWER(CONCAT('%', :query, '%')) OR LOWER(t.game) LIKE LOWER(CONCAT('%', :query, '%'))")
-    Page<Tournament> findByNameContainingIgnoreCaseOrGameContainingIgnoreCase(@Param("query") String query, Pageable pageable);
+    default Page<Tournament> findByNameContainingIgnoreCaseOrGameContainingIgnoreCase(String query, Pageable pageable) {
+        return findByNameLikeIgnoreCaseOrGameLikeIgnoreCase(LikePatterns.containing(query), pageable);
+    }
+
+    // LOWER rather than the UPPER of a derived IgnoreCase query, to match the lower(game) trigram index
+    @Query("SELECT t FROM Tournament t WHERE LOWER(t.game) LIKE LOWER(:pattern) ESCAPE '\\'")
+    Page<Tournament> findByGameLikeIgnoreCase(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query("SELECT t FROM Tournament t WHERE t.status = :status AND LOWER(t.game) LIKE LOWER(:pattern) ESCAPE '\\'")
+    Page<Tournament> findByStatusAndGameLikeIgnoreCase(@Param("status") TournamentStatus status,
+                                                       @Param("pattern") String pattern, Pageable pageable);
+
+    @Query("SELECT t FROM Tournament t " +
+            "WHERE LOWER(t.name) LIKE LOWER(:pattern) ESCAPE '\\' OR LOWER(t.game) LIKE LOWER(:pattern) ESCAPE '\\'")
+    Page<Tournament> findByNameLikeIgnoreCaseOrGameLikeIgnoreCase(@Param("pattern") String pattern, Pageable pageable);
 
     Page<Tournament> findAll(Pageable pageable);
 
     List<Tournament> findByStatus(TournamentStatus status);
+
+    /**
+     * Atomically takes one slot if the tournament still has room, closing it when that was the last one.
+     * Returns 0 when the tournament is full.
+     */
+    @Modifying
+    @Query("UPDATE Tournament t SET " +
+            "t.status = CASE WHEN t.maxParticipants IS NOT NULL AND t.activeRegistrations + 1 >= t.maxParticipants " +
+            "THEN com.codebytes2.recommender.backend.TournamentStatus.CLOSED ELSE t.status END, " +
+            "t.activeRegistrations = t.activeRegistrations + 1 " +
+            "WHERE t.id = :tournamentId AND (t.maxParticipants IS NULL OR t.activeRegistrations < t.maxParticipants)")
+    int reserveSlot(@Param("tournamentId") UUID tournamentId);
+
+    /**
+     * Gives one slot back, reopening the tournament if it was closed and registration is still open.
+     * Takes the row lock, so the waitlist read afterwards cannot miss a concurrent waitlisted join.
+     */
+    @Modifying
+    @Query("UPDATE Tournament t SET " +
+            "t.status = CASE WHEN t.status = com.codebytes2.recommender.backend.TournamentStatus.CLOSED " +
+            "AND t.registrationCloseAt > :now " +
+            "THEN com.codebytes2.recommender.backend.TournamentStatus.OPEN ELSE t.status END, " +
+            "t.activeRegistrations = t.activeRegistrations - 1 " +
+            "WHERE t.id = :tournamentId AND t.activeRegistrations > 0")
+    int releaseSlot(@Param("tournamentId") UUID tournamentId, @Param("now") Instant now);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Tournament t WHERE t.id = :tournamentId")
+    Optional<Tournament> lockById(@Param("tournamentId") UUID tournamentId);
+
+    // Tournament ids in id order after the given one, to walk the whole table in pages
+    @Query("SELECT t.id FROM Tournament t WHERE t.id > :after ORDER BY t.id")
+    List<UUID> findIdsAfter(@Param("after") UUID after, Pageable pageable);
+
+    // Registration openings still to be applied, soonest first, after the (instant, id) keyset position
+    @Query("SELECT new com.codebytes2.recommender.repository.projection.StatusTransition(t.id, t.registrationOpenAt) " +
+            "FROM Tournament t WHERE t.status = com.codebytes2.recommender.backend.TournamentStatus.UPCOMING " +
+            "AND (t.registrationOpenAt > :at OR (t.registrationOpenAt = :at AND t.id > :id)) " +
+            "ORDER BY t.registrationOpenAt, t.id")
+    List<StatusTransition> findOpeningsAfter(@Param("at") Instant at, @Param("id") UUID id, Pageable pageable);
+
+    // Registration closings, soonest first, after the (instant, id) keyset position. Closed tournaments
+    // are included: a cancellation may reopen them
+    @Query("SELECT new com.codebytes2.recommender.repository.projection.StatusTransition(t.id, t.registrationCloseAt) " +
+            "FROM Tournament t WHERE t.registrationCloseAt > :at OR (t.registrationCloseAt = :at AND t.id > :id) " +
+            "ORDER BY t.registrationCloseAt, t.id")
+    List<StatusTransition> findClosingsAfter(@Param("at") Instant at, @Param("id") UUID id, Pageable pageable);
+
+    @Query("SELECT t.id FROM Tournament t WHERE " +
+            "(t.status = com.codebytes2.recommender.backend.TournamentStatus.UPCOMING AND t.registrationOpenAt <= :now) " +
+            "OR (t.status <> com.codebytes2.recommender.backend.TournamentStatus.CLOSED AND t.registrationCloseAt <= :now)")
+    List<UUID> findIdsWithOverdueStatus(@Param("now") Instant now);
+
+    /**
+     * Sets the status that the registration window and the free slots give at {@code now}:
+     * UPCOMING before opening, CLOSED after closing or when full, OPEN otherwise.
+     */
+    @Modifying
+    @Query("UPDATE Tournament t SET t.status = CASE " +
+            "WHEN t.registrationCloseAt <= :now THEN com.codebytes2.recommender.backend.TournamentStatus.CLOSED " +
+            "WHEN t.registrationOpenAt > :now THEN com.codebytes2.recommender.backend.TournamentStatus.UPCOMING " +
+            "WHEN t.maxParticipants IS NOT NULL AND t.activeRegistrations >= t.maxParticipants " +
+            "THEN com.codebytes2.recommender.backend.TournamentStatus.CLOSED " +
+            "ELSE com.codebytes2.recommender.backend.TournamentStatus.OPEN END " +
+            "WHERE t.id IN :ids")
+    int applyScheduledStatus(@Param("ids") Collection<UUID> ids, @Param("now") Instant now);
 }
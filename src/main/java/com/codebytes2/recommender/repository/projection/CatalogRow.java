@@ -0,0 +1,12 @@
+package com.codebytes2.recommender.repository.projection;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One row of the catalog export: the columns of a product and one of its tags (null when it has
+ * none). A product with several tags spans consecutive rows.
+ */
+public record CatalogRow(UUID id, String name, String description, String category, Long popularityScore,
+                         Instant createdAt, String tag) {
+}
@@ -0,0 +1,9 @@
+package com.codebytes2.recommender.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * One (product, tag) row of the product_tags collection table, read without loading Product entities.
+ */
+public record ProductTag(UUID productId, String tag) {
+}
@@ -0,0 +1,10 @@
+package com.codebytes2.recommender.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Lightweight (user, product, score) view of a rating, used to train collaborative models
+ * without loading Rating entities and their associations.
+ */
+public record RatingEntry(UUID userId, UUID productId, Integer score) {
+}
@@ -0,0 +1,10 @@
+package com.codebytes2.recommender.repository.projection;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Instant at which a tournament's status may change: its registration opening or closing.
+ */
+public record StatusTransition(UUID tournamentId, Instant at) {
+}
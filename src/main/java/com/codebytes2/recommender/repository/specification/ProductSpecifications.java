@@ -0,0 +1,20 @@
+package com.codebytes2.recommender.repository.specification;
+
+import com.codebytes2.recommender.model.Product;
+import com.codebytes2.recommender.repository.LikePatterns;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> any() {
+        return (root, query, cb) -> cb.conjunction();
+    }
+
+    public static Specification<Product> nameContains(String name) {
+        String pattern = LikePatterns.containing(name.toLowerCase());
+        return (root, query, cb) -> cb.like(cb.lower(root.get("name")), pattern, LikePatterns.ESCAPE);
+    }
+}
@@ -0,0 +1,33 @@
+package com.codebytes2.recommender.repository.specification;
+
+import com.codebytes2.recommender.backend.TournamentStatus;
+import com.codebytes2.recommender.model.Tournament;
+import com.codebytes2.recommender.repository.LikePatterns;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class TournamentSpecifications {
+
+    private TournamentSpecifications() {
+    }
+
+    public static Specification<Tournament> any() {
+        return (root, query, cb) -> cb.conjunction();
+    }
+
+    public static Specification<Tournament> hasStatus(TournamentStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Tournament> gameContains(String game) {
+        String pattern = LikePatterns.containing(game.toLowerCase());
+        return (root, query, cb) -> cb.like(cb.lower(root.get("game")), pattern, LikePatterns.ESCAPE);
+    }
+
+    // Same matching as TournamentRepository.findByNameContainingIgnoreCaseOrGameContainingIgnoreCase
+    public static Specification<Tournament> nameOrGameContains(String text) {
+        String pattern = LikePatterns.containing(text.toLowerCase());
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("name")), pattern, LikePatterns.ESCAPE),
+                cb.like(cb.lower(root.get("game")), pattern, LikePatterns.ESCAPE));
+    }
+}
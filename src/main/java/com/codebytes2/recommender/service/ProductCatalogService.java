@@ -0,0 +1,25 @@
+package com.codebytes2.recommender.service;
+
+import com.codebytes2.recommender.dto.response.ProductImportResultDto;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+@Service
+public interface ProductCatalogService {
+
+    /**
+     * Reads products as NDJSON, one per line, from {@code body} and creates the valid ones in
+     * batches. A line may carry the {@code id} of an exported product; ids that already exist are
+     * skipped. Invalid lines are reported and skipped; they never abort the import.
+     */
+    ProductImportResultDto importProducts(InputStream body);
+
+    /**
+     * Writes every product with its tags to {@code out} as NDJSON, in the format accepted by
+     * {@link #importProducts(InputStream)}, without loading the catalog into memory.
+     */
+    void exportProducts(OutputStream out) throws IOException;
+}
@@ -2,6 +2,7 @@ package com.codebytes2.recommender.service;
 
 import com.codebytes2.recommender.dto.request.ProductCreateRequest;
 import com.codebytes2.recommender.dto.request.ProductUpdateRequest;
+import com.codebytes2.recommender.dto.response.CursorSliceDto;
 import com.codebytes2.recommender.dto.response.ProductDetailDto;
 import com.codebytes2.recommender.dto.response.ProductSummaryDto;
 import org.springframework.data.domain.Page;
@@ -19,9 +20,13 @@ public interface ProductService {
 
     Page<ProductSummaryDto> getAllProducts(Pageable pageable);
 
+    CursorSliceDto<ProductSummaryDto> getAllProducts(String after, Pageable pageable);
+
     ProductDetailDto updateProduct(UUID id, ProductUpdateRequest request);
 
     void deleteProduct(UUID id);
     
     Page<ProductSummaryDto> searchProducts(String name, Pageable pageable);
+
+    CursorSliceDto<ProductSummaryDto> searchProducts(String name, String after, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.codebytes2.recommender.service;
+
+import com.codebytes2.recommender.dto.response.RatingImportResultDto;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+
+@Service
+public interface RatingImportService {
+
+    enum Format {
+        NDJSON,
+        CSV
+    }
+
+    /**
+     * Reads ratings line by line from {@code body} and stores the valid ones in batches. Invalid
+     * lines are reported and skipped; they never abort the import.
+     */
+    RatingImportResultDto importRatings(InputStream body, Format format);
+}
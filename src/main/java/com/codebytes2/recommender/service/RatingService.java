@@ -2,6 +2,7 @@ package com.codebytes2.recommender.service;
 
 import com.codebytes2.recommender.dto.request.RatingCreateRequest;
 import com.codebytes2.recommender.dto.request.ProductRatingRequest;
+import com.codebytes2.recommender.dto.response.ProductRatingStatsDto;
 import com.codebytes2.recommender.dto.response.RatingResponseDto;
 import org.springframework.stereotype.Service;
 
@@ -18,5 +19,9 @@ public interface RatingService {
 
     long getRatingCountByProduct(UUID productId);
 
+    ProductRatingStatsDto getRatingStatsByProduct(UUID productId);
+
+    int reconcileRatingStats();
+
     boolean userHasRatedProduct(UUID userId, UUID productId);
 }
\ No newline at end of file
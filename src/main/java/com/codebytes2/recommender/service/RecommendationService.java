@@ -1,5 +1,6 @@
 package com.codebytes2.recommender.service;
 
+import com.codebytes2.recommender.dto.response.RecommendationModelStatusDto;
 import com.codebytes2.recommender.dto.response.RecommendationResponseDto;
 import org.springframework.stereotype.Service;
 
@@ -7,5 +8,6 @@ import java.util.UUID;
 
 @Service
 public interface RecommendationService {
-    RecommendationResponseDto getRecommendationsForUser(UUID userId);
+    RecommendationResponseDto getRecommendationsForUser(UUID userId, int limit);
+    RecommendationModelStatusDto getModelStatus();
 }
\ No newline at end of file
@@ -3,6 +3,8 @@ package com.codebytes2.recommender.service;
 import com.codebytes2.recommender.backend.TournamentStatus;
 import com.codebytes2.recommender.dto.request.TournamentCreateRequest;
 import com.codebytes2.recommender.dto.request.TournamentJoinRequest;
+import com.codebytes2.recommender.dto.response.CursorSliceDto;
+import com.codebytes2.recommender.dto.response.RegistrationReconcileResultDto;
 import com.codebytes2.recommender.dto.response.TournamentDetailDto;
 import com.codebytes2.recommender.dto.response.TournamentJoinResponse;
 import com.codebytes2.recommender.dto.response.TournamentSummaryDto;
@@ -25,7 +27,15 @@ public interface TournamentService {
 
         Page<TournamentSummaryDto> getAllTournaments(Pageable pageable, TournamentStatus status, String game, String searchQuery);
 
+        CursorSliceDto<TournamentSummaryDto> getAllTournaments(String after, Pageable pageable, TournamentStatus status, String game, String searchQuery);
+
         void deleteTournament(UUID id);
 
         TournamentJoinResponse joinTournament(UUID tournamentId, UUID userId, TournamentJoinRequest request);
+
+        TournamentJoinResponse cancelRegistration(UUID tournamentId, UUID userId);
+
+        TournamentJoinResponse rejectRegistration(UUID tournamentId, UUID registrationId);
+
+        RegistrationReconcileResultDto reconcileRegistrationCounts();
     }
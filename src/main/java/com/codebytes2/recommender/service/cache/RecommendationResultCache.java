@@ -0,0 +1,132 @@
+package com.codebytes2.recommender.service.cache;
+
+import com.codebytes2.recommender.config.recommendation.RecommendationProperties;
+import com.codebytes2.recommender.dto.response.RecommendationResponseDto;
+import com.codebytes2.recommender.dto.response.RecommendedProductDto;
+import com.codebytes2.recommender.service.event.ProductChangedEvent;
+import com.codebytes2.recommender.service.event.RatingCreatedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * The last recommendation response of each user, kept in memory so that repeat requests skip the
+ * database entirely. Bounded by size and time, and evicted as soon as it can be stale: when the
+ * user rates a product ({@link RatingCreatedEvent}) or one of the recommended products changes
+ * ({@link ProductChangedEvent}). The events are handled after the writing transaction commits.
+ * <p>
+ * Hits, misses and evictions are exported as the {@code cache.*} metrics with
+ * {@code cache=recommendations}.
+ */
+@Component
+public class RecommendationResultCache {
+
+    private record Entry(RecommendationResponseDto response, int limit, Set<UUID> productIds) {
+    }
+
+    private final Cache<UUID, Entry> cache;
+    private final ConcurrentStatsCounter stats = new ConcurrentStatsCounter();
+    private final boolean enabled;
+    // Incremented on every invalidation; see version()
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public RecommendationResultCache(RecommendationProperties recommendationProperties, MeterRegistry meterRegistry) {
+        this(recommendationProperties.getResultCache(), meterRegistry, Ticker.systemTicker());
+    }
+
+    public RecommendationResultCache(RecommendationProperties.ResultCache properties, MeterRegistry meterRegistry,
+                                     Ticker ticker) {
+        this.enabled = properties.getMaxSize() > 0;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .ticker(ticker)
+                .recordStats(() -> stats)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "recommendations");
+    }
+
+    /**
+     * The cached response of the user cut to {@code limit} products, or null when there is none
+     * or it was computed with a smaller limit.
+     */
+    public RecommendationResponseDto get(UUID userId, int limit) {
+        if (!enabled) {
+            return null;
+        }
+        // asMap() does not count towards the stats, so a result too short for the limit is a miss
+        Entry entry = cache.asMap().get(userId);
+        if (entry == null || entry.limit() < limit) {
+            stats.recordMisses(1);
+            return null;
+        }
+        stats.recordHits(1);
+
+        RecommendationResponseDto response = entry.response();
+        if (response.getRecommendedProducts().size() <= limit) {
+            return response;
+        }
+        return RecommendationResponseDto.builder()
+                .id(response.getId())
+                .userId(response.getUserId())
+                .recommendedProducts(response.getRecommendedProducts().subList(0, limit))
+                .computedAt(response.getComputedAt())
+                .algorithmVersion(response.getAlgorithmVersion())
+                .build();
+    }
+
+    /**
+     * Taken before reading what a response is computed from and passed to {@link #put}, so that a
+     * response computed while an invalidation happened is not cached.
+     */
+    public long version() {
+        return invalidations.get();
+    }
+
+    public void put(UUID userId, int limit, RecommendationResponseDto response, long version) {
+        if (!enabled) {
+            return;
+        }
+        Set<UUID> productIds = response.getRecommendedProducts().stream()
+                .map(RecommendedProductDto::getId)
+                .collect(Collectors.toUnmodifiableSet());
+        cache.put(userId, new Entry(response, limit, productIds));
+        // An invalidation may have missed the entry just written
+        if (invalidations.get() != version) {
+            cache.invalidate(userId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatingCreated(RatingCreatedEvent event) {
+        invalidations.incrementAndGet();
+        cache.invalidate(event.userId());
+    }
+
+    /**
+     * Evicts every user the product was recommended to. Scans the cache, which is fine for product
+     * edits; ratings, the frequent write, evict a single key.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidations.incrementAndGet();
+        cache.asMap().values().removeIf(entry -> entry.productIds().contains(event.productId()));
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
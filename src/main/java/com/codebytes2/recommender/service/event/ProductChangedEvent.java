@@ -0,0 +1,9 @@
+package com.codebytes2.recommender.service.event;
+
+import java.util.UUID;
+
+/**
+ * Published when a product is updated or deleted.
+ */
+public record ProductChangedEvent(UUID productId) {
+}
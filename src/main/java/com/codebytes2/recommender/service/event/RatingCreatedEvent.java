@@ -0,0 +1,9 @@
+package com.codebytes2.recommender.service.event;
+
+import java.util.UUID;
+
+/**
+ * Published when a user rates a product.
+ */
+public record RatingCreatedEvent(UUID userId, UUID productId) {
+}
@@ -0,0 +1,169 @@
+package com.codebytes2.recommender.service.history;
+
+import com.codebytes2.recommender.config.recommendation.RecommendationProperties;
+import com.codebytes2.recommender.model.Recommendation;
+import com.codebytes2.recommender.model.RecommendedItem;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind persistence of recommendation history. Records are queued by the request thread
+ * and written by a single background thread using JDBC batch inserts. When the queue is full the
+ * record is dropped: history is an audit trail, never worth blocking a request for.
+ */
+@Component
+public class RecommendationHistoryWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(RecommendationHistoryWriter.class);
+
+    // Log one warning per this many dropped records
+    private static final long DROP_LOG_SAMPLE = 1_000;
+
+    private static final String INSERT_RECOMMENDATION =
+            "INSERT INTO recommendations (id, user_id, computed_at, algorithm_version, " +
+                    "configured_algorithm_version, result_limit) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ITEM =
+            "INSERT INTO recommended_products (recommendation_result_id, position, product_id, relevance_score) " +
+                    "VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RecommendationProperties.History properties;
+    private final BlockingQueue<Recommendation> queue;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+
+    public RecommendationHistoryWriter(JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       RecommendationProperties recommendationProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = recommendationProperties.getHistory();
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "recommendation-history-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    void start() {
+        long intervalMs = properties.getFlushInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::flushSafely, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+        flushSafely();
+    }
+
+    /**
+     * Queues a recommendation for persistence. Returns false if it was dropped because the queue is full.
+     */
+    public boolean enqueue(Recommendation recommendation) {
+        if (!queue.offer(recommendation)) {
+            long total = dropped.incrementAndGet();
+            if (total % DROP_LOG_SAMPLE == 1) {
+                log.warn("Cola de historial de recomendaciones llena ({}); {} registros descartados en total",
+                        properties.getQueueCapacity(), total);
+            }
+            return false;
+        }
+
+        // Flush early once a full batch is waiting instead of waiting for the next tick
+        if (queue.size() >= properties.getBatchSize() && flushScheduled.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                flushScheduled.set(false);
+                flushSafely();
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Writes every queued record, one JDBC batch per {@code batchSize} records.
+     */
+    public synchronized void flush() {
+        List<Recommendation> batch = new ArrayList<>(properties.getBatchSize());
+        while (queue.drainTo(batch, properties.getBatchSize()) > 0) {
+            transactionTemplate.executeWithoutResult(status -> writeBatch(batch));
+            written.addAndGet(batch.size());
+            batch.clear();
+        }
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Error al guardar el historial de recomendaciones: {}", e.getMessage(), e);
+        }
+    }
+
+    private void writeBatch(List<Recommendation> batch) {
+        List<Object[]> recommendationRows = new ArrayList<>(batch.size());
+        List<Object[]> itemRows = new ArrayList<>();
+
+        for (Recommendation recommendation : batch) {
+            recommendationRows.add(new Object[]{
+                    recommendation.getId(),
+                    recommendation.getUserId(),
+                    Timestamp.from(recommendation.getComputedAt()),
+                    recommendation.getAlgorithmVersion(),
+                    recommendation.getConfiguredAlgorithmVersion(),
+                    recommendation.getResultLimit()
+            });
+
+            List<RecommendedItem> items = recommendation.getItems();
+            for (int position = 0; position < items.size(); position++) {
+                RecommendedItem item = items.get(position);
+                itemRows.add(new Object[]{
+                        recommendation.getId(),
+                        position,
+                        item.getProductId(),
+                        item.getRelevanceScore()
+                });
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_RECOMMENDATION, recommendationRows);
+        if (!itemRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ITEM, itemRows);
+        }
+    }
+}
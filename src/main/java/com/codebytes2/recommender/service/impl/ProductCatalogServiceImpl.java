@@ -0,0 +1,328 @@
+package com.codebytes2.recommender.service.impl;
+
+import com.codebytes2.recommender.config.product.ProductProperties;
+import com.codebytes2.recommender.dto.response.ImportErrorDto;
+import com.codebytes2.recommender.dto.response.ProductDetailDto;
+import com.codebytes2.recommender.dto.response.ProductImportResultDto;
+import com.codebytes2.recommender.model.Product;
+import com.codebytes2.recommender.model.id.UuidV7;
+import com.codebytes2.recommender.repository.ProductRepository;
+import com.codebytes2.recommender.repository.projection.CatalogRow;
+import com.codebytes2.recommender.service.ProductCatalogService;
+import com.codebytes2.recommender.service.index.ProductTagIndex;
+import com.codebytes2.recommender.service.search.TextSearch;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Catalog import and export as NDJSON, one product per line. The import reads the body one line
+ * at a time and writes chunks with JDBC batch inserts: one statement batch for the products, one
+ * for their empty rating aggregates and one for all their tags, instead of an insert per product and per tag through the
+ * {@code @ElementCollection}. The export scrolls over flat (product, tag) rows and writes each
+ * product as soon as its last row has been read.
+ */
+@Service
+public class ProductCatalogServiceImpl implements ProductCatalogService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCatalogServiceImpl.class);
+
+    private static final int MAX_LENGTH = 255;
+
+    private static final String INSERT_PRODUCT =
+            "INSERT INTO products (id, name, description, category, popularity_score, created_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_TAG = "INSERT INTO product_tags (product_id, tag) VALUES (?, ?)";
+
+    private static final String INSERT_STATS =
+            "INSERT INTO product_rating_stats (product_id, rating_sum, rating_count, one_star_count, two_star_count, " +
+                    "three_star_count, four_star_count, five_star_count, updated_at) VALUES (?, 0, 0, 0, 0, 0, 0, 0, ?)";
+
+    private record Row(long line, Product product) {
+    }
+
+    private final ProductRepository productRepository;
+    private final ProductTagIndex productTagIndex;
+    private final TextSearch textSearch;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader lineReader;
+    private final ObjectWriter lineWriter;
+    private final ProductProperties.BulkImport properties;
+
+    public ProductCatalogServiceImpl(ProductRepository productRepository,
+                                     ProductTagIndex productTagIndex,
+                                     TextSearch textSearch,
+                                     JdbcTemplate jdbcTemplate,
+                                     NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     ObjectMapper objectMapper,
+                                     ProductProperties productProperties) {
+        this.productRepository = productRepository;
+        this.productTagIndex = productTagIndex;
+        this.textSearch = textSearch;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lineReader = objectMapper.readerFor(ProductDetailDto.class);
+        this.lineWriter = objectMapper.writerFor(ProductDetailDto.class);
+        this.properties = productProperties.getBulkImport();
+    }
+
+    @Override
+    public ProductImportResultDto importProducts(InputStream body) {
+        long startedAt = System.nanoTime();
+        Import run = new Import();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                run.received++;
+                run.accept(lineNumber, line);
+                if (run.chunk.size() >= properties.getBatchSize()) {
+                    run.flush();
+                }
+            }
+            run.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al leer el cuerpo de la importación", e);
+        }
+
+        long elapsedNanos = System.nanoTime() - startedAt;
+        double productsPerSecond = elapsedNanos > 0 ? run.received * 1_000_000_000d / elapsedNanos : 0;
+        log.info("Importación de productos: {} recibidos, {} creados, {} duplicados, {} rechazados ({} por segundo)",
+                run.received, run.imported, run.duplicates, run.rejected, Math.round(productsPerSecond));
+
+        return ProductImportResultDto.builder()
+                .received(run.received)
+                .imported(run.imported)
+                .duplicates(run.duplicates)
+                .rejected(run.rejected)
+                .errors(run.errors)
+                .elapsedMs(elapsedNanos / 1_000_000)
+                .productsPerSecond(Math.round(productsPerSecond * 10) / 10d)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportProducts(OutputStream out) throws IOException {
+        OutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+        long exported = 0;
+        try (Stream<CatalogRow> rows = productRepository.streamCatalog()) {
+            ProductDetailDto current = null;
+            Iterator<CatalogRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                CatalogRow row = iterator.next();
+                if (current == null || !current.getId().equals(row.id())) {
+                    if (current != null) {
+                        writeLine(buffered, current);
+                        exported++;
+                    }
+                    current = ProductDetailDto.builder()
+                            .id(row.id())
+                            .name(row.name())
+                            .description(row.description())
+                            .category(row.category())
+                            .tags(new TreeSet<>())
+                            .popularityScore(row.popularityScore())
+                            .createdAt(row.createdAt())
+                            .build();
+                }
+                if (row.tag() != null) {
+                    current.getTags().add(row.tag());
+                }
+            }
+            if (current != null) {
+                writeLine(buffered, current);
+                exported++;
+            }
+        }
+        buffered.flush();
+        log.info("Exportación del catálogo: {} productos", exported);
+    }
+
+    private void writeLine(OutputStream out, ProductDetailDto product) throws IOException {
+        out.write(lineWriter.writeValueAsBytes(product));
+        out.write('\n');
+    }
+
+    /**
+     * State of one import: the pending chunk and the explicit ids seen in it. Ids repeated across
+     * chunks are caught by the existing-id query of the later chunk, since earlier chunks are
+     * already committed, and ultimately by the primary key, so memory stays bounded by the chunk size.
+     */
+    private class Import {
+
+        private final Set<UUID> seen = new HashSet<>();
+        private final List<Row> chunk = new ArrayList<>(properties.getBatchSize());
+        private final List<ImportErrorDto> errors = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long duplicates;
+        private long rejected;
+
+        void accept(long lineNumber, String line) {
+            ProductDetailDto parsed;
+            try {
+                parsed = lineReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                reject(lineNumber, "Formato inválido: " + e.getOriginalMessage());
+                return;
+            }
+
+            String error = validate(parsed);
+            if (error != null) {
+                reject(lineNumber, error);
+                return;
+            }
+            if (parsed.getId() != null && !seen.add(parsed.getId())) {
+                duplicates++;
+                return;
+            }
+
+            Set<String> tags = parsed.getTags() != null ? new HashSet<>(parsed.getTags()) : new HashSet<>();
+            chunk.add(new Row(lineNumber, new Product(
+                    parsed.getId() != null ? parsed.getId() : UuidV7.next(),
+                    parsed.getName().trim(),
+                    parsed.getDescription(),
+                    parsed.getCategory(),
+                    tags,
+                    parsed.getPopularityScore() != null ? parsed.getPopularityScore() : 0L,
+                    parsed.getCreatedAt() != null ? parsed.getCreatedAt() : Instant.now())));
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+
+            // Ids of the chunk that are already in the catalog
+            List<UUID> ids = chunk.stream().map(row -> row.product().getId()).toList();
+            Set<UUID> existing = new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                    "SELECT id FROM products WHERE id IN (:ids)", Map.of("ids", ids), UUID.class));
+
+            List<Product> products = new ArrayList<>(chunk.size());
+            List<Long> lines = new ArrayList<>(chunk.size());
+            for (Row row : chunk) {
+                if (existing.contains(row.product().getId())) {
+                    duplicates++;
+                } else {
+                    products.add(row.product());
+                    lines.add(row.line());
+                }
+            }
+            chunk.clear();
+            seen.clear();
+            if (products.isEmpty()) {
+                return;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(products));
+            } catch (DataAccessException e) {
+                // Most likely a product created concurrently with the same id; the whole chunk is rolled back
+                log.warn("Error al guardar un lote de {} productos: {}", products.size(), e.getMessage());
+                lines.forEach(line -> reject(line, "No se pudo guardar el lote: " + e.getMostSpecificCause().getMessage()));
+                return;
+            }
+            imported += products.size();
+            for (Product product : products) {
+                productTagIndex.index(product);
+                textSearch.indexProduct(product);
+            }
+        }
+
+        private void write(List<Product> products) {
+            List<Object[]> productRows = new ArrayList<>(products.size());
+            List<Object[]> statsRows = new ArrayList<>(products.size());
+            List<Object[]> tagRows = new ArrayList<>();
+            Timestamp now = Timestamp.from(Instant.now());
+            for (Product product : products) {
+                productRows.add(new Object[]{
+                        product.getId(), product.getName(), product.getDescription(), product.getCategory(),
+                        product.getPopularityScore(), Timestamp.from(product.getCreatedAt())
+                });
+                statsRows.add(new Object[]{product.getId(), now});
+                for (String tag : product.getTags()) {
+                    tagRows.add(new Object[]{product.getId(), tag});
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_PRODUCT, productRows);
+            jdbcTemplate.batchUpdate(INSERT_STATS, statsRows);
+            if (!tagRows.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_TAG, tagRows);
+            }
+        }
+
+        private void reject(long lineNumber, String message) {
+            rejected++;
+            if (errors.size() < properties.getMaxReportedErrors()) {
+                errors.add(new ImportErrorDto(lineNumber, message));
+            }
+        }
+    }
+
+    /**
+     * Same limits as the columns of V1 and the create request; null when the line is valid.
+     */
+    private static String validate(ProductDetailDto product) {
+        if (product.getName() == null || product.getName().isBlank()) {
+            return "El nombre es obligatorio";
+        }
+        if (product.getName().trim().length() > MAX_LENGTH) {
+            return "El nombre no debe exceder los 255 caracteres";
+        }
+        if (product.getDescription() != null && product.getDescription().length() > MAX_LENGTH) {
+            return "La descripción no debe exceder los 255 caracteres";
+        }
+        if (product.getCategory() != null && product.getCategory().length() > MAX_LENGTH) {
+            return "La categoría no debe exceder los 255 caracteres";
+        }
+        if (product.getTags() != null) {
+            for (String tag : product.getTags()) {
+                if (tag == null || tag.isBlank() || tag.length() > MAX_LENGTH) {
+                    return "Los tags no pueden estar vacíos ni exceder los 255 caracteres";
+                }
+            }
+        }
+        return null;
+    }
+}
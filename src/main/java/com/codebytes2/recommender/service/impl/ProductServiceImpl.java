@@ -2,20 +2,34 @@ package com.codebytes2.recommender.service.impl;
 
 import com.codebytes2.recommender.dto.request.ProductCreateRequest;
 import com.codebytes2.recommender.dto.request.ProductUpdateRequest;
+import com.codebytes2.recommender.dto.response.CursorSliceDto;
 import com.codebytes2.recommender.dto.response.ProductDetailDto;
 import com.codebytes2.recommender.dto.response.ProductSummaryDto;
 import com.codebytes2.recommender.exceptions.ProductHasRatingsException;
 import com.codebytes2.recommender.mapper.ProductMapper;
 import com.codebytes2.recommender.model.Product;
+import com.codebytes2.recommender.repository.ProductRatingStatsRepository;
 import com.codebytes2.recommender.repository.ProductRepository;
 import com.codebytes2.recommender.repository.RatingRepository;
+import com.codebytes2.recommender.repository.specification.ProductSpecifications;
 import com.codebytes2.recommender.service.ProductService;
+import com.codebytes2.recommender.service.event.ProductChangedEvent;
+import com.codebytes2.recommender.service.index.ProductTagIndex;
+import com.codebytes2.recommender.service.pagination.KeysetCursor;
+import com.codebytes2.recommender.service.search.Relevance;
+import com.codebytes2.recommender.service.search.TextSearch;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.UUID;
 
 @Service
@@ -25,11 +39,20 @@ public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
     private final RatingRepository ratingRepository;
+    private final ProductRatingStatsRepository productRatingStatsRepository;
+    private final ProductTagIndex productTagIndex;
+    private final TextSearch textSearch;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional
     public ProductDetailDto createProduct(ProductCreateRequest request) {
         Product product = productMapper.toEntity(request);
         Product savedProduct = productRepository.save(product);
+        // Written in the same transaction as the product; rating writes then only ever update this row
+        productRatingStatsRepository.createEmpty(savedProduct.getId(), Instant.now());
+        productTagIndex.index(savedProduct);
+        textSearch.indexProduct(savedProduct);
         return productMapper.toDetailDto(savedProduct);
     }
 
@@ -46,6 +69,11 @@ public class ProductServiceImpl implements ProductService {
                 .map(productMapper::toSummaryDto);
     }
 
+    @Override
+    public CursorSliceDto<ProductSummaryDto> getAllProducts(String after, Pageable pageable) {
+        return scroll(ProductSpecifications.any(), after, pageable);
+    }
+
     @Override
     public ProductDetailDto updateProduct(UUID id, ProductUpdateRequest request) {
         Product product = productRepository.findById(id)
@@ -53,6 +81,9 @@ public class ProductServiceImpl implements ProductService {
 
         productMapper.updateFromRequest(request, product);
         Product updatedProduct = productRepository.save(product);
+        productTagIndex.index(updatedProduct);
+        textSearch.indexProduct(updatedProduct);
+        eventPublisher.publishEvent(new ProductChangedEvent(id));
         return productMapper.toDetailDto(updatedProduct);
     }
 
@@ -70,14 +101,44 @@ public class ProductServiceImpl implements ProductService {
         }
 
         productRepository.delete(product);
+        productRatingStatsRepository.deleteById(id);
+        productTagIndex.remove(id);
+        textSearch.removeProduct(id);
+        eventPublisher.publishEvent(new ProductChangedEvent(id));
     }
 
     @Override
     public Page<ProductSummaryDto> searchProducts(String name, Pageable pageable) {
         if (name == null || name.trim().isEmpty()) {
-            return getAllProducts(pageable);
+            return getAllProducts(Relevance.strip(pageable));
+        }
+        if (Relevance.isRequested(pageable)) {
+            // Best trigram matches first; the page is read by id in that order
+            return Relevance.load(textSearch.searchProducts(name, pageable),
+                            productRepository::findAllById, Product::getId)
+                    .map(productMapper::toSummaryDto);
         }
         return productRepository.findByNameContainingIgnoreCase(name, pageable)
                 .map(productMapper::toSummaryDto);
     }
-}
\ No newline at end of file
+
+    @Override
+    public CursorSliceDto<ProductSummaryDto> searchProducts(String name, String after, Pageable pageable) {
+        if (name == null || name.trim().isEmpty()) {
+            return getAllProducts(after, pageable);
+        }
+        return scroll(ProductSpecifications.nameContains(name), after, pageable);
+    }
+
+    // Keyset pagination: reads one row past the page to know if there is more, never counts
+    private CursorSliceDto<ProductSummaryDto> scroll(Specification<Product> specification, String after, Pageable pageable) {
+        // A ranking is not a keyset: cursors follow the remaining sort keys only
+        Sort sort = KeysetCursor.sortWithTieBreaker(Relevance.strip(pageable).getSort());
+        KeysetScrollPosition position = KeysetCursor.decode(after, sort);
+        return KeysetCursor.slice(productRepository.findBy(specification, query -> query
+                        .sortBy(sort)
+                        .limit(pageable.getPageSize())
+                        .scroll(position))
+                .map(productMapper::toSummaryDto));
+    }
+}
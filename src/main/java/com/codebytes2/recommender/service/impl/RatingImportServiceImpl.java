@@ -0,0 +1,294 @@
+package com.codebytes2.recommender.service.impl;
+
+import com.codebytes2.recommender.config.rating.RatingProperties;
+import com.codebytes2.recommender.dto.request.RatingImportLine;
+import com.codebytes2.recommender.dto.response.ImportErrorDto;
+import com.codebytes2.recommender.dto.response.RatingImportResultDto;
+import com.codebytes2.recommender.model.id.UuidV7;
+import com.codebytes2.recommender.repository.ProductRatingStatsRepository;
+import com.codebytes2.recommender.service.RatingImportService;
+import com.codebytes2.recommender.service.event.RatingCreatedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.DatabaseMetaData;
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bulk import of ratings. The body is read one line at a time and never held in memory; user and
+ * product ids are checked against id sets loaded once per import instead of one query per line.
+ * Valid ratings are written in chunks: a JDBC batch insert that skips the ratings the database
+ * already has, one query for which of the chunk's ids were inserted and one aggregate upsert per
+ * rated product, all in one transaction per chunk.
+ */
+@Service
+public class RatingImportServiceImpl implements RatingImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingImportServiceImpl.class);
+
+    // A rating the user already has, even one saved through the API while the import runs, is
+    // skipped instead of failing the chunk
+    private static final String INSERT_RATING_POSTGRESQL =
+            "INSERT INTO ratings (id, user_id, product_id, score, created_at, inserted_at) VALUES (?, ?, ?, ?, ?, ?) " +
+                    "ON CONFLICT (user_id, product_id) DO NOTHING";
+
+    // H2 only accepts ON CONFLICT in its PostgreSQL mode
+    private static final String INSERT_RATING_MERGE =
+            "MERGE INTO ratings r USING (VALUES (?, ?, ?, ?, ?, ?)) " +
+                    "AS s (id, user_id, product_id, score, created_at, inserted_at) " +
+                    "ON r.user_id = s.user_id AND r.product_id = s.product_id " +
+                    "WHEN NOT MATCHED THEN INSERT (id, user_id, product_id, score, created_at, inserted_at) " +
+                    "VALUES (s.id, s.user_id, s.product_id, s.score, s.created_at, s.inserted_at)";
+
+    private record Pair(UUID userId, UUID productId) {
+    }
+
+    private record Row(long line, UUID userId, UUID productId, int score, Instant createdAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductRatingStatsRepository productRatingStatsRepository;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader lineReader;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RatingProperties.BulkImport properties;
+    private final String insertRating;
+
+    public RatingImportServiceImpl(JdbcTemplate jdbcTemplate,
+                                   ProductRatingStatsRepository productRatingStatsRepository,
+                                   NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   ObjectMapper objectMapper,
+                                   ApplicationEventPublisher eventPublisher,
+                                   RatingProperties ratingProperties) throws MetaDataAccessException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.productRatingStatsRepository = productRatingStatsRepository;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lineReader = objectMapper.readerFor(RatingImportLine.class);
+        this.eventPublisher = eventPublisher;
+        this.properties = ratingProperties.getBulkImport();
+        String database = JdbcUtils.extractDatabaseMetaData(
+                jdbcTemplate.getDataSource(), DatabaseMetaData::getDatabaseProductName);
+        this.insertRating = "PostgreSQL".equals(database) ? INSERT_RATING_POSTGRESQL : INSERT_RATING_MERGE;
+    }
+
+    @Override
+    public RatingImportResultDto importRatings(InputStream body, Format format) {
+        long startedAt = System.nanoTime();
+        Import run = new Import(
+                new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM users", UUID.class)),
+                new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM products", UUID.class)));
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            boolean firstLine = true;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (firstLine && format == Format.CSV && isHeader(line)) {
+                    firstLine = false;
+                    continue;
+                }
+                firstLine = false;
+                run.received++;
+                run.accept(lineNumber, line, format);
+                if (run.chunk.size() >= properties.getBatchSize()) {
+                    run.flush();
+                }
+            }
+            run.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al leer el cuerpo de la importación", e);
+        }
+
+        long elapsedNanos = System.nanoTime() - startedAt;
+        double ratingsPerSecond = elapsedNanos > 0 ? run.received * 1_000_000_000d / elapsedNanos : 0;
+        log.info("Importación de valoraciones: {} recibidas, {} guardadas, {} duplicadas, {} rechazadas ({} por segundo)",
+                run.received, run.imported, run.duplicates, run.rejected, Math.round(ratingsPerSecond));
+
+        return RatingImportResultDto.builder()
+                .received(run.received)
+                .imported(run.imported)
+                .duplicates(run.duplicates)
+                .rejected(run.rejected)
+                .errors(run.errors)
+                .elapsedMs(elapsedNanos / 1_000_000)
+                .ratingsPerSecond(Math.round(ratingsPerSecond * 10) / 10d)
+                .build();
+    }
+
+    /**
+     * State of one import: the id sets, the pending chunk and the pairs it holds. Pairs repeated in a
+     * later chunk are skipped by the insert.
+     */
+    private class Import {
+
+        private final Set<UUID> userIds;
+        private final Set<UUID> productIds;
+        private final Set<Pair> seen = new HashSet<>();
+        private final List<Row> chunk = new ArrayList<>(properties.getBatchSize());
+        private final List<ImportErrorDto> errors = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long duplicates;
+        private long rejected;
+
+        Import(Set<UUID> userIds, Set<UUID> productIds) {
+            this.userIds = userIds;
+            this.productIds = productIds;
+        }
+
+        void accept(long lineNumber, String line, Format format) {
+            RatingImportLine parsed;
+            try {
+                parsed = format == Format.CSV ? parseCsv(line) : lineReader.readValue(line);
+            } catch (JsonProcessingException | IllegalArgumentException | DateTimeException e) {
+                // Jackson messages carry the location on the following lines
+                String reason = e.getMessage() != null ? e.getMessage().lines().findFirst().orElse("") : "";
+                reject(lineNumber, "Formato inválido: " + reason);
+                return;
+            }
+
+            if (parsed.getUserId() == null || parsed.getProductId() == null || parsed.getScore() == null) {
+                reject(lineNumber, "userId, productId y score son obligatorios");
+            } else if (parsed.getScore() < 1 || parsed.getScore() > 5) {
+                reject(lineNumber, "La puntuación debe estar entre 1 y 5");
+            } else if (!userIds.contains(parsed.getUserId())) {
+                reject(lineNumber, "Usuario no encontrado con ID: " + parsed.getUserId());
+            } else if (!productIds.contains(parsed.getProductId())) {
+                reject(lineNumber, "Producto no encontrado con ID: " + parsed.getProductId());
+            } else if (!seen.add(new Pair(parsed.getUserId(), parsed.getProductId()))) {
+                duplicates++;
+            } else {
+                chunk.add(new Row(lineNumber, parsed.getUserId(), parsed.getProductId(), parsed.getScore(),
+                        parsed.getCreatedAt() != null ? parsed.getCreatedAt() : Instant.now()));
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+
+            List<Row> rows = new ArrayList<>(chunk);
+            chunk.clear();
+            seen.clear();
+
+            try {
+                Integer inserted = transactionTemplate.execute(status -> write(rows));
+                imported += inserted;
+                duplicates += rows.size() - inserted;
+            } catch (DataAccessException e) {
+                // Most likely a user or product deleted during the import; the whole chunk is rolled back
+                log.warn("Error al guardar un lote de {} valoraciones: {}", rows.size(), e.getMessage());
+                rows.forEach(row -> reject(row.line(), "No se pudo guardar el lote: " + e.getMostSpecificCause().getMessage()));
+            }
+        }
+
+        /**
+         * Inserts the chunk and adds the inserted ratings to the product aggregates. Returns how many
+         * were inserted; the rest were already in the database.
+         */
+        private int write(List<Row> rows) {
+            List<Object[]> ratingRows = new ArrayList<>(rows.size());
+            Map<UUID, Row> rowsById = new HashMap<>();
+            Instant now = Instant.now();
+            for (Row row : rows) {
+                UUID id = UuidV7.next();
+                rowsById.put(id, row);
+                ratingRows.add(new Object[]{
+                        id, row.userId(), row.productId(), row.score(), Timestamp.from(row.createdAt()),
+                        Timestamp.from(now)
+                });
+            }
+            jdbcTemplate.batchUpdate(insertRating, ratingRows);
+
+            // Batch update counts are not reported per row once the driver rewrites the batch into
+            // multi-row inserts, so the generated ids tell which rows went in
+            List<Row> inserted = new ArrayList<>(rows.size());
+            namedParameterJdbcTemplate.query(
+                    "SELECT id FROM ratings WHERE id IN (:ids)",
+                    Map.of("ids", rowsById.keySet()),
+                    resultSet -> {
+                        inserted.add(rowsById.get(resultSet.getObject(1, UUID.class)));
+                    });
+
+            // Per product: sum, count and the count of each score
+            Map<UUID, long[]> statsDeltas = new HashMap<>();
+            for (Row row : inserted) {
+                long[] delta = statsDeltas.computeIfAbsent(row.productId(), id -> new long[7]);
+                delta[0] += row.score();
+                delta[1]++;
+                delta[1 + row.score()]++;
+            }
+
+            // One upsert per product of the chunk, which also creates the row on a product's first ratings
+            statsDeltas.forEach((productId, delta) -> productRatingStatsRepository.addScores(
+                    productId, delta[0], delta[1], delta[2], delta[3], delta[4], delta[5], delta[6], now));
+
+            // Delivered after commit
+            inserted.forEach(row -> eventPublisher.publishEvent(new RatingCreatedEvent(row.userId(), row.productId())));
+            return inserted.size();
+        }
+
+        private void reject(long lineNumber, String message) {
+            rejected++;
+            if (errors.size() < properties.getMaxReportedErrors()) {
+                errors.add(new ImportErrorDto(lineNumber, message));
+            }
+        }
+    }
+
+    /**
+     * Whether the line is the CSV header, compared without depending on the default locale.
+     */
+    private static boolean isHeader(String line) {
+        String trimmed = line.trim();
+        return trimmed.regionMatches(true, 0, "userId", 0, "userId".length());
+    }
+
+    private static RatingImportLine parseCsv(String line) {
+        String[] fields = line.split(",", -1);
+        if (fields.length < 3 || fields.length > 4) {
+            throw new IllegalArgumentException("se esperaban 3 o 4 columnas (userId,productId,score[,createdAt])");
+        }
+        return RatingImportLine.builder()
+                .userId(UUID.fromString(fields[0].trim()))
+                .productId(UUID.fromString(fields[1].trim()))
+                .score(Integer.parseInt(fields[2].trim()))
+                .createdAt(fields.length == 4 && !fields[3].isBlank() ? Instant.parse(fields[3].trim()) : null)
+                .build();
+    }
+}
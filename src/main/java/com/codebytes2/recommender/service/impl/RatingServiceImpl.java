@@ -4,30 +4,45 @@ import com.codebytes2.recommender.auth.commons.models.entity.UserEntity;
 import com.codebytes2.recommender.auth.repository.UserEntityRepository;
 import com.codebytes2.recommender.dto.request.RatingCreateRequest;
 import com.codebytes2.recommender.dto.request.ProductRatingRequest;
+import com.codebytes2.recommender.dto.response.ProductRatingStatsDto;
 import com.codebytes2.recommender.dto.response.RatingResponseDto;
 import com.codebytes2.recommender.exceptions.DuplicateRatingException;
 import com.codebytes2.recommender.mapper.RatingMapper;
 import com.codebytes2.recommender.model.Product;
+import com.codebytes2.recommender.model.ProductRatingStats;
 import com.codebytes2.recommender.model.Rating;
+import com.codebytes2.recommender.repository.ProductRatingStatsRepository;
 import com.codebytes2.recommender.repository.ProductRepository;
 import com.codebytes2.recommender.repository.RatingRepository;
 import com.codebytes2.recommender.service.RatingService;
+import com.codebytes2.recommender.service.event.RatingCreatedEvent;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class RatingServiceImpl implements RatingService {
 
+    private static final Logger log = LoggerFactory.getLogger(RatingServiceImpl.class);
+
     private final RatingRepository ratingRepository;
     private final UserEntityRepository userRepository;
     private final ProductRepository productRepository;
     private final RatingMapper ratingMapper;
+    private final ProductRatingStatsRepository productRatingStatsRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional
     public RatingResponseDto createRating(RatingCreateRequest request) {
         // Validate if user exists
         UserEntity user = userRepository.findById(request.getUserId())
@@ -52,10 +67,14 @@ public class RatingServiceImpl implements RatingService {
         Rating rating = ratingMapper.toEntityFromRequestWithUserAndProduct(ratingRequest, user, product);
 
         Rating savedRating = ratingRepository.save(rating);
+        updateRatingStats(product.getId(), savedRating.getScore());
+        eventPublisher.publishEvent(new RatingCreatedEvent(user.getId(), product.getId()));
         return ratingMapper.toResponseDto(savedRating);
     }
 
     @Override
+    @Transactional
+    @Timed(value = "rating.create", description = "Tiempo de creación de una valoración", histogram = true)
     public RatingResponseDto createRatingByUser(UUID userId, UUID productId, Integer score) {
         // Validate if user exists
         UserEntity user = userRepository.findById(userId)
@@ -77,31 +96,55 @@ public class RatingServiceImpl implements RatingService {
         rating.setScore(score);
 
         Rating savedRating = ratingRepository.save(rating);
+        updateRatingStats(product.getId(), savedRating.getScore());
+        eventPublisher.publishEvent(new RatingCreatedEvent(user.getId(), product.getId()));
         return ratingMapper.toResponseDto(savedRating);
     }
 
     @Override
     public Double getAverageRatingByProduct(UUID productId) {
-        // Get all ratings for the product
-        var ratings = ratingRepository.findByProductId(productId);
-        if (ratings.isEmpty()) {
-            return null; // No ratings for this product
-        }
-
-        // Calculate average
-        return ratings.stream()
-                .mapToDouble(Rating::getScore)
-                .average()
-                .orElse(0.0);
+        return productRatingStatsRepository.findById(productId)
+                .map(ProductRatingStats::getAverageRating)
+                .orElse(null); // No ratings for this product
     }
 
     @Override
     public long getRatingCountByProduct(UUID productId) {
-        return ratingRepository.countByProductId(productId);
+        return productRatingStatsRepository.findById(productId)
+                .map(ProductRatingStats::getRatingCount)
+                .orElse(0L);
+    }
+
+    @Override
+    public ProductRatingStatsDto getRatingStatsByProduct(UUID productId) {
+        ProductRatingStats stats = productRatingStatsRepository.findById(productId)
+                .orElseGet(() -> new ProductRatingStats(productId));
+
+        return ProductRatingStatsDto.builder()
+                .averageRating(stats.getAverageRating() != null ? stats.getAverageRating() : 0.0)
+                .totalRatings(stats.getRatingCount())
+                .distribution(stats.getDistribution())
+                .build();
+    }
+
+    /**
+     * Explicit, additive check: aggregates are backfilled by the V5 migration and maintained on every
+     * write, so this only creates the rows missing for products inserted by other means.
+     */
+    @Override
+    @Transactional
+    public int reconcileRatingStats() {
+        int products = productRatingStatsRepository.insertMissingFromRatings();
+        log.info("Estadísticas de valoraciones creadas para {} productos sin agregado", products);
+        return products;
     }
 
     @Override
     public boolean userHasRatedProduct(UUID userId, UUID productId) {
         return ratingRepository.existsByUserEntityIdAndProductId(userId, productId);
     }
+
+    private void updateRatingStats(UUID productId, int score) {
+        productRatingStatsRepository.addScore(productId, score, Instant.now());
+    }
 }
\ No newline at end of file
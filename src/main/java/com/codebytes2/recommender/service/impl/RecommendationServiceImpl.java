@@ -2,18 +2,34 @@ package com.codebytes2.recommender.service.impl;
 
 import com.codebytes2.recommender.auth.commons.models.entity.UserEntity;
 import com.codebytes2.recommender.auth.repository.UserEntityRepository;
+import com.codebytes2.recommender.config.recommendation.RecommendationProperties;
+import com.codebytes2.recommender.dto.response.RecommendationModelStatusDto;
 import com.codebytes2.recommender.dto.response.RecommendationResponseDto;
 import com.codebytes2.recommender.dto.response.RecommendedProductDto;
 import com.codebytes2.recommender.mapper.RecommendationMapper;
 import com.codebytes2.recommender.model.Product;
+import com.codebytes2.recommender.model.ProductRatingStats;
 import com.codebytes2.recommender.model.Rating;
 import com.codebytes2.recommender.model.Recommendation;
+import com.codebytes2.recommender.model.RecommendedItem;
+import com.codebytes2.recommender.model.id.UuidV7;
+import com.codebytes2.recommender.repository.ProductRatingStatsRepository;
 import com.codebytes2.recommender.repository.ProductRepository;
 import com.codebytes2.recommender.repository.RatingRepository;
 import com.codebytes2.recommender.repository.RecommendationRepository;
 import com.codebytes2.recommender.service.RecommendationService;
+import com.codebytes2.recommender.service.cache.RecommendationResultCache;
+import com.codebytes2.recommender.service.history.RecommendationHistoryWriter;
+import com.codebytes2.recommender.service.index.ProductTagIndex;
+import com.codebytes2.recommender.service.scoring.ItemNeighborIndex;
+import com.codebytes2.recommender.service.scoring.MatrixFactorizationModel;
+import com.codebytes2.recommender.service.scoring.ScoredItem;
+import com.codebytes2.recommender.service.scoring.TagScoring;
+import com.codebytes2.recommender.service.scoring.TopKSelector;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
@@ -24,145 +40,327 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class RecommendationServiceImpl implements RecommendationService {
 
+    // Number of popular products scored for users without tag preferences
+    private static final int COLD_START_CANDIDATES = 50;
+
+    private static final int MAX_LIMIT = 100;
+
+    private static final String DEFAULT_ALGORITHM_VERSION = "v1.0";
+
+    private static final String ITEM_CF_ALGORITHM_VERSION = "item-cf-v1";
+
+    private static final String ALS_ALGORITHM_VERSION = "als-v1";
+
     private final RecommendationRepository recommendationRepository;
     private final ProductRepository productRepository;
     private final RatingRepository ratingRepository;
     private final UserEntityRepository userEntityRepository;
     private final RecommendationMapper recommendationMapper;
+    private final ProductTagIndex productTagIndex;
+    private final ProductRatingStatsRepository productRatingStatsRepository;
+    private final RecommendationProperties recommendationProperties;
+    private final RecommendationHistoryWriter recommendationHistoryWriter;
+    private final ItemNeighborIndex itemNeighborIndex;
+    private final MatrixFactorizationModel matrixFactorizationModel;
+    private final RecommendationResultCache recommendationResultCache;
 
     @Override
-    public RecommendationResponseDto getRecommendationsForUser(UUID userId) {
+    @Timed(value = "recommendation.compute", description = "Tiempo de obtención de recomendaciones", histogram = true)
+    public RecommendationResponseDto getRecommendationsForUser(UUID userId, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + MAX_LIMIT);
+        }
+
+        // Repeat requests are answered from memory without touching the database
+        RecommendationResponseDto cached = recommendationResultCache.get(userId, limit);
+        if (cached != null) {
+            return cached;
+        }
+        long cacheVersion = recommendationResultCache.version();
+
         // Verify user exists
         UserEntity user = userEntityRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("Usuario no encontrado con ID: " + userId));
 
-        // Get all products
-        List<Product> allProducts = productRepository.findAll();
-        
+        // Serve the latest persisted recommendation while it is still fresh
+        Optional<Recommendation> latest = recommendationRepository.findTopByUserIdOrderByComputedAtDesc(userId);
+        if (latest.isPresent() && isFresh(latest.get(), limit)) {
+            RecommendationResponseDto stored = toResponseDto(latest.get(), limit);
+            recommendationResultCache.put(userId, limit, stored, cacheVersion);
+            return stored;
+        }
+
+        // Taken before reading the ratings, so a rating written meanwhile makes the result stale
+        Instant computedAt = Instant.now();
+
         // Get user's ratings to determine their preferences
         List<Rating> userRatings = ratingRepository.findByUserEntityId(userId);
-        
-        // Calculate recommendations based on tags, ratings, and popularity
-        List<RecommendedProductDto> recommendedProducts = calculateRecommendations(userId, allProducts, userRatings);
-        
-        // Create and save the recommendation record
+
+        // Collaborative scorers when configured, falling back to the default scorer for users
+        // they know nothing about yet
+        String configuredAlgorithmVersion = recommendationProperties.getAlgorithmVersion();
+        String algorithmVersion = configuredAlgorithmVersion;
+        List<RecommendedProductDto> recommendedProducts = Collections.emptyList();
+        if (ITEM_CF_ALGORITHM_VERSION.equals(algorithmVersion)) {
+            recommendedProducts = calculateItemCfRecommendations(userRatings, limit);
+        } else if (ALS_ALGORITHM_VERSION.equals(algorithmVersion)) {
+            recommendedProducts = calculateAlsRecommendations(userId, userRatings, limit);
+        }
+        if (recommendedProducts.isEmpty()) {
+            recommendedProducts = calculateDefaultRecommendations(userRatings, limit);
+            algorithmVersion = DEFAULT_ALGORITHM_VERSION;
+        }
+
+        // Create the recommendation record; the id is assigned here because it is written asynchronously
         Recommendation recommendation = new Recommendation();
+        recommendation.setId(UuidV7.next());
         recommendation.setUserId(userId);
-        recommendation.setProductIds(recommendedProducts.stream()
-                .map(RecommendedProductDto::getId)
+        recommendation.setItems(recommendedProducts.stream()
+                .map(dto -> new RecommendedItem(dto.getId(), dto.getRelevanceScore()))
                 .collect(Collectors.toList()));
-        recommendation.setComputedAt(Instant.now());
-        recommendation.setAlgorithmVersion("v1.0");
+        recommendation.setComputedAt(computedAt);
+        recommendation.setAlgorithmVersion(algorithmVersion);
+        recommendation.setConfiguredAlgorithmVersion(configuredAlgorithmVersion);
+        recommendation.setResultLimit(limit);
         
-        recommendationRepository.save(recommendation);
+        recommendationHistoryWriter.enqueue(recommendation);
 
         // Build response DTO
-        return RecommendationResponseDto.builder()
+        RecommendationResponseDto response = RecommendationResponseDto.builder()
                 .id(recommendation.getId())
                 .userId(userId)
                 .recommendedProducts(recommendedProducts)
                 .computedAt(recommendation.getComputedAt())
                 .algorithmVersion(recommendation.getAlgorithmVersion())
                 .build();
+        recommendationResultCache.put(userId, limit, response, cacheVersion);
+        return response;
+    }
+
+    @Override
+    public RecommendationModelStatusDto getModelStatus() {
+        MatrixFactorizationModel.TrainingStats stats = matrixFactorizationModel.getTrainingStats();
+        return RecommendationModelStatusDto.builder()
+                .algorithmVersion(ALS_ALGORITHM_VERSION)
+                .modelVersion(stats.version())
+                .trainedAt(stats.trainedAt())
+                .trainingTimeMs(stats.trainingTimeMs())
+                .rmse(stats.rmse())
+                .users(stats.users())
+                .products(stats.products())
+                .trainingRatings(stats.trainingRatings())
+                .holdoutRatings(stats.holdoutRatings())
+                .build();
+    }
+
+    private boolean isFresh(Recommendation recommendation, int limit) {
+        // Results stored before the configured version was recorded only match on the version that produced them
+        String configuredAlgorithmVersion = recommendation.getConfiguredAlgorithmVersion() != null
+                ? recommendation.getConfiguredAlgorithmVersion()
+                : recommendation.getAlgorithmVersion();
+        if (!recommendationProperties.getAlgorithmVersion().equals(configuredAlgorithmVersion)
+                || recommendation.getResultLimit() == null
+                || recommendation.getResultLimit() < limit) {
+            return false;
+        }
+
+        Instant expiresAt = recommendation.getComputedAt().plus(recommendationProperties.getCacheTtl());
+        if (!Instant.now().isBefore(expiresAt)) {
+            return false;
+        }
+
+        // A new rating changes the user's preferences, so the stored result no longer applies. Ratings
+        // are compared by when they were written, as imports can carry an earlier createdAt.
+        return !ratingRepository.existsByUserEntityIdAndInsertedAtAfter(
+                recommendation.getUserId(), recommendation.getComputedAt());
+    }
+
+    private RecommendationResponseDto toResponseDto(Recommendation recommendation, int limit) {
+        List<RecommendedItem> items = recommendation.getItems().stream()
+                .limit(limit)
+                .toList();
+        List<UUID> productIds = items.stream()
+                .map(RecommendedItem::getProductId)
+                .toList();
+
+        Map<UUID, Product> products = productRepository.findAllWithTagsByIdIn(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, product -> product));
+        Map<UUID, ProductRatingStats> ratingStats = productRatingStatsRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(ProductRatingStats::getProductId, stats -> stats));
+
+        // Keep the stored order, skipping products deleted since the recommendation was computed
+        List<RecommendedProductDto> recommendedProducts = new ArrayList<>(items.size());
+        for (RecommendedItem item : items) {
+            Product product = products.get(item.getProductId());
+            if (product != null) {
+                recommendedProducts.add(toRecommendedProductDto(product, item.getRelevanceScore(),
+                        ratingStats.get(product.getId())));
+            }
+        }
+
+        return RecommendationResponseDto.builder()
+                .id(recommendation.getId())
+                .userId(recommendation.getUserId())
+                .recommendedProducts(recommendedProducts)
+                .computedAt(recommendation.getComputedAt())
+                .algorithmVersion(recommendation.getAlgorithmVersion())
+                .build();
     }
 
-    private List<RecommendedProductDto> calculateRecommendations(UUID userId, List<Product> products, List<Rating> userRatings) {
+    private List<RecommendedProductDto> calculateDefaultRecommendations(List<Rating> userRatings, int limit) {
         // Get user's favorite tags based on their ratings
-        Map<String, Double> userTagPreferences = getUserTagPreferences(userRatings);
-        
-        // Calculate relevance score for each product
-        List<ScoredProduct> scoredProducts = products.stream()
-                .map(product -> {
-                    double relevanceScore = calculateRelevanceScore(userId, product, userTagPreferences, userRatings);
-                    return new ScoredProduct(product, relevanceScore);
-                })
-                .sorted((a, b) -> Double.compare(b.score, a.score)) // Sort by score descending
-                .collect(Collectors.toList());
+        Map<String, Double> userTagPreferences = TagScoring.userTagPreferences(userRatings);
 
-        // Convert to DTOs with their relevance scores, filtering out products with score 0 (already rated)
-        return scoredProducts.stream()
-                .filter(scoredProduct -> scoredProduct.score > 0) // Only include products with score > 0
-                .map(scoredProduct -> {
-                    RecommendedProductDto dto = RecommendedProductDto.fromProduct(scoredProduct.product);
-                    dto.setRelevanceScore(scoredProduct.score);
-
-                    // Add average rating to the DTO
-                    List<Rating> productRatings = ratingRepository.findByProductId(scoredProduct.product.getId());
-                    if (!productRatings.isEmpty()) {
-                        double avgRating = productRatings.stream()
-                                .mapToInt(Rating::getScore)
-                                .average()
-                                .orElse(0.0);
-                        dto.setAverageRating(avgRating);
-                    }
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        // Products the user has already rated, checked in memory instead of once per product
+        Set<UUID> ratedProductIds = userRatings.stream()
+                .map(rating -> rating.getProduct().getId())
+                .collect(Collectors.toCollection(HashSet::new));
+
+        // Only score products sharing at least one tag with the user's preferences
+        List<Product> candidates = findCandidateProducts(userTagPreferences);
+
+        // Calculate recommendations based on tags, ratings, and popularity
+        return calculateRecommendations(candidates, userTagPreferences, ratedProductIds, limit);
     }
 
-    private Map<String, Double> getUserTagPreferences(List<Rating> userRatings) {
-        Map<String, Double> tagPreferences = new HashMap<>();
-        
-        for (Rating rating : userRatings) {
-            // Get the product for this rating
-            Product product = rating.getProduct();
-            if (product != null && product.getTags() != null) {
-                // Weight tags by the rating score given by the user
-                for (String tag : product.getTags()) {
-                    // Normalize rating score from 1-5 to 0-1 scale first, then multiply by tag weight
-                    double currentWeight = tagPreferences.getOrDefault(tag, 0.0);
-                    double tagWeight = (rating.getScore() / 5.0); // Convert rating (1-5) to (0.2-1.0)
-                    tagPreferences.put(tag, currentWeight + tagWeight);
-                }
+    private List<RecommendedProductDto> calculateItemCfRecommendations(List<Rating> userRatings, int limit) {
+        Map<UUID, Integer> scoresByProduct = userRatings.stream()
+                .collect(Collectors.toMap(rating -> rating.getProduct().getId(), Rating::getScore,
+                        (first, second) -> second));
+
+        return toRecommendedProducts(itemNeighborIndex.recommend(scoresByProduct, limit));
+    }
+
+    private List<RecommendedProductDto> calculateAlsRecommendations(UUID userId, List<Rating> userRatings, int limit) {
+        Set<UUID> ratedProductIds = userRatings.stream()
+                .map(rating -> rating.getProduct().getId())
+                .collect(Collectors.toSet());
+
+        return toRecommendedProducts(matrixFactorizationModel.recommend(userId, ratedProductIds, limit));
+    }
+
+    private List<RecommendedProductDto> toRecommendedProducts(List<ScoredItem> scoredItems) {
+        if (scoredItems.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<UUID> productIds = scoredItems.stream()
+                .map(ScoredItem::productId)
+                .toList();
+        Map<UUID, Product> products = productRepository.findAllWithTagsByIdIn(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, product -> product));
+        Map<UUID, ProductRatingStats> ratingStats = productRatingStatsRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(ProductRatingStats::getProductId, stats -> stats));
+
+        List<RecommendedProductDto> recommendations = new ArrayList<>(scoredItems.size());
+        for (ScoredItem scoredItem : scoredItems) {
+            Product product = products.get(scoredItem.productId());
+            if (product != null) {
+                recommendations.add(toRecommendedProductDto(product, scoredItem.score(),
+                        ratingStats.get(product.getId())));
             }
         }
-        
-        return tagPreferences;
+        return recommendations;
     }
 
-    private double calculateRelevanceScore(UUID userId, Product product, Map<String, Double> userTagPreferences, List<Rating> userRatings) {
-        double tagScore = calculateTagScore(product, userTagPreferences);
-        double ratingScore = calculateRatingScore(product, userRatings);
+    private List<Product> findCandidateProducts(Map<String, Double> userTagPreferences) {
+        if (!userTagPreferences.isEmpty()) {
+            Set<UUID> candidateIds = productTagIndex.findCandidates(userTagPreferences.keySet());
+            if (!candidateIds.isEmpty()) {
+                // Tags are loaded with the products, as every candidate's tags are scored
+                return productRepository.findAllWithTagsByIdIn(candidateIds);
+            }
+        }
+
+        // Cold start: users without ratings (or without tagged ratings) get the most popular products
+        List<UUID> popularIds = productRepository.findMostPopularIds(PageRequest.of(0, COLD_START_CANDIDATES));
+        if (popularIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<UUID, Product> products = productRepository.findAllWithTagsByIdIn(popularIds).stream()
+                .collect(Collectors.toMap(Product::getId, product -> product));
+        return popularIds.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private List<RecommendedProductDto> calculateRecommendations(List<Product> products,
+                                                                 Map<String, Double> userTagPreferences,
+                                                                 Set<UUID> ratedProductIds,
+                                                                 int limit) {
+        // Load the materialized rating stats of every candidate in a single query
+        Map<UUID, ProductRatingStats> ratingStats = findRatingStats(products);
+
+        // Calculate relevance score for each product, indexed like the candidate list
+        double[] scores = new double[products.size()];
+        for (int i = 0; i < scores.length; i++) {
+            Product product = products.get(i);
+            scores[i] = calculateRelevanceScore(product, userTagPreferences,
+                    ratingStats.get(product.getId()), ratedProductIds);
+        }
+
+        // Keep only the best `limit` products with score > 0 (already rated products score 0)
+        int[] topIndexes = TopKSelector.selectTopK(scores, limit);
+
+        // Convert to DTOs with their relevance scores
+        List<RecommendedProductDto> recommendations = new ArrayList<>(topIndexes.length);
+        for (int index : topIndexes) {
+            Product product = products.get(index);
+            recommendations.add(toRecommendedProductDto(product, scores[index], ratingStats.get(product.getId())));
+        }
+        return recommendations;
+    }
+
+    private RecommendedProductDto toRecommendedProductDto(Product product, Double relevanceScore,
+                                                          ProductRatingStats stats) {
+        RecommendedProductDto dto = RecommendedProductDto.fromProduct(product);
+        dto.setRelevanceScore(relevanceScore);
+
+        // Add average rating to the DTO
+        if (stats != null) {
+            dto.setAverageRating(stats.getAverageRating());
+        }
+        return dto;
+    }
+
+    private Map<UUID, ProductRatingStats> findRatingStats(List<Product> products) {
+        if (products.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<UUID> productIds = products.stream()
+                .map(Product::getId)
+                .collect(Collectors.toList());
+
+        return productRatingStatsRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(ProductRatingStats::getProductId, stats -> stats));
+    }
+
+    private double calculateRelevanceScore(Product product, Map<String, Double> userTagPreferences,
+                                           ProductRatingStats ratingStats, Set<UUID> ratedProductIds) {
+        double tagScore = TagScoring.tagScore(product, userTagPreferences);
+        double ratingScore = calculateRatingScore(ratingStats);
         double popularityScore = calculatePopularityScore(product);
         
         // Weight the different scores (these weights can be adjusted as needed)
         double finalScore = (tagScore * 0.5) + (ratingScore * 0.3) + (popularityScore * 0.2);
         
         // Avoid recommending products the user has already rated highly
-        if (userHasRatedProduct(userId, product.getId())) {
+        if (ratedProductIds.contains(product.getId())) {
             finalScore = 0; // Don't recommend products the user has already rated
         }
         
         return finalScore;
     }
 
-    private double calculateTagScore(Product product, Map<String, Double> userTagPreferences) {
-        if (product.getTags() == null || userTagPreferences.isEmpty()) {
-            return 0.0;
-        }
-
-        double score = 0.0;
-        for (String tag : product.getTags()) {
-            score += userTagPreferences.getOrDefault(tag, 0.0);
-        }
-        
-        return Math.min(score, 10.0); // Cap the tag score to prevent it from being too dominant
-    }
-
-    private double calculateRatingScore(Product product, List<Rating> userRatings) {
-        // Get average rating for this product
-        List<Rating> productRatings = ratingRepository.findByProductId(product.getId());
-        if (productRatings.isEmpty()) {
+    private double calculateRatingScore(ProductRatingStats ratingStats) {
+        if (ratingStats == null || ratingStats.getAverageRating() == null) {
             return 0.0; // No ratings for this product
         }
-        
-        double averageRating = productRatings.stream()
-                .mapToInt(Rating::getScore)
-                .average()
-                .orElse(0.0);
-                
+
         // Normalize from 1-5 scale to 0-1 scale
-        return (averageRating - 1) / 4; // Converts 1-5 to 0-1
+        return (ratingStats.getAverageRating() - 1) / 4; // Converts 1-5 to 0-1
     }
 
     private double calculatePopularityScore(Product product) {
@@ -176,19 +374,4 @@ public class RecommendationServiceImpl implements RecommendationService {
         double normalizedPopularity = Math.log(1 + product.getPopularityScore()) / 10.0;
         return Math.min(normalizedPopularity, 1.0); // Cap at 1.0
     }
-
-    private boolean userHasRatedProduct(UUID userId, UUID productId) {
-        return ratingRepository.existsByUserEntityIdAndProductId(userId, productId);
-    }
-
-    // Helper class to hold product with its calculated score
-    private static class ScoredProduct {
-        final Product product;
-        final double score;
-
-        ScoredProduct(Product product, double score) {
-            this.product = product;
-            this.score = score;
-        }
-    }
 }
\ No newline at end of file
@@ -2,9 +2,12 @@ package com.codebytes2.recommender.service.impl;
 
 import com.codebytes2.recommender.auth.commons.models.entity.UserEntity;
 import com.codebytes2.recommender.auth.repository.UserEntityRepository;
+import com.codebytes2.recommender.backend.RegistrationStatus;
 import com.codebytes2.recommender.backend.TournamentStatus;
 import com.codebytes2.recommender.dto.request.TournamentCreateRequest;
 import com.codebytes2.recommender.dto.request.TournamentJoinRequest;
+import com.codebytes2.recommender.dto.response.CursorSliceDto;
+import com.codebytes2.recommender.dto.response.RegistrationReconcileResultDto;
 import com.codebytes2.recommender.dto.response.TournamentDetailDto;
 import com.codebytes2.recommender.dto.response.TournamentJoinResponse;
 import com.codebytes2.recommender.dto.response.TournamentSummaryDto;
@@ -13,24 +16,51 @@ import com.codebytes2.recommender.model.Tournament;
 import com.codebytes2.recommender.model.TournamentRegistration;
 import com.codebytes2.recommender.repository.TournamentRegistrationRepository;
 import com.codebytes2.recommender.repository.TournamentRepository;
+import com.codebytes2.recommender.repository.specification.TournamentSpecifications;
 import com.codebytes2.recommender.service.TournamentService;
+import com.codebytes2.recommender.service.lifecycle.TournamentLifecycleScheduler;
+import com.codebytes2.recommender.service.pagination.KeysetCursor;
+import com.codebytes2.recommender.service.search.Relevance;
+import com.codebytes2.recommender.service.search.TextSearch;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class TournamentServiceImpl implements TournamentService {
 
+    private static final Logger log = LoggerFactory.getLogger(TournamentServiceImpl.class);
+
+    // Inscripciones en lista de espera leídas por vuelta al buscar una que promocionar
+    private static final int PROMOTION_BATCH_SIZE = 10;
+
+    // Torneos leídos por página al recalcular los contadores de inscripciones
+    private static final int RECONCILE_BATCH_SIZE = 500;
+
     private final TournamentRepository tournamentRepository;
     private final UserEntityRepository userEntityRepository;
     private final TournamentRegistrationRepository tournamentRegistrationRepository;
     private final TournamentMapper tournamentMapper;
+    private final TournamentLifecycleScheduler tournamentLifecycleScheduler;
+    private final TextSearch textSearch;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
     public TournamentDetailDto createTournament(TournamentCreateRequest request) {
@@ -46,8 +76,11 @@ public class TournamentServiceImpl implements TournamentService {
         }
 
         Tournament tournament = tournamentMapper.toEntity(request);
-        tournament.setStatus(TournamentStatus.OPEN);
+        // Estado según la ventana de inscripción actual; el planificador de estados aplica las transiciones siguientes
+        tournament.setStatus(tournament.scheduledStatusAt(Instant.now()));
         Tournament saved = tournamentRepository.save(tournament);
+        tournamentLifecycleScheduler.schedule(saved);
+        textSearch.indexTournament(saved);
         return tournamentMapper.toDetailDto(saved);
     }
 
@@ -80,10 +113,20 @@ public class TournamentServiceImpl implements TournamentService {
         }
 
         tournamentRepository.deleteById(id);
+        textSearch.removeTournament(id);
     }
 
     @Override
     public Page<TournamentSummaryDto> getAllTournaments(Pageable pageable, TournamentStatus status, String game, String searchQuery) {
+        if (searchQuery != null && !searchQuery.trim().isEmpty() && Relevance.isRequested(pageable)) {
+            // Texto libre ordenado por similitud de trigramas: los ids llegan ya ordenados
+            return Relevance.load(textSearch.searchTournaments(searchQuery, pageable),
+                            tournamentRepository::findAllById, Tournament::getId)
+                    .map(tournamentMapper::toSummaryDto);
+        }
+        // Sin texto libre no hay relevancia que ordenar
+        pageable = Relevance.strip(pageable);
+
         if (searchQuery != null && !searchQuery.trim().isEmpty()) {
             // Buscar por texto libre en nombre o descripción
             return tournamentRepository.findByNameContainingIgnoreCaseOrGameContainingIgnoreCase(
@@ -109,6 +152,35 @@ public class TournamentServiceImpl implements TournamentService {
     }
 
     @Override
+    public CursorSliceDto<TournamentSummaryDto> getAllTournaments(String after, Pageable pageable, TournamentStatus status, String game, String searchQuery) {
+        // Mismos filtros que la versión paginada por offset
+        Specification<Tournament> specification;
+        if (searchQuery != null && !searchQuery.trim().isEmpty()) {
+            specification = TournamentSpecifications.nameOrGameContains(searchQuery);
+        } else {
+            specification = TournamentSpecifications.any();
+            if (status != null) {
+                specification = specification.and(TournamentSpecifications.hasStatus(status));
+            }
+            if (game != null) {
+                specification = specification.and(TournamentSpecifications.gameContains(game));
+            }
+        }
+
+        // Paginación por clave: se lee una fila de más para saber si hay siguiente, sin COUNT.
+        // La relevancia no es una clave, así que el cursor sigue solo al resto de la ordenación.
+        Sort sort = KeysetCursor.sortWithTieBreaker(Relevance.strip(pageable).getSort());
+        KeysetScrollPosition position = KeysetCursor.decode(after, sort);
+        return KeysetCursor.slice(tournamentRepository.findBy(specification, query -> query
+                        .sortBy(sort)
+                        .limit(pageable.getPageSize())
+                        .scroll(position))
+                .map(tournamentMapper::toSummaryDto));
+    }
+
+    @Override
+    @Transactional
+    @Timed(value = "tournament.join", description = "Tiempo de inscripción en un torneo", histogram = true)
     public TournamentJoinResponse joinTournament(UUID tournamentId, UUID userId, TournamentJoinRequest request) {
         // Validar existencia del torneo
         Tournament tournament = tournamentRepository.findById(tournamentId)
@@ -125,12 +197,7 @@ public class TournamentServiceImpl implements TournamentService {
                     tournament.getRegistrationOpenAt() + ", Cierre: " + tournament.getRegistrationCloseAt());
         }
 
-        // Revisar plazas disponibles
-        if (tournament.getAvailableSlots() <= 0) {
-            throw new IllegalStateException("No hay plazas disponibles en este torneo");
-        }
-
-        // Asegurar que el usuario no esté ya inscrito
+        // Asegurar que el usuario no esté ya inscrito (ni en lista de espera)
         if (tournamentRegistrationRepository.existsByTournamentIdAndUserEntityId(tournamentId, userId)) {
             throw new IllegalStateException("El usuario ya está inscrito en este torneo");
         }
@@ -142,20 +209,159 @@ public class TournamentServiceImpl implements TournamentService {
                 .nickname(request.getNickname())
                 .build();
 
-        tournamentRegistrationRepository.save(registration);
+        // Flush inmediato: un duplicado concurrente falla aquí por la restricción única
+        tournamentRegistrationRepository.saveAndFlush(registration);
+
+        // Reservar la plaza con un UPDATE condicional: es atómico en la base de datos, así que
+        // inscripciones simultáneas nunca superan maxParticipants. Se hace al final para que el
+        // bloqueo de la fila dure lo mínimo. Si el torneo ya se leyó lleno no se intenta.
+        boolean reserved = tournament.getAvailableSlots() > 0 && tournamentRepository.reserveSlot(tournamentId) == 1;
+        if (!reserved) {
+            // Torneo lleno: se bloquea la fila del torneo, igual que hace una baja al liberar su plaza, y se
+            // reintenta una vez. Así una baja simultánea o bien ve esta inscripción en la lista de espera y
+            // la promociona, o bien deja la plaza libre antes del reintento.
+            tournamentRepository.lockById(tournamentId);
+            reserved = tournamentRepository.reserveSlot(tournamentId) == 1;
+        }
 
-        // Actualizar status del torneo si es necesario
-        if (tournament.getRegisteredCount() >= tournament.getMaxParticipants() &&
-            tournament.getMaxParticipants() != null) {
-            tournament.setStatus(TournamentStatus.CLOSED);
-            tournamentRepository.save(tournament);
+        if (reserved) {
+            return TournamentJoinResponse.builder()
+                    .message("Inscripción completada")
+                    .tournamentId(tournamentId)
+                    .userId(userId)
+                    .status(RegistrationStatus.REGISTERED.name())
+                    .build();
         }
 
+        registration.setStatus(RegistrationStatus.WAITLISTED);
+        tournamentRegistrationRepository.saveAndFlush(registration);
+        long position = tournamentRegistrationRepository.countWaitlistedUpTo(tournamentId, registration.getRegisteredAt());
+
+        return TournamentJoinResponse.builder()
+                .message("No hay plazas disponibles: inscripción añadida a la lista de espera")
+                .tournamentId(tournamentId)
+                .userId(userId)
+                .status(RegistrationStatus.WAITLISTED.name())
+                .waitlistPosition(position)
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public TournamentJoinResponse cancelRegistration(UUID tournamentId, UUID userId) {
+        TournamentRegistration registration = tournamentRegistrationRepository
+                .findByTournamentIdAndUserEntityId(tournamentId, userId)
+                .orElseThrow(() -> new EntityNotFoundException("El usuario no está inscrito en este torneo"));
+        withdraw(registration, RegistrationStatus.CANCELLED);
+
         return TournamentJoinResponse.builder()
-                .message("Inscripción completada")
+                .message("Inscripción cancelada")
                 .tournamentId(tournamentId)
                 .userId(userId)
-                .status("REGISTERED")
+                .status(RegistrationStatus.CANCELLED.name())
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public TournamentJoinResponse rejectRegistration(UUID tournamentId, UUID registrationId) {
+        TournamentRegistration registration = tournamentRegistrationRepository
+                .findByIdAndTournamentId(registrationId, tournamentId)
+                .orElseThrow(() -> new EntityNotFoundException("Inscripción no encontrada con ID: " + registrationId));
+        withdraw(registration, RegistrationStatus.REJECTED);
+
+        return TournamentJoinResponse.builder()
+                .message("Inscripción rechazada")
+                .tournamentId(tournamentId)
+                .userId(registration.getUserEntity().getId())
+                .status(RegistrationStatus.REJECTED.name())
                 .build();
     }
-}
\ No newline at end of file
+
+    // Cancela o rechaza una inscripción; si ocupaba plaza, la plaza pasa a la lista de espera
+    private void withdraw(TournamentRegistration registration, RegistrationStatus status) {
+        if (registration.getStatus() == RegistrationStatus.CANCELLED
+                || registration.getStatus() == RegistrationStatus.REJECTED) {
+            throw new IllegalStateException("La inscripción ya no está activa");
+        }
+
+        boolean heldSlot = registration.isActive();
+        registration.setStatus(status);
+        tournamentRegistrationRepository.save(registration);
+
+        if (heldSlot) {
+            releaseSlot(registration.getTournament().getId());
+        }
+    }
+
+    private void releaseSlot(UUID tournamentId) {
+        // Liberar primero: el UPDATE bloquea la fila del torneo, de modo que toda inscripción que entró
+        // en la lista de espera antes ya está confirmada y es visible en la lectura siguiente
+        tournamentRepository.releaseSlot(tournamentId, Instant.now());
+
+        // Promocionar por orden de llegada. El UPDATE condicional descarta las inscripciones que otra
+        // baja simultánea ya promocionó, y la plaza liberada se vuelve a ocupar para el promocionado.
+        List<UUID> waitlist;
+        while (!(waitlist = tournamentRegistrationRepository.findWaitlistIds(
+                tournamentId, PageRequest.of(0, PROMOTION_BATCH_SIZE))).isEmpty()) {
+            for (UUID registrationId : waitlist) {
+                if (tournamentRegistrationRepository.promoteFromWaitlist(registrationId) == 1) {
+                    tournamentRepository.reserveSlot(tournamentId);
+                    log.info("Inscripción {} promocionada desde la lista de espera del torneo {}",
+                            registrationId, tournamentId);
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public RegistrationReconcileResultDto reconcileRegistrationCounts() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int tournaments = 0;
+        int corrected = 0;
+
+        // El UUID nulo precede a cualquier otro, así que la primera página empieza por el principio
+        UUID after = new UUID(0, 0);
+        List<UUID> ids;
+        while (!(ids = tournamentRepository.findIdsAfter(after, PageRequest.of(0, RECONCILE_BATCH_SIZE))).isEmpty()) {
+            for (UUID tournamentId : ids) {
+                // Una transacción por torneo, para no retener los bloqueos de toda la tabla
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> reconcileRegistrationCount(tournamentId)))) {
+                    corrected++;
+                }
+            }
+            tournaments += ids.size();
+            after = ids.get(ids.size() - 1);
+        }
+
+        log.info("Contadores de inscripciones revisados en {} torneos, {} corregidos", tournaments, corrected);
+        return RegistrationReconcileResultDto.builder()
+                .tournaments(tournaments)
+                .corrected(corrected)
+                .build();
+    }
+
+    private boolean reconcileRegistrationCount(UUID tournamentId) {
+        // SELECT ... FOR UPDATE: ninguna inscripción o baja simultánea cambia el contador entre el
+        // recuento y la corrección, porque reserveSlot y releaseSlot esperan a este bloqueo
+        Tournament tournament = tournamentRepository.lockById(tournamentId).orElse(null);
+        if (tournament == null) {
+            // Eliminado después de leer la página
+            return false;
+        }
+
+        int active = (int) tournamentRegistrationRepository.countActiveRegistrations(tournamentId);
+        if (tournament.getRegisteredCount() == active) {
+            return false;
+        }
+
+        log.warn("Contador de inscripciones del torneo {} corregido: {} -> {}",
+                tournamentId, tournament.getRegisteredCount(), active);
+        tournament.setActiveRegistrations(active);
+        tournamentRepository.saveAndFlush(tournament);
+        // Con el contador corregido el torneo puede haberse llenado o tener plazas libres de nuevo
+        tournamentRepository.applyScheduledStatus(List.of(tournamentId), Instant.now());
+        return true;
+    }
+}
@@ -0,0 +1,101 @@
+package com.codebytes2.recommender.service.index;
+
+import com.codebytes2.recommender.model.Product;
+import com.codebytes2.recommender.repository.ProductRepository;
+import com.codebytes2.recommender.repository.projection.ProductTag;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index (tag -> product ids) used to restrict recommendation
+ * candidates to products sharing at least one tag with the user's preferences.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductTagIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductTagIndex.class);
+
+    private final ProductRepository productRepository;
+
+    private final Map<String, Set<UUID>> postings = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<String>> tagsByProduct = new ConcurrentHashMap<>();
+
+    /**
+     * Reads the (product, tag) pairs directly instead of loading products and their lazy tag
+     * collections. Products without tags are not candidates for any tag, so they are left out.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        postings.clear();
+        tagsByProduct.clear();
+        try (Stream<ProductTag> tags = productRepository.streamAllTags()) {
+            tags.forEach(row -> {
+                tagsByProduct.computeIfAbsent(row.productId(), id -> new HashSet<>()).add(row.tag());
+                postings.computeIfAbsent(row.tag(), t -> ConcurrentHashMap.newKeySet()).add(row.productId());
+            });
+        }
+        log.info("Índice de tags construido: {} productos con tags, {} tags", tagsByProduct.size(), postings.size());
+    }
+
+    public synchronized void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        remove(product.getId());
+
+        Set<String> tags = product.getTags() != null ? new HashSet<>(product.getTags()) : new HashSet<>();
+        tagsByProduct.put(product.getId(), tags);
+        for (String tag : tags) {
+            postings.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(product.getId());
+        }
+    }
+
+    public synchronized void remove(UUID productId) {
+        Set<String> previousTags = tagsByProduct.remove(productId);
+        if (previousTags == null) {
+            return;
+        }
+        for (String tag : previousTags) {
+            Set<UUID> posting = postings.get(tag);
+            if (posting != null) {
+                posting.remove(productId);
+                if (posting.isEmpty()) {
+                    postings.remove(tag);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the ids of every product carrying at least one of the given tags.
+     */
+    public Set<UUID> findCandidates(Collection<String> tags) {
+        Set<UUID> candidates = new HashSet<>();
+        for (String tag : tags) {
+            Set<UUID> posting = postings.get(tag);
+            if (posting != null) {
+                candidates.addAll(posting);
+            }
+        }
+        return candidates;
+    }
+
+    public int size() {
+        return tagsByProduct.size();
+    }
+}
@@ -0,0 +1,212 @@
+package com.codebytes2.recommender.service.lifecycle;
+
+import com.codebytes2.recommender.config.tournament.TournamentProperties;
+import com.codebytes2.recommender.model.Tournament;
+import com.codebytes2.recommender.repository.TournamentRepository;
+import com.codebytes2.recommender.repository.projection.StatusTransition;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves tournaments between UPCOMING, OPEN and CLOSED when their registration window opens or
+ * closes. The next transition instants are kept in a priority queue and a single timer is armed
+ * for the earliest one, so transitions are applied when due instead of by polling the table.
+ * Transitions that fall due together are applied with one UPDATE per batch.
+ */
+@Component
+public class TournamentLifecycleScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(TournamentLifecycleScheduler.class);
+
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(30);
+
+    // Lowest and highest UUIDs in database order, to place a keyset position before or after
+    // every tournament at an instant
+    private static final UUID FIRST_ID = new UUID(0, 0);
+    private static final UUID LAST_ID = new UUID(-1, -1);
+
+    private final TournamentRepository tournamentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TournamentProperties.Lifecycle properties;
+    private final ScheduledExecutorService executor;
+    private final PriorityQueue<StatusTransition> queue =
+            new PriorityQueue<>(Comparator.comparing(StatusTransition::at));
+
+    // Transitions after this instant have not been loaded yet; null when every pending one is queued
+    private Instant horizon;
+    // (instant, id) keyset positions where the next load resumes, one per kind of transition
+    private StatusTransition nextOpening;
+    private StatusTransition nextClosing;
+    private ScheduledFuture<?> wakeUp;
+
+    public TournamentLifecycleScheduler(TournamentRepository tournamentRepository,
+                                        PlatformTransactionManager transactionManager,
+                                        TournamentProperties tournamentProperties) {
+        this.tournamentRepository = tournamentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = tournamentProperties.getLifecycle();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tournament-lifecycle");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Catches up with the transitions missed while the application was down and loads the next ones.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        Instant now = Instant.now();
+        int updated = apply(tournamentRepository.findIdsWithOverdueStatus(now), now);
+        log.info("Estados de torneos actualizados al arrancar: {}", updated);
+        StatusTransition from = new StatusTransition(FIRST_ID, now);
+        load(from, from);
+        arm();
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues the registration opening and closing of a new tournament.
+     */
+    public synchronized void schedule(Tournament tournament) {
+        StatusTransition head = queue.peek();
+        offer(new StatusTransition(tournament.getId(), tournament.getRegistrationOpenAt()));
+        offer(new StatusTransition(tournament.getId(), tournament.getRegistrationCloseAt()));
+        if (queue.peek() != head) {
+            arm();
+        }
+    }
+
+    /**
+     * Applies every transition that is due, then re-arms the timer for the next one.
+     */
+    public synchronized void applyDueTransitions() {
+        Instant now = Instant.now();
+        List<StatusTransition> due = new ArrayList<>();
+        while (!queue.isEmpty() && !queue.peek().at().isAfter(now)) {
+            due.add(queue.poll());
+        }
+
+        Set<UUID> ids = new LinkedHashSet<>();
+        due.forEach(transition -> ids.add(transition.tournamentId()));
+        try {
+            int updated = apply(new ArrayList<>(ids), now);
+            if (updated > 0) {
+                log.info("Transiciones de estado aplicadas a {} torneos", updated);
+            }
+            if (queue.isEmpty() && horizon != null) {
+                load(nextOpening, nextClosing);
+            }
+        } catch (RuntimeException e) {
+            // Keep the transitions and try again later instead of losing them
+            queue.addAll(due);
+            log.error("Error al actualizar el estado de los torneos, reintento en {}: {}",
+                    RETRY_DELAY, e.getMessage(), e);
+            arm(RETRY_DELAY);
+            return;
+        }
+        arm();
+    }
+
+    public synchronized int getQueueSize() {
+        return queue.size();
+    }
+
+    private void offer(StatusTransition transition) {
+        // Beyond the horizon it will be read from the database with the next load
+        if (transition.at() != null && (horizon == null || !transition.at().isAfter(horizon))) {
+            queue.add(transition);
+        }
+    }
+
+    private void load(StatusTransition openingsAfter, StatusTransition closingsAfter) {
+        int limit = properties.getQueueSize();
+        PageRequest page = PageRequest.of(0, limit);
+        List<StatusTransition> openings = tournamentRepository.findOpeningsAfter(
+                openingsAfter.at(), openingsAfter.tournamentId(), page);
+        List<StatusTransition> closings = tournamentRepository.findClosingsAfter(
+                closingsAfter.at(), closingsAfter.tournamentId(), page);
+
+        // A full page means later instants of that kind were left out, so only what comes before
+        // the last one read is known to be complete
+        horizon = null;
+        if (openings.size() == limit) {
+            horizon = openings.get(limit - 1).at();
+        }
+        if (closings.size() == limit) {
+            Instant lastClosing = closings.get(limit - 1).at();
+            horizon = horizon == null || lastClosing.isBefore(horizon) ? lastClosing : horizon;
+        }
+        if (horizon != null) {
+            nextOpening = resumePosition(openings, limit);
+            nextClosing = resumePosition(closings, limit);
+        }
+
+        openings.forEach(this::offer);
+        closings.forEach(this::offer);
+    }
+
+    /**
+     * Where the next load of one kind of transition resumes. A page that ends at the horizon resumes
+     * after its last row, so transitions sharing that instant are read on the following pages instead
+     * of the same page being loaded again; any other resumes after the horizon, as the rest was queued.
+     */
+    private StatusTransition resumePosition(List<StatusTransition> page, int limit) {
+        if (page.size() == limit && page.get(limit - 1).at().equals(horizon)) {
+            return page.get(limit - 1);
+        }
+        return new StatusTransition(LAST_ID, horizon);
+    }
+
+    private void arm() {
+        StatusTransition next = queue.peek();
+        arm(next == null ? null : Duration.between(Instant.now(), next.at()));
+    }
+
+    private void arm(Duration delay) {
+        if (wakeUp != null) {
+            wakeUp.cancel(false);
+            wakeUp = null;
+        }
+        if (delay != null) {
+            long delayMs = Math.max(0, delay.toMillis());
+            wakeUp = executor.schedule(this::applyDueTransitions, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private int apply(List<UUID> ids, Instant now) {
+        int updated = 0;
+        for (int from = 0; from < ids.size(); from += properties.getBatchSize()) {
+            List<UUID> batch = ids.subList(from, Math.min(ids.size(), from + properties.getBatchSize()));
+            Integer rows = transactionTemplate.execute(status -> tournamentRepository.applyScheduledStatus(batch, now));
+            updated += rows != null ? rows : 0;
+        }
+        return updated;
+    }
+}
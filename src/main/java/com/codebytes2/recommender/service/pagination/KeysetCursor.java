@@ -0,0 +1,158 @@
+package com.codebytes2.recommender.service.pagination;
+
+import com.codebytes2.recommender.dto.response.CursorSliceDto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Opaque cursors for keyset pagination. A cursor holds the sort key values of the last element
+ * returned, so the next slice is read with a {@code WHERE (sort column, id) > (...)} predicate
+ * instead of an OFFSET, and no count query is needed. Each value is stored with its type so it
+ * can be bound again with the right JDBC type.
+ */
+public final class KeysetCursor {
+
+    // Always the last sort key, so that rows with equal sort values keep a stable order
+    public static final String TIE_BREAKER = "id";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<LinkedHashMap<String, TypedValue>> KEYS_TYPE = new TypeReference<>() {
+    };
+    private static final String ENUM_PACKAGE = "com.codebytes2.recommender.";
+
+    private KeysetCursor() {
+    }
+
+    private record TypedValue(String t, String v) {
+    }
+
+    /**
+     * The requested sort followed by the tie-breaker, unless it is already part of it.
+     */
+    public static Sort sortWithTieBreaker(Sort sort) {
+        return sort.getOrderFor(TIE_BREAKER) != null ? sort : sort.and(Sort.by(TIE_BREAKER));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #slice(Window)} for the same sort. A blank cursor starts
+     * from the beginning.
+     */
+    public static KeysetScrollPosition decode(String cursor, Sort sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        Map<String, TypedValue> encoded;
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor);
+            encoded = MAPPER.readValue(json, KEYS_TYPE);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Cursor de paginación no válido");
+        }
+
+        Set<String> expected = new LinkedHashSet<>();
+        sort.forEach(order -> expected.add(order.getProperty()));
+        if (!expected.equals(encoded.keySet())) {
+            throw new IllegalArgumentException("El cursor de paginación no corresponde a la ordenación solicitada");
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        encoded.forEach((property, value) -> keys.put(property, fromTyped(value)));
+        return ScrollPosition.forward(keys);
+    }
+
+    /**
+     * Builds the response slice, with the cursor pointing after its last element.
+     */
+    public static <T> CursorSliceDto<T> slice(Window<T> window) {
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            nextCursor = encode((KeysetScrollPosition) window.positionAt(window.size() - 1));
+        }
+        return CursorSliceDto.<T>builder()
+                .content(window.getContent())
+                .size(window.size())
+                .hasNext(window.hasNext())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    static String encode(KeysetScrollPosition position) {
+        Map<String, TypedValue> encoded = new LinkedHashMap<>();
+        position.getKeys().forEach((property, value) -> encoded.put(property, toTyped(value)));
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(encoded));
+        } catch (Exception e) {
+            throw new IllegalStateException("No se pudo generar el cursor de paginación", e);
+        }
+    }
+
+    private static TypedValue toTyped(Object value) {
+        if (value == null) {
+            return new TypedValue("null", null);
+        }
+        if (value instanceof Enum<?> constant) {
+            return new TypedValue(constant.getDeclaringClass().getName(), constant.name());
+        }
+        if (value instanceof String text) {
+            return new TypedValue("string", text);
+        }
+        if (value instanceof UUID uuid) {
+            return new TypedValue("uuid", uuid.toString());
+        }
+        if (value instanceof Instant instant) {
+            return new TypedValue("instant", instant.toString());
+        }
+        if (value instanceof Long number) {
+            return new TypedValue("long", number.toString());
+        }
+        if (value instanceof Integer number) {
+            return new TypedValue("int", number.toString());
+        }
+        if (value instanceof Double number) {
+            return new TypedValue("double", number.toString());
+        }
+        throw new IllegalArgumentException(
+                "Ordenación no soportada con paginación por cursor: " + value.getClass().getSimpleName());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object fromTyped(TypedValue value) {
+        try {
+            return switch (value.t()) {
+                case "null" -> null;
+                case "string" -> value.v();
+                case "uuid" -> UUID.fromString(value.v());
+                case "instant" -> Instant.parse(value.v());
+                case "long" -> Long.valueOf(value.v());
+                case "int" -> Integer.valueOf(value.v());
+                case "double" -> Double.valueOf(value.v());
+                default -> {
+                    // Only enums of this application, never an arbitrary class named by the client
+                    if (!value.t().startsWith(ENUM_PACKAGE)) {
+                        throw new IllegalArgumentException(value.t());
+                    }
+                    Class<?> type = Class.forName(value.t(), false, KeysetCursor.class.getClassLoader());
+                    if (!type.isEnum()) {
+                        throw new IllegalArgumentException(value.t());
+                    }
+                    yield Enum.valueOf((Class<? extends Enum>) type, value.v());
+                }
+            };
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Cursor de paginación no válido");
+        }
+    }
+}
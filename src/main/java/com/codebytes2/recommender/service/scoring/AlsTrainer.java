@@ -0,0 +1,158 @@
+package com.codebytes2.recommender.service.scoring;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Alternating least squares for explicit ratings. Learns dense user and item factor matrices,
+ * stored row-major in flat {@code float[]} arrays, such that
+ * {@code score ~ globalMean + userFactors[u] . itemFactors[i]}.
+ */
+public final class AlsTrainer {
+
+    private AlsTrainer() {
+    }
+
+    public record Factors(int rank, float globalMean, float[] userFactors, float[] itemFactors) {
+
+        public double predict(int user, int item) {
+            double score = globalMean;
+            int userOffset = user * rank;
+            int itemOffset = item * rank;
+            for (int f = 0; f < rank; f++) {
+                score += userFactors[userOffset + f] * itemFactors[itemOffset + f];
+            }
+            return score;
+        }
+    }
+
+    /**
+     * Trains the factors. Ratings are given as parallel arrays: the n-th rating was given by
+     * {@code users[n]} to {@code items[n]} with score {@code scores[n]}.
+     */
+    public static Factors train(int userCount, int itemCount, int[] users, int[] items, float[] scores,
+                                int rank, int iterations, double regularization, long seed) {
+        double sum = 0;
+        for (float score : scores) {
+            sum += score;
+        }
+        float globalMean = scores.length == 0 ? 0f : (float) (sum / scores.length);
+
+        float[] residuals = new float[scores.length];
+        for (int n = 0; n < scores.length; n++) {
+            residuals[n] = scores[n] - globalMean;
+        }
+
+        int[][] ratingsByUser = groupBy(users, userCount);
+        int[][] ratingsByItem = groupBy(items, itemCount);
+
+        Random random = new Random(seed);
+        float[] userFactors = new float[userCount * rank];
+        float[] itemFactors = new float[itemCount * rank];
+        for (int i = 0; i < itemFactors.length; i++) {
+            itemFactors[i] = (float) (random.nextGaussian() * 0.1);
+        }
+
+        double[] matrix = new double[rank * rank];
+        double[] vector = new double[rank];
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            for (int u = 0; u < userCount; u++) {
+                solveRow(userFactors, u, ratingsByUser[u], items, itemFactors, residuals,
+                        rank, regularization, matrix, vector);
+            }
+            for (int i = 0; i < itemCount; i++) {
+                solveRow(itemFactors, i, ratingsByItem[i], users, userFactors, residuals,
+                        rank, regularization, matrix, vector);
+            }
+        }
+
+        return new Factors(rank, globalMean, userFactors, itemFactors);
+    }
+
+    // Indexes of the ratings of each row, e.g. the ratings given by each user
+    private static int[][] groupBy(int[] rows, int rowCount) {
+        int[] counts = new int[rowCount];
+        for (int row : rows) {
+            counts[row]++;
+        }
+        int[][] groups = new int[rowCount][];
+        for (int row = 0; row < rowCount; row++) {
+            groups[row] = new int[counts[row]];
+        }
+        int[] fill = new int[rowCount];
+        for (int n = 0; n < rows.length; n++) {
+            groups[rows[n]][fill[rows[n]]++] = n;
+        }
+        return groups;
+    }
+
+    // Solves (Y^T Y + lambda * n * I) x = Y^T r for one row, keeping the other side fixed
+    private static void solveRow(float[] target, int row, int[] ratings, int[] otherRows, float[] otherFactors,
+                                 float[] residuals, int rank, double regularization,
+                                 double[] matrix, double[] vector) {
+        int targetOffset = row * rank;
+        if (ratings.length == 0) {
+            Arrays.fill(target, targetOffset, targetOffset + rank, 0f);
+            return;
+        }
+
+        Arrays.fill(matrix, 0);
+        Arrays.fill(vector, 0);
+        for (int n : ratings) {
+            int otherOffset = otherRows[n] * rank;
+            for (int p = 0; p < rank; p++) {
+                double value = otherFactors[otherOffset + p];
+                vector[p] += residuals[n] * value;
+                // Only the lower triangle is needed by the Cholesky solver
+                for (int q = 0; q <= p; q++) {
+                    matrix[p * rank + q] += value * otherFactors[otherOffset + q];
+                }
+            }
+        }
+        double lambda = regularization * ratings.length;
+        for (int p = 0; p < rank; p++) {
+            matrix[p * rank + p] += lambda;
+        }
+
+        choleskySolve(matrix, vector, rank);
+        for (int p = 0; p < rank; p++) {
+            target[targetOffset + p] = (float) vector[p];
+        }
+    }
+
+    // Factorizes the symmetric positive definite matrix in place and leaves the solution in b
+    private static void choleskySolve(double[] a, double[] b, int n) {
+        for (int j = 0; j < n; j++) {
+            double diagonal = a[j * n + j];
+            for (int k = 0; k < j; k++) {
+                diagonal -= a[j * n + k] * a[j * n + k];
+            }
+            diagonal = Math.sqrt(diagonal);
+            a[j * n + j] = diagonal;
+            for (int i = j + 1; i < n; i++) {
+                double value = a[i * n + j];
+                for (int k = 0; k < j; k++) {
+                    value -= a[i * n + k] * a[j * n + k];
+                }
+                a[i * n + j] = value / diagonal;
+            }
+        }
+
+        // L y = b
+        for (int i = 0; i < n; i++) {
+            double value = b[i];
+            for (int k = 0; k < i; k++) {
+                value -= a[i * n + k] * b[k];
+            }
+            b[i] = value / a[i * n + i];
+        }
+        // L^T x = y
+        for (int i = n - 1; i >= 0; i--) {
+            double value = b[i];
+            for (int k = i + 1; k < n; k++) {
+                value -= a[k * n + i] * b[k];
+            }
+            b[i] = value / a[i * n + i];
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.codebytes2.recommender.service.scoring;
+
+import com.codebytes2.recommender.config.recommendation.RecommendationProperties;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Item-to-item collaborative filtering. A background job computes, for every rated product,
+ * its top-M most similar products (adjusted cosine over the user x product ratings matrix) and
+ * stores them as primitive arrays. Recommending is then a merge of the neighbor lists of the
+ * products the user has rated. Rebuilt by {@link ItemNeighborIndexScheduler} when item-cf-v1 is
+ * the configured algorithm.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemNeighborIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemNeighborIndex.class);
+
+    // Midpoint of the 1-5 scale: ratings above it pull neighbors up, ratings below push them down
+    // and a 3 adds nothing. The user's own mean is not used, as it gives no signal for a single rating.
+    private static final double NEUTRAL_SCORE = 3.0;
+
+    private final RatingMatrixLoader ratingMatrixLoader;
+    private final RecommendationProperties recommendationProperties;
+
+    // Replaced as a whole on every rebuild, so readers never see a half-built index
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    private record Snapshot(UUID[] products, Map<UUID, Integer> indexes, int[][] neighbors, float[][] similarities) {
+        static final Snapshot EMPTY = new Snapshot(new UUID[0], Map.of(), new int[0][], new float[0][]);
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        snapshot = build(ratingMatrixLoader.load(), recommendationProperties.getItemCf().getNeighbors());
+        log.info("Vecinos item-item calculados: {} productos en {} ms",
+                snapshot.products().length, System.currentTimeMillis() - start);
+    }
+
+    public int size() {
+        return snapshot.products().length;
+    }
+
+    /**
+     * Scores the neighbors of the rated products and returns the best {@code limit} of them,
+     * excluding the rated products themselves, ordered from highest to lowest score.
+     */
+    public List<ScoredItem> recommend(Map<UUID, Integer> scoresByProduct, int limit) {
+        Snapshot current = snapshot;
+        double[] totals = new double[current.products().length];
+        int[] touched = new int[current.products().length];
+        boolean[] seen = new boolean[current.products().length];
+        int touchedCount = 0;
+
+        for (Map.Entry<UUID, Integer> rating : scoresByProduct.entrySet()) {
+            Integer item = current.indexes().get(rating.getKey());
+            if (item == null) {
+                continue;
+            }
+            double weight = rating.getValue() - NEUTRAL_SCORE;
+            int[] neighbors = current.neighbors()[item];
+            float[] similarities = current.similarities()[item];
+            for (int k = 0; k < neighbors.length; k++) {
+                int neighbor = neighbors[k];
+                if (!seen[neighbor]) {
+                    seen[neighbor] = true;
+                    touched[touchedCount++] = neighbor;
+                }
+                totals[neighbor] += weight * similarities[k];
+            }
+        }
+
+        // Rank only the touched products, leaving out those the user already rated
+        double[] candidateScores = new double[touchedCount];
+        for (int i = 0; i < touchedCount; i++) {
+            int item = touched[i];
+            candidateScores[i] = scoresByProduct.containsKey(current.products()[item]) ? 0 : totals[item];
+        }
+
+        int[] top = TopKSelector.selectTopK(candidateScores, limit);
+        List<ScoredItem> result = new ArrayList<>(top.length);
+        for (int index : top) {
+            result.add(new ScoredItem(current.products()[touched[index]], candidateScores[index]));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the neighbors of a product, most similar first.
+     */
+    public List<UUID> getNeighbors(UUID productId) {
+        Snapshot current = snapshot;
+        Integer item = current.indexes().get(productId);
+        if (item == null) {
+            return List.of();
+        }
+        return Arrays.stream(current.neighbors()[item])
+                .mapToObj(neighbor -> current.products()[neighbor])
+                .toList();
+    }
+
+    private static Snapshot build(RatingMatrix ratings, int maxNeighbors) {
+        int itemCount = ratings.productCount();
+        int userCount = ratings.userCount();
+
+        // Mean score per user, to center ratings (adjusted cosine)
+        double[] userSums = new double[userCount];
+        int[] userCounts = new int[userCount];
+        int[] itemCounts = new int[itemCount];
+        for (int n = 0; n < ratings.size(); n++) {
+            userSums[ratings.users[n]] += ratings.scores[n];
+            userCounts[ratings.users[n]]++;
+            itemCounts[ratings.items[n]]++;
+        }
+
+        // Compressed rows in both directions: user -> (item, centered score) and item -> (user, centered score)
+        int[][] userItems = new int[userCount][];
+        double[][] userValues = new double[userCount][];
+        int[][] itemUsers = new int[itemCount][];
+        double[][] itemValues = new double[itemCount][];
+        for (int u = 0; u < userCount; u++) {
+            userItems[u] = new int[userCounts[u]];
+            userValues[u] = new double[userCounts[u]];
+        }
+        for (int i = 0; i < itemCount; i++) {
+            itemUsers[i] = new int[itemCounts[i]];
+            itemValues[i] = new double[itemCounts[i]];
+        }
+
+        int[] userFill = new int[userCount];
+        int[] itemFill = new int[itemCount];
+        double[] norms = new double[itemCount];
+        for (int n = 0; n < ratings.size(); n++) {
+            int user = ratings.users[n];
+            int item = ratings.items[n];
+            double value = ratings.scores[n] - userSums[user] / userCounts[user];
+
+            userItems[user][userFill[user]] = item;
+            userValues[user][userFill[user]++] = value;
+            itemUsers[item][itemFill[item]] = user;
+            itemValues[item][itemFill[item]++] = value;
+            norms[item] += value * value;
+        }
+
+        int[][] neighbors = new int[itemCount][];
+        float[][] similarities = new float[itemCount][];
+        double[] dots = new double[itemCount];
+        int[] touched = new int[itemCount];
+        int[] stamp = new int[itemCount];
+
+        for (int i = 0; i < itemCount; i++) {
+            // Accumulate dot products with every item co-rated by at least one user
+            int touchedCount = 0;
+            for (int r = 0; r < itemUsers[i].length; r++) {
+                int user = itemUsers[i][r];
+                double value = itemValues[i][r];
+                for (int c = 0; c < userItems[user].length; c++) {
+                    int j = userItems[user][c];
+                    if (j == i) {
+                        continue;
+                    }
+                    if (stamp[j] != i + 1) {
+                        stamp[j] = i + 1;
+                        dots[j] = 0;
+                        touched[touchedCount++] = j;
+                    }
+                    dots[j] += value * userValues[user][c];
+                }
+            }
+
+            double[] candidateScores = new double[touchedCount];
+            for (int t = 0; t < touchedCount; t++) {
+                int j = touched[t];
+                double denominator = Math.sqrt(norms[i] * norms[j]);
+                candidateScores[t] = denominator == 0 ? 0 : dots[j] / denominator;
+            }
+
+            // Only positively correlated products are kept as neighbors
+            int[] top = TopKSelector.selectTopK(candidateScores, maxNeighbors);
+            neighbors[i] = new int[top.length];
+            similarities[i] = new float[top.length];
+            for (int k = 0; k < top.length; k++) {
+                neighbors[i][k] = touched[top[k]];
+                similarities[i][k] = (float) candidateScores[top[k]];
+            }
+        }
+
+        return new Snapshot(ratings.products, ratings.productIndexes, neighbors, similarities);
+    }
+}
@@ -0,0 +1,27 @@
+package com.codebytes2.recommender.service.scoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the item neighbor index at startup and refreshes it periodically, only when item-item
+ * collaborative filtering is the configured algorithm.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "recommendation", name = "algorithm-version", havingValue = "item-cf-v1")
+public class ItemNeighborIndexScheduler {
+
+    private final ItemNeighborIndex itemNeighborIndex;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${recommendation.item-cf.rebuild-interval:PT1H}",
+            fixedDelayString = "${recommendation.item-cf.rebuild-interval:PT1H}")
+    public void rebuild() {
+        itemNeighborIndex.rebuild();
+    }
+}
@@ -0,0 +1,151 @@
+package com.codebytes2.recommender.service.scoring;
+
+import com.codebytes2.recommender.config.recommendation.RecommendationProperties;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Matrix factorization recommender. The ALS model is trained in the background from the ratings
+ * table and swapped in atomically; scoring a user is one dot-product pass over the item factors.
+ * Retrained by {@link MatrixFactorizationScheduler} when als-v1 is the configured algorithm.
+ */
+@Component
+@RequiredArgsConstructor
+public class MatrixFactorizationModel {
+
+    private static final Logger log = LoggerFactory.getLogger(MatrixFactorizationModel.class);
+
+    // Fixed seed, with the ratings read in id order, so that the holdout split and the initial
+    // factors are reproducible for the same ratings
+    private static final long SEED = 42L;
+
+    private final RatingMatrixLoader ratingMatrixLoader;
+    private final RecommendationProperties recommendationProperties;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    /**
+     * Metrics of the model currently in use, which is trained on all {@code trainingRatings}. {@code rmse}
+     * is measured on the {@code holdoutRatings} with a second model trained without them, and is null
+     * when no ratings were held out.
+     */
+    public record TrainingStats(long version, Instant trainedAt, long trainingTimeMs, Double rmse,
+                                int users, int products, int trainingRatings, int holdoutRatings) {
+        static final TrainingStats NONE = new TrainingStats(0, null, 0, null, 0, 0, 0, 0);
+    }
+
+    private record Snapshot(TrainingStats stats, Map<UUID, Integer> userIndexes, Map<UUID, Integer> productIndexes,
+                            UUID[] products, AlsTrainer.Factors factors) {
+        static final Snapshot EMPTY = new Snapshot(TrainingStats.NONE, Map.of(), Map.of(), new UUID[0],
+                new AlsTrainer.Factors(0, 0f, new float[0], new float[0]));
+    }
+
+    public synchronized void retrain() {
+        RecommendationProperties.Als properties = recommendationProperties.getAls();
+        long start = System.currentTimeMillis();
+
+        RatingMatrix ratings = ratingMatrixLoader.load();
+        Random random = new Random(SEED);
+        boolean[] heldOut = new boolean[ratings.size()];
+        int holdoutCount = 0;
+        for (int n = 0; n < heldOut.length; n++) {
+            if (random.nextDouble() < properties.getHoldoutFraction()) {
+                heldOut[n] = true;
+                holdoutCount++;
+            }
+        }
+
+        // The RMSE comes from a model trained without the held-out ratings; the model served is then
+        // trained on all of them, so no rating is left out of production scoring
+        Double rmse = holdoutCount == 0 ? null : evaluate(ratings, heldOut, holdoutCount, properties);
+        float[] scores = new float[ratings.size()];
+        for (int n = 0; n < scores.length; n++) {
+            scores[n] = ratings.scores[n];
+        }
+        AlsTrainer.Factors factors = AlsTrainer.train(ratings.userCount(), ratings.productCount(),
+                ratings.users, ratings.items, scores,
+                properties.getRank(), properties.getIterations(), properties.getRegularization(), SEED);
+
+        long trainingTimeMs = System.currentTimeMillis() - start;
+        TrainingStats stats = new TrainingStats(snapshot.stats().version() + 1, Instant.now(), trainingTimeMs, rmse,
+                ratings.userCount(), ratings.productCount(), ratings.size(), holdoutCount);
+
+        snapshot = new Snapshot(stats, ratings.userIndexes, ratings.productIndexes, ratings.products, factors);
+        log.info("Modelo ALS v{} entrenado: {} usuarios, {} productos, RMSE {} en {} ms",
+                stats.version(), stats.users(), stats.products(), rmse, trainingTimeMs);
+    }
+
+    public TrainingStats getTrainingStats() {
+        return snapshot.stats();
+    }
+
+    /**
+     * Returns the {@code limit} products with the highest predicted score for the user, leaving out
+     * the products already rated. Empty when the user was not part of the training data.
+     */
+    public List<ScoredItem> recommend(UUID userId, Collection<UUID> ratedProductIds, int limit) {
+        Snapshot current = snapshot;
+        Integer user = current.userIndexes().get(userId);
+        if (user == null) {
+            return List.of();
+        }
+
+        AlsTrainer.Factors factors = current.factors();
+        double[] scores = new double[current.products().length];
+        for (int item = 0; item < scores.length; item++) {
+            scores[item] = factors.predict(user, item);
+        }
+        for (UUID ratedProductId : ratedProductIds) {
+            Integer item = current.productIndexes().get(ratedProductId);
+            if (item != null) {
+                scores[item] = 0;
+            }
+        }
+
+        int[] top = TopKSelector.selectTopK(scores, limit);
+        List<ScoredItem> result = new ArrayList<>(top.length);
+        for (int index : top) {
+            result.add(new ScoredItem(current.products()[index], scores[index]));
+        }
+        return result;
+    }
+
+    private static double evaluate(RatingMatrix ratings, boolean[] heldOut, int holdoutCount,
+                                   RecommendationProperties.Als properties) {
+        int trainingCount = ratings.size() - holdoutCount;
+        int[] users = new int[trainingCount];
+        int[] items = new int[trainingCount];
+        float[] scores = new float[trainingCount];
+        int t = 0;
+        for (int n = 0; n < heldOut.length; n++) {
+            if (!heldOut[n]) {
+                users[t] = ratings.users[n];
+                items[t] = ratings.items[n];
+                scores[t++] = ratings.scores[n];
+            }
+        }
+        AlsTrainer.Factors factors = AlsTrainer.train(ratings.userCount(), ratings.productCount(), users, items, scores,
+                properties.getRank(), properties.getIterations(), properties.getRegularization(), SEED);
+
+        // Users and products with no training ratings have zero factors, so they are predicted with the global mean
+        double squaredError = 0;
+        for (int n = 0; n < heldOut.length; n++) {
+            if (heldOut[n]) {
+                double predicted = Math.max(1, Math.min(5, factors.predict(ratings.users[n], ratings.items[n])));
+                double error = predicted - ratings.scores[n];
+                squaredError += error * error;
+            }
+        }
+        return Math.sqrt(squaredError / holdoutCount);
+    }
+}
@@ -0,0 +1,27 @@
+package com.codebytes2.recommender.service.scoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Trains the ALS model at startup and retrains it periodically, only when matrix factorization
+ * is the configured algorithm.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "recommendation", name = "algorithm-version", havingValue = "als-v1")
+public class MatrixFactorizationScheduler {
+
+    private final MatrixFactorizationModel matrixFactorizationModel;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${recommendation.als.retrain-interval:PT6H}",
+            fixedDelayString = "${recommendation.als.retrain-interval:PT6H}")
+    public void retrain() {
+        matrixFactorizationModel.retrain();
+    }
+}
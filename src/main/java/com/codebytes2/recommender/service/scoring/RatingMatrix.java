@@ -0,0 +1,85 @@
+package com.codebytes2.recommender.service.scoring;
+
+import com.codebytes2.recommender.repository.projection.RatingEntry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * The ratings as parallel primitive arrays: the n-th rating was given by user {@code users[n]} to
+ * product {@code items[n]} with score {@code scores[n]}. Users and products are numbered in order
+ * of first appearance. Built while the rows are scrolled, so the table is never held as a list of
+ * row objects.
+ */
+public final class RatingMatrix {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    final Map<UUID, Integer> userIndexes;
+    final Map<UUID, Integer> productIndexes;
+    final UUID[] products;
+    final int[] users;
+    final int[] items;
+    final byte[] scores;
+
+    private RatingMatrix(Map<UUID, Integer> userIndexes, Map<UUID, Integer> productIndexes, UUID[] products,
+                         int[] users, int[] items, byte[] scores) {
+        this.userIndexes = userIndexes;
+        this.productIndexes = productIndexes;
+        this.products = products;
+        this.users = users;
+        this.items = items;
+        this.scores = scores;
+    }
+
+    public static RatingMatrix of(Stream<RatingEntry> entries) {
+        Map<UUID, Integer> userIndexes = new HashMap<>();
+        Map<UUID, Integer> productIndexes = new HashMap<>();
+        List<UUID> products = new ArrayList<>();
+        int[] users = new int[INITIAL_CAPACITY];
+        int[] items = new int[INITIAL_CAPACITY];
+        byte[] scores = new byte[INITIAL_CAPACITY];
+        int size = 0;
+
+        Iterator<RatingEntry> iterator = entries.iterator();
+        while (iterator.hasNext()) {
+            RatingEntry entry = iterator.next();
+            if (size == users.length) {
+                users = Arrays.copyOf(users, size * 2);
+                items = Arrays.copyOf(items, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            users[size] = userIndexes.computeIfAbsent(entry.userId(), id -> userIndexes.size());
+            Integer item = productIndexes.get(entry.productId());
+            if (item == null) {
+                item = products.size();
+                productIndexes.put(entry.productId(), item);
+                products.add(entry.productId());
+            }
+            items[size] = item;
+            scores[size] = entry.score().byteValue();
+            size++;
+        }
+
+        return new RatingMatrix(userIndexes, productIndexes, products.toArray(new UUID[0]),
+                Arrays.copyOf(users, size), Arrays.copyOf(items, size), Arrays.copyOf(scores, size));
+    }
+
+    public int size() {
+        return users.length;
+    }
+
+    int userCount() {
+        return userIndexes.size();
+    }
+
+    int productCount() {
+        return products.length;
+    }
+}
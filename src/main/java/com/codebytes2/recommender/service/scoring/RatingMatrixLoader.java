@@ -0,0 +1,27 @@
+package com.codebytes2.recommender.service.scoring;
+
+import com.codebytes2.recommender.repository.RatingRepository;
+import com.codebytes2.recommender.repository.projection.RatingEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+/**
+ * Reads the whole ratings table for the collaborative scorers. The transaction only spans the
+ * read, not the model building that follows.
+ */
+@Component
+@RequiredArgsConstructor
+public class RatingMatrixLoader {
+
+    private final RatingRepository ratingRepository;
+
+    @Transactional(readOnly = true)
+    public RatingMatrix load() {
+        try (Stream<RatingEntry> entries = ratingRepository.streamAllEntries()) {
+            return RatingMatrix.of(entries);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.codebytes2.recommender.service.scoring;
+
+import java.util.UUID;
+
+/**
+ * A recommended product id with the score assigned by a collaborative scorer.
+ */
+public record ScoredItem(UUID productId, double score) {
+}
@@ -0,0 +1,57 @@
+package com.codebytes2.recommender.service.scoring;
+
+import com.codebytes2.recommender.model.Product;
+import com.codebytes2.recommender.model.Rating;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tag affinity used by the default ("v1.0") algorithm: how much a user likes each tag, from
+ * the scores they gave, and how well a product's tags match those preferences.
+ */
+public final class TagScoring {
+
+    // Cap on the tag score to prevent it from being too dominant
+    private static final double MAX_TAG_SCORE = 10.0;
+
+    private TagScoring() {
+    }
+
+    /**
+     * Sums, for each tag of the rated products, the user's score normalized to 0.2-1.0.
+     */
+    public static Map<String, Double> userTagPreferences(List<Rating> userRatings) {
+        Map<String, Double> tagPreferences = new HashMap<>();
+
+        for (Rating rating : userRatings) {
+            Product product = rating.getProduct();
+            if (product != null && product.getTags() != null) {
+                // Convert rating (1-5) to (0.2-1.0)
+                double tagWeight = rating.getScore() / 5.0;
+                for (String tag : product.getTags()) {
+                    tagPreferences.merge(tag, tagWeight, Double::sum);
+                }
+            }
+        }
+
+        return tagPreferences;
+    }
+
+    /**
+     * Sum of the user's preferences for the product's tags, capped at {@value #MAX_TAG_SCORE}.
+     */
+    public static double tagScore(Product product, Map<String, Double> userTagPreferences) {
+        if (product.getTags() == null || userTagPreferences.isEmpty()) {
+            return 0.0;
+        }
+
+        double score = 0.0;
+        for (String tag : product.getTags()) {
+            score += userTagPreferences.getOrDefault(tag, 0.0);
+        }
+
+        return Math.min(score, MAX_TAG_SCORE);
+    }
+}
@@ -0,0 +1,87 @@
+package com.codebytes2.recommender.service.scoring;
+
+/**
+ * Selects the indexes of the K highest positive scores using a bounded min-heap over
+ * primitive arrays, so ranking N candidates costs O(N log K) with no per-item boxing.
+ * Ties are resolved in favour of the lower index, matching a stable descending sort.
+ */
+public final class TopKSelector {
+
+    private TopKSelector() {
+    }
+
+    /**
+     * Returns the indexes of the best {@code k} entries of {@code scores} with a score greater
+     * than zero, ordered from highest to lowest score.
+     */
+    public static int[] selectTopK(double[] scores, int k) {
+        if (k <= 0 || scores.length == 0) {
+            return new int[0];
+        }
+
+        int[] heap = new int[Math.min(k, scores.length)];
+        int size = 0;
+
+        for (int i = 0; i < scores.length; i++) {
+            if (!(scores[i] > 0)) {
+                continue;
+            }
+            if (size < heap.length) {
+                heap[size] = i;
+                siftUp(heap, size, scores);
+                size++;
+            } else if (isBetter(i, heap[0], scores)) {
+                heap[0] = i;
+                siftDown(heap, 0, size, scores);
+            }
+        }
+
+        // Drain the heap: the worst remaining element is always at the root
+        int[] result = new int[size];
+        for (int last = size - 1; last >= 0; last--) {
+            result[last] = heap[0];
+            heap[0] = heap[last];
+            siftDown(heap, 0, last, scores);
+        }
+        return result;
+    }
+
+    // true when index a ranks above index b
+    private static boolean isBetter(int a, int b, double[] scores) {
+        if (scores[a] != scores[b]) {
+            return scores[a] > scores[b];
+        }
+        return a < b;
+    }
+
+    private static void siftUp(int[] heap, int position, double[] scores) {
+        int item = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!isBetter(heap[parent], item, scores)) {
+                break;
+            }
+            heap[position] = heap[parent];
+            position = parent;
+        }
+        heap[position] = item;
+    }
+
+    private static void siftDown(int[] heap, int position, int size, double[] scores) {
+        int item = heap[position];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < size && isBetter(heap[child], heap[right], scores)) {
+                child = right;
+            }
+            if (!isBetter(item, heap[child], scores)) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = item;
+    }
+}
@@ -0,0 +1,86 @@
+package com.codebytes2.recommender.service.search;
+
+import com.codebytes2.recommender.model.Product;
+import com.codebytes2.recommender.model.Tournament;
+import com.codebytes2.recommender.repository.ProductRepository;
+import com.codebytes2.recommender.repository.TournamentRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Text search for databases without pg_trgm (H2 in tests and local runs): trigram indexes kept
+ * in memory, rebuilt at startup and updated by the services on every write.
+ */
+@RequiredArgsConstructor
+public class InMemoryTextSearch implements TextSearch {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryTextSearch.class);
+
+    private final ProductRepository productRepository;
+    private final TournamentRepository tournamentRepository;
+
+    private final NgramIndex products = new NgramIndex();
+    private final NgramIndex tournaments = new NgramIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        products.clear();
+        tournaments.clear();
+        productRepository.findAll().forEach(this::indexProduct);
+        tournamentRepository.findAll().forEach(this::indexTournament);
+        log.info("Índice de búsqueda en memoria construido: {} productos, {} torneos",
+                products.size(), tournaments.size());
+    }
+
+    @Override
+    public Page<UUID> searchProducts(String query, Pageable pageable) {
+        return page(products.search(query), pageable);
+    }
+
+    @Override
+    public Page<UUID> searchTournaments(String query, Pageable pageable) {
+        return page(tournaments.search(query), pageable);
+    }
+
+    @Override
+    public void indexProduct(Product product) {
+        if (product != null && product.getId() != null) {
+            products.put(product.getId(), product.getName());
+        }
+    }
+
+    @Override
+    public void removeProduct(UUID productId) {
+        products.remove(productId);
+    }
+
+    @Override
+    public void indexTournament(Tournament tournament) {
+        if (tournament != null && tournament.getId() != null) {
+            tournaments.put(tournament.getId(), tournament.getName(), tournament.getGame());
+        }
+    }
+
+    @Override
+    public void removeTournament(UUID tournamentId) {
+        tournaments.remove(tournamentId);
+    }
+
+    private static Page<UUID> page(List<UUID> ranked, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(ranked);
+        }
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        int to = Math.min(from + pageable.getPageSize(), ranked.size());
+        return new PageImpl<>(ranked.subList(from, to), pageable, ranked.size());
+    }
+}
@@ -0,0 +1,164 @@
+package com.codebytes2.recommender.service.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * In-memory trigram index, the same idea as a pg_trgm GIN index. Every lowercase 3-character
+ * substring of a document field points to the documents containing it, so the documents that may
+ * contain a query are the intersection of the postings of its trigrams; they are then checked with
+ * a plain substring match. Queries shorter than a trigram check every document.
+ * <p>
+ * Matches are ranked like pg_trgm's {@code similarity()}: the share of word trigrams (words padded
+ * with two leading blanks and one trailing blank) that the field and the query have in common.
+ */
+public class NgramIndex {
+
+    private static final int N = 3;
+
+    private final Map<String, Set<UUID>> postings = new HashMap<>();
+    private final Map<UUID, List<String>> fieldsById = new HashMap<>();
+
+    /**
+     * Indexes a document, replacing any previous version. Null fields are ignored.
+     */
+    public synchronized void put(UUID id, String... fields) {
+        remove(id);
+
+        List<String> normalized = new ArrayList<>();
+        for (String field : fields) {
+            if (field != null) {
+                normalized.add(normalize(field));
+            }
+        }
+        fieldsById.put(id, normalized);
+        for (String field : normalized) {
+            for (String gram : grams(field)) {
+                postings.computeIfAbsent(gram, g -> new HashSet<>()).add(id);
+            }
+        }
+    }
+
+    public synchronized void remove(UUID id) {
+        List<String> previous = fieldsById.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String field : previous) {
+            for (String gram : grams(field)) {
+                Set<UUID> posting = postings.get(gram);
+                if (posting != null) {
+                    posting.remove(id);
+                    if (posting.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        postings.clear();
+        fieldsById.clear();
+    }
+
+    /**
+     * Ids of the documents with a field containing the query, most similar first.
+     */
+    public synchronized List<UUID> search(String query) {
+        String normalized = normalize(query);
+
+        record Match(UUID id, double score) {
+        }
+        List<Match> matches = new ArrayList<>();
+        for (UUID id : candidates(normalized)) {
+            double best = -1;
+            for (String field : fieldsById.get(id)) {
+                if (field.contains(normalized)) {
+                    best = Math.max(best, similarity(field, normalized));
+                }
+            }
+            if (best >= 0) {
+                matches.add(new Match(id, best));
+            }
+        }
+
+        // Ties by the id text, which sorts like a Postgres uuid
+        matches.sort(Comparator.comparingDouble(Match::score).reversed()
+                .thenComparing(match -> match.id().toString()));
+        return matches.stream().map(Match::id).toList();
+    }
+
+    public synchronized int size() {
+        return fieldsById.size();
+    }
+
+    private Set<UUID> candidates(String query) {
+        if (query.length() < N) {
+            return fieldsById.keySet();
+        }
+        // Intersect from the rarest trigram, stopping as soon as nothing is left
+        List<Set<UUID>> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            Set<UUID> posting = postings.get(gram);
+            if (posting == null) {
+                return Set.of();
+            }
+            lists.add(posting);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<UUID> candidates = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !candidates.isEmpty(); i++) {
+            candidates.retainAll(lists.get(i));
+        }
+        return candidates;
+    }
+
+    static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    // Every substring of length N, for candidate lookup
+    static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + N <= text.length(); i++) {
+            grams.add(text.substring(i, i + N));
+        }
+        return grams;
+    }
+
+    /**
+     * pg_trgm similarity between two lowercase texts, from 0 (nothing shared) to 1.
+     */
+    static double similarity(String a, String b) {
+        Set<String> first = wordTrigrams(a);
+        Set<String> second = wordTrigrams(b);
+        if (first.isEmpty() || second.isEmpty()) {
+            return 0;
+        }
+        int shared = 0;
+        for (String gram : first) {
+            if (second.contains(gram)) {
+                shared++;
+            }
+        }
+        return (double) shared / (first.size() + second.size() - shared);
+    }
+
+    private static Set<String> wordTrigrams(String text) {
+        Set<String> trigrams = new HashSet<>();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                trigrams.addAll(grams("  " + word + " "));
+            }
+        }
+        return trigrams;
+    }
+}
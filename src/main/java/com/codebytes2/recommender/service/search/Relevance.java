@@ -0,0 +1,64 @@
+package com.codebytes2.recommender.service.search;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * The {@code sort=relevance} pseudo-property of the search endpoints. It is not an entity
+ * attribute, so it must be removed before the pageable reaches a repository.
+ */
+public final class Relevance {
+
+    public static final String SORT_PROPERTY = "relevance";
+
+    private Relevance() {
+    }
+
+    public static boolean isRequested(Pageable pageable) {
+        return pageable.getSort().getOrderFor(SORT_PROPERTY) != null;
+    }
+
+    /**
+     * The same pageable without the relevance order, leaving any other order as it was.
+     */
+    public static Pageable strip(Pageable pageable) {
+        if (!isRequested(pageable) || pageable.isUnpaged()) {
+            return pageable;
+        }
+        List<Sort.Order> orders = new ArrayList<>();
+        pageable.getSort().forEach(order -> {
+            if (!SORT_PROPERTY.equals(order.getProperty())) {
+                orders.add(order);
+            }
+        });
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(orders));
+    }
+
+    /**
+     * Loads the entities of a ranked page of ids and keeps them in ranking order. Ids deleted
+     * in the meantime are skipped.
+     */
+    public static <T> Page<T> load(Page<UUID> ids, Function<List<UUID>, List<T>> loader, Function<T, UUID> idOf) {
+        Map<UUID, T> byId = new HashMap<>();
+        loader.apply(ids.getContent()).forEach(entity -> byId.put(idOf.apply(entity), entity));
+
+        List<T> ranked = new ArrayList<>(byId.size());
+        for (UUID id : ids.getContent()) {
+            T entity = byId.get(id);
+            if (entity != null) {
+                ranked.add(entity);
+            }
+        }
+        return new PageImpl<>(ranked, ids.getPageable(), ids.getTotalElements());
+    }
+}
@@ -0,0 +1,32 @@
+package com.codebytes2.recommender.service.search;
+
+import com.codebytes2.recommender.model.Product;
+import com.codebytes2.recommender.model.Tournament;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.UUID;
+
+/**
+ * Substring search over product names and tournament names/games, ranked by trigram similarity
+ * to the query (best match first, id as tie-breaker). Only the page and size of the pageable are
+ * used: the order is always the ranking.
+ */
+public interface TextSearch {
+
+    Page<UUID> searchProducts(String query, Pageable pageable);
+
+    Page<UUID> searchTournaments(String query, Pageable pageable);
+
+    /**
+     * Keeps the search in sync after a product is saved. Implementations backed by a database
+     * index need nothing here.
+     */
+    void indexProduct(Product product);
+
+    void removeProduct(UUID productId);
+
+    void indexTournament(Tournament tournament);
+
+    void removeTournament(UUID tournamentId);
+}
@@ -0,0 +1,79 @@
+package com.codebytes2.recommender.service.search;
+
+import com.codebytes2.recommender.model.Product;
+import com.codebytes2.recommender.model.Tournament;
+import com.codebytes2.recommender.repository.LikePatterns;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Text search on PostgreSQL with pg_trgm. The {@code LIKE} on {@code lower(column)} is answered
+ * by the GIN trigram indexes of migration V3, and only the matching rows are ranked with
+ * {@code similarity()}. Nothing to maintain on writes: the indexes follow the tables.
+ */
+@RequiredArgsConstructor
+public class TrigramTextSearch implements TextSearch {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Page<UUID> searchProducts(String query, Pageable pageable) {
+        MapSqlParameterSource parameters = parameters(query, pageable);
+        List<UUID> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM products WHERE lower(name) LIKE :pattern ESCAPE '\\' " +
+                        "ORDER BY similarity(lower(name), :query) DESC, id LIMIT :limit OFFSET :offset",
+                parameters, UUID.class);
+        return PageableExecutionUtils.getPage(ids, pageable, () -> jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM products WHERE lower(name) LIKE :pattern ESCAPE '\\'",
+                parameters, Long.class));
+    }
+
+    @Override
+    public Page<UUID> searchTournaments(String query, Pageable pageable) {
+        MapSqlParameterSource parameters = parameters(query, pageable);
+        List<UUID> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM tournaments " +
+                        "WHERE lower(name) LIKE :pattern ESCAPE '\\' OR lower(game) LIKE :pattern ESCAPE '\\' " +
+                        "ORDER BY greatest(similarity(lower(name), :query), similarity(lower(game), :query)) DESC, id " +
+                        "LIMIT :limit OFFSET :offset",
+                parameters, UUID.class);
+        return PageableExecutionUtils.getPage(ids, pageable, () -> jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM tournaments " +
+                        "WHERE lower(name) LIKE :pattern ESCAPE '\\' OR lower(game) LIKE :pattern ESCAPE '\\'",
+                parameters, Long.class));
+    }
+
+    @Override
+    public void indexProduct(Product product) {
+    }
+
+    @Override
+    public void removeProduct(UUID productId) {
+    }
+
+    @Override
+    public void indexTournament(Tournament tournament) {
+    }
+
+    @Override
+    public void removeTournament(UUID tournamentId) {
+    }
+
+    private static MapSqlParameterSource parameters(String query, Pageable pageable) {
+        String normalized = query.toLowerCase(Locale.ROOT);
+        // The query is matched literally
+        return new MapSqlParameterSource()
+                .addValue("query", normalized)
+                .addValue("pattern", LikePatterns.containing(normalized))
+                .addValue("limit", pageable.isPaged() ? pageable.getPageSize() : null)
+                .addValue("offset", pageable.isPaged() ? pageable.getOffset() : 0L);
+    }
+}
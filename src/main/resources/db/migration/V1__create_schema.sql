@@ -0,0 +1,115 @@
+-- Tables as mapped by the JPA entities (validated at startup with ddl-auto: validate)
+
+CREATE TABLE users (
+    id                      uuid                        NOT NULL,
+    username                varchar(255)                NOT NULL,
+    email                   varchar(255)                NOT NULL,
+    password                varchar(255)                NOT NULL,
+    enabled                 boolean                     NOT NULL,
+    account_non_expired     boolean                     NOT NULL,
+    account_non_locked      boolean                     NOT NULL,
+    credentials_non_expired boolean                     NOT NULL,
+    created_at              timestamp(6) with time zone NOT NULL,
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE user_roles (
+    user_id uuid         NOT NULL,
+    role    varchar(255) NOT NULL CHECK (role IN ('ADMIN', 'PLAYER')),
+    CONSTRAINT pk_user_roles PRIMARY KEY (user_id, role),
+    CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE products (
+    id               uuid                        NOT NULL,
+    name             varchar(255)                NOT NULL,
+    description      varchar(255),
+    category         varchar(255),
+    popularity_score bigint,
+    created_at       timestamp(6) with time zone NOT NULL,
+    CONSTRAINT pk_products PRIMARY KEY (id)
+);
+
+CREATE TABLE product_tags (
+    product_id uuid         NOT NULL,
+    tag        varchar(255) NOT NULL,
+    CONSTRAINT pk_product_tags PRIMARY KEY (product_id, tag),
+    CONSTRAINT fk_product_tags_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+CREATE TABLE product_rating_stats (
+    product_id       uuid   NOT NULL,
+    rating_sum       bigint NOT NULL,
+    rating_count     bigint NOT NULL,
+    one_star_count   bigint NOT NULL,
+    two_star_count   bigint NOT NULL,
+    three_star_count bigint NOT NULL,
+    four_star_count  bigint NOT NULL,
+    five_star_count  bigint NOT NULL,
+    updated_at       timestamp(6) with time zone,
+    CONSTRAINT pk_product_rating_stats PRIMARY KEY (product_id)
+);
+
+CREATE TABLE ratings (
+    id         uuid                        NOT NULL,
+    user_id    uuid                        NOT NULL,
+    product_id uuid                        NOT NULL,
+    score      integer                     NOT NULL CHECK (score >= 1 AND score <= 5),
+    created_at timestamp(6) with time zone NOT NULL,
+    CONSTRAINT pk_ratings PRIMARY KEY (id),
+    CONSTRAINT uk_ratings_user_product UNIQUE (user_id, product_id),
+    CONSTRAINT fk_ratings_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_ratings_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+CREATE TABLE recommendations (
+    id                uuid                        NOT NULL,
+    user_id           uuid                        NOT NULL,
+    computed_at       timestamp(6) with time zone NOT NULL,
+    algorithm_version varchar(255)                NOT NULL,
+    result_limit      integer,
+    CONSTRAINT pk_recommendations PRIMARY KEY (id)
+);
+
+-- Keyed by recommendation first, so loading the items of one recommendation is an index range scan
+CREATE TABLE recommended_products (
+    recommendation_result_id uuid    NOT NULL,
+    position                 integer NOT NULL,
+    product_id               uuid    NOT NULL,
+    relevance_score          float(53),
+    CONSTRAINT pk_recommended_products PRIMARY KEY (recommendation_result_id, position),
+    CONSTRAINT fk_recommended_products_recommendation
+        FOREIGN KEY (recommendation_result_id) REFERENCES recommendations (id)
+);
+
+CREATE TABLE tournaments (
+    id                    uuid                        NOT NULL,
+    name                  varchar(255)                NOT NULL,
+    game                  varchar(255)                NOT NULL,
+    start_date            timestamp(6) with time zone NOT NULL,
+    end_date              timestamp(6) with time zone NOT NULL,
+    registration_open_at  timestamp(6) with time zone NOT NULL,
+    registration_close_at timestamp(6) with time zone NOT NULL,
+    rules                 varchar(255),
+    max_participants      integer,
+    status                varchar(255)                NOT NULL CHECK (status IN ('UPCOMING', 'OPEN', 'CLOSED')),
+    active_registrations  integer DEFAULT 0           NOT NULL,
+    created_at            timestamp(6) with time zone NOT NULL,
+    CONSTRAINT pk_tournaments PRIMARY KEY (id)
+);
+
+CREATE TABLE tournament_registrations (
+    id            uuid                        NOT NULL,
+    tournament_id uuid                        NOT NULL,
+    user_id       uuid                        NOT NULL,
+    nickname      varchar(255)                NOT NULL,
+    status        varchar(255)                NOT NULL
+        CHECK (status IN ('REGISTERED', 'CONFIRMED', 'CANCELLED', 'REJECTED', 'WAITLISTED')),
+    registered_at timestamp(6) with time zone NOT NULL,
+    CONSTRAINT pk_tournament_registrations PRIMARY KEY (id),
+    CONSTRAINT uk_tournament_registrations_tournament_user UNIQUE (tournament_id, user_id),
+    CONSTRAINT fk_tournament_registrations_tournament FOREIGN KEY (tournament_id) REFERENCES tournaments (id),
+    CONSTRAINT fk_tournament_registrations_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
@@ -0,0 +1,28 @@
+-- Indexes for the repository queries. Lookups already served by a primary key or unique
+-- constraint are not repeated: ratings (user_id, product_id) answers findByUserEntityId and
+-- existsByUserEntityIdAndProductId, tournament_registrations (tournament_id, user_id) the
+-- per-tournament registration lookups.
+
+-- RatingRepository.findByProductId / countByProductId (index-only), and the product foreign key
+CREATE INDEX idx_ratings_product_id ON ratings (product_id);
+-- RatingRepository.existsByUserEntityIdAndCreatedAtAfter
+CREATE INDEX idx_ratings_user_created_at ON ratings (user_id, created_at);
+
+-- RecommendationRepository.findByUserId / findTopByUserIdOrderByComputedAtDesc
+CREATE INDEX idx_recommendations_user_computed_at ON recommendations (user_id, computed_at);
+
+-- Tag to products lookups
+CREATE INDEX idx_product_tags_tag ON product_tags (tag, product_id);
+-- ProductRepository.findAllByOrderByPopularityScoreDesc (cold-start candidates)
+CREATE INDEX idx_products_popularity_score ON products (popularity_score DESC);
+
+-- TournamentRepository.findByStatus, sorted by start date as the listing does by default
+CREATE INDEX idx_tournaments_status_start_date ON tournaments (status, start_date);
+-- Unfiltered tournament listing, sorted by start date
+CREATE INDEX idx_tournaments_start_date ON tournaments (start_date);
+-- TournamentRepository.findOpeningsFrom / findClosingsFrom / findIdsWithOverdueStatus
+CREATE INDEX idx_tournaments_registration_open_at ON tournaments (registration_open_at);
+CREATE INDEX idx_tournaments_registration_close_at ON tournaments (registration_close_at);
+
+-- TournamentRegistrationRepository waitlist reads, in arrival order
+CREATE INDEX idx_tournament_registrations_waitlist ON tournament_registrations (tournament_id, status, registered_at);
@@ -0,0 +1,6 @@
+-- Trigram indexes for substring search (LIKE '%...%' on lower(column), ranked with similarity())
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_products_name_trgm ON products USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX idx_tournaments_name_trgm ON tournaments USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX idx_tournaments_game_trgm ON tournaments USING gin (lower(game) gin_trgm_ops);
@@ -0,0 +1,25 @@
+-- Rating aggregates used to be deleted and recomputed from the ratings table on every start.
+-- They are now created with each product and kept up to date by every rating write, so they
+-- are filled once here for the products that already exist.
+INSERT INTO product_rating_stats (product_id, rating_sum, rating_count, one_star_count, two_star_count,
+                                  three_star_count, four_star_count, five_star_count, updated_at)
+SELECT p.id,
+       COALESCE(SUM(r.score), 0),
+       COUNT(r.id),
+       COUNT(r.id) FILTER (WHERE r.score = 1),
+       COUNT(r.id) FILTER (WHERE r.score = 2),
+       COUNT(r.id) FILTER (WHERE r.score = 3),
+       COUNT(r.id) FILTER (WHERE r.score = 4),
+       COUNT(r.id) FILTER (WHERE r.score = 5),
+       CURRENT_TIMESTAMP
+FROM products p
+         LEFT JOIN ratings r ON r.product_id = p.id
+GROUP BY p.id
+ON CONFLICT (product_id) DO UPDATE SET rating_sum       = EXCLUDED.rating_sum,
+                                       rating_count     = EXCLUDED.rating_count,
+                                       one_star_count   = EXCLUDED.one_star_count,
+                                       two_star_count   = EXCLUDED.two_star_count,
+                                       three_star_count = EXCLUDED.three_star_count,
+                                       four_star_count  = EXCLUDED.four_star_count,
+                                       five_star_count  = EXCLUDED.five_star_count,
+                                       updated_at       = EXCLUDED.updated_at;
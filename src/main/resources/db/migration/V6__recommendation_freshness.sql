@@ -0,0 +1,12 @@
+-- Freshness of stored recommendations.
+-- Ratings record when the row was written: created_at can be set in the past by a bulk import, so
+-- a rating imported after a recommendation was computed could look older than it.
+ALTER TABLE ratings ADD COLUMN inserted_at timestamp(6) with time zone NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+-- RatingRepository.existsByUserEntityIdAndInsertedAtAfter, replacing the created_at lookup
+DROP INDEX idx_ratings_user_created_at;
+CREATE INDEX idx_ratings_user_inserted_at ON ratings (user_id, inserted_at);
+
+-- Algorithm configured when the recommendation was computed; algorithm_version is the one that
+-- produced it, which is v1.0 whenever the configured scorer had nothing for the user.
+ALTER TABLE recommendations ADD COLUMN configured_algorithm_version varchar(255);
@@ -0,0 +1,9 @@
+-- Registration counters used to be recomputed from the registrations on every start, which could
+-- undercount while an older instance was still taking registrations. They are kept up to date by
+-- every join, cancellation and rejection, so they are filled once here for the existing tournaments.
+-- Same predicate as TournamentRegistrationRepository.countActiveRegistrations.
+UPDATE tournaments t
+SET active_registrations = (SELECT COUNT(*)
+                            FROM tournament_registrations tr
+                            WHERE tr.tournament_id = t.id
+                              AND tr.status IN ('REGISTERED', 'CONFIRMED'));
@@ -19,8 +19,10 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.codebytes2.recommender.auth.exceptions.DuplicateEmailException;
+import com.codebytes2.recommender.auth.exceptions.PasswordHashingUnavailableException;
 import com.codebytes2.recommender.exceptions.GlobalExceptionHandler;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 
 import java.util.Set;
 import java.util.UUID;
@@ -28,6 +30,7 @@ import java.util.UUID;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.hamcrest.Matchers.is;
@@ -116,6 +119,36 @@ class AuthControllerTest {
                         .content(objectMapper.writeValueAsString(loginRequest)))
                 .andExpect(status().isUnauthorized());
     }
+    @Test
+    void login_whenPasswordHashingSaturated_shouldReturnServiceUnavailable() throws Exception {
+        LoginRequest loginRequest = new LoginRequest("test@test.com", "password");
+
+        when(authService.login(any(LoginRequest.class)))
+                .thenThrow(new PasswordHashingUnavailableException("Demasiadas solicitudes"));
+
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void login_whenPasswordHashingSaturatedForUnknownUser_shouldReturnServiceUnavailable() throws Exception {
+        LoginRequest loginRequest = new LoginRequest("unknown@test.com", "password");
+
+        // What DaoAuthenticationProvider throws when loading the user fails
+        when(authService.login(any(LoginRequest.class)))
+                .thenThrow(new InternalAuthenticationServiceException("Demasiadas solicitudes",
+                        new PasswordHashingUnavailableException("Demasiadas solicitudes")));
+
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
     @Test
     void login_withInvalidEmail_shouldReturnBadRequest() throws Exception {
         LoginRequest loginRequest = new LoginRequest("invalid-email", "password");
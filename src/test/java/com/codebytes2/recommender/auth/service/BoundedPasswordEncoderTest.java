@@ -0,0 +1,90 @@
+package com.codebytes2.recommender.auth.service;
+
+import com.codebytes2.recommender.auth.exceptions.PasswordHashingUnavailableException;
+import com.codebytes2.recommender.config.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void encodeAndMatches_RunOnPoolAndRecordLatency() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new PlainEncoder(null), 1, 1, meterRegistry);
+
+        String encoded = encoder.encode("secret");
+
+        assertEquals("{plain}secret", encoded);
+        assertTrue(encoder.matches("secret", encoded));
+        assertFalse(encoder.matches("other", encoded));
+        assertEquals(1, meterRegistry.get("auth.password.hashing.duration").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("auth.password.hashing.duration").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void encode_WhenPoolAndQueueFull_RejectsImmediately() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new PlainEncoder(release), 1, 1, meterRegistry);
+
+        // One call running and one waiting in the queue
+        Future<String> running = callers.submit(() -> encoder.encode("a"));
+        awaitGauge("auth.password.hashing.active", 1);
+        Future<String> queued = callers.submit(() -> encoder.encode("b"));
+        awaitGauge("auth.password.hashing.queue", 1);
+
+        assertThrows(PasswordHashingUnavailableException.class, () -> encoder.encode("c"));
+        assertEquals(1, meterRegistry.get("auth.password.hashing.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("{plain}a", running.get(5, TimeUnit.SECONDS));
+        assertEquals("{plain}b", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    private void awaitGauge(String name, double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get(name).gauge().value() != expected) {
+            assertTrue(System.nanoTime() < deadline, name + " no llegó a " + expected);
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Stands in for BCrypt; blocks each call until the latch is released, if there is one.
+     */
+    private record PlainEncoder(CountDownLatch release) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return "{plain}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.codebytes2.recommender.auth.service;
+
+import com.codebytes2.recommender.auth.commons.models.entity.UserEntity;
+import com.codebytes2.recommender.auth.service.impl.BoundedUserCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedUserCacheTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void get_AfterTtl_ReturnsNull() {
+        BoundedUserCache cache = new BoundedUserCache(Duration.ofMinutes(5), 10, clock);
+        UserEntity user = user("a@test.com");
+        cache.put("a@test.com", user);
+
+        clock.advance(Duration.ofMinutes(4));
+        assertSame(user, cache.get("a@test.com"));
+
+        clock.advance(Duration.ofMinutes(1));
+        assertNull(cache.get("a@test.com"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_WhenFull_DropsLeastRecentlyUsed() {
+        BoundedUserCache cache = new BoundedUserCache(Duration.ofMinutes(5), 2, clock);
+        cache.put("a@test.com", user("a@test.com"));
+        cache.put("b@test.com", user("b@test.com"));
+        cache.get("a@test.com");
+
+        cache.put("c@test.com", user("c@test.com"));
+
+        assertNotNull(cache.get("a@test.com"));
+        assertNull(cache.get("b@test.com"));
+        assertNotNull(cache.get("c@test.com"));
+    }
+
+    @Test
+    void evict_RemovesUser() {
+        BoundedUserCache cache = new BoundedUserCache(Duration.ofMinutes(5), 10, clock);
+        cache.put("a@test.com", user("a@test.com"));
+
+        cache.evict("a@test.com");
+
+        assertNull(cache.get("a@test.com"));
+    }
+
+    private static UserEntity user(String email) {
+        return UserEntity.builder().username(email).email(email).password("password").build();
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -71,4 +71,32 @@ class JwtServiceImplTest {
             jwtService.getClaims(invalidToken);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void getClaims_SameTokenTwice_ReturnsVerifiedClaims() {
+        String token = jwtService.generateToken("test@test.com", Set.of(UserRole.PLAYER)).getAccessToken();
+
+        Claims first = jwtService.getClaims(token);
+
+        assertSame(first, jwtService.getClaims(token));
+    }
+
+    @Test
+    void getClaims_TamperedSignatureOfCachedToken_Throws() {
+        String token = jwtService.generateToken("test@test.com", Set.of(UserRole.PLAYER)).getAccessToken();
+        jwtService.getClaims(token);
+
+        char last = token.charAt(token.length() - 1);
+        String tampered = token.substring(0, token.length() - 1) + (last == 'A' ? 'B' : 'A');
+
+        assertThrows(IllegalArgumentException.class, () -> jwtService.getClaims(tampered));
+    }
+
+    @Test
+    void getClaims_WithoutCache_VerifiesEveryCall() {
+        JwtServiceImpl uncached = new JwtServiceImpl(secret, 0);
+        String token = uncached.generateToken("test@test.com", Set.of(UserRole.PLAYER)).getAccessToken();
+
+        assertNotSame(uncached.getClaims(token), uncached.getClaims(token));
+    }
+}
@@ -0,0 +1,54 @@
+package com.codebytes2.recommender.auth.service;
+
+import com.codebytes2.recommender.auth.commons.dto.request.LoginRequest;
+import com.codebytes2.recommender.auth.exceptions.PasswordHashingUnavailableException;
+import com.codebytes2.recommender.config.security.BoundedPasswordEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Login through the real authentication manager while the password hashing pool rejects every
+ * call, so that the path taken for unknown users (the provider's timing-attack protection) is
+ * covered as well.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class LoginWhenHashingSaturatedTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoSpyBean
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Test
+    void login_UnknownUserWhileHashingSaturated_ReturnsServiceUnavailable() throws Exception {
+        PasswordHashingUnavailableException saturated = new PasswordHashingUnavailableException("Demasiadas solicitudes");
+        doThrow(saturated).when(passwordEncoder).encode(any());
+        doThrow(saturated).when(passwordEncoder).matches(any(), any());
+        LoginRequest loginRequest = new LoginRequest("unknown-" + UUID.randomUUID() + "@test.com", "password");
+
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.codebytes2.recommender.auth.service;
+
+import com.codebytes2.recommender.auth.commons.models.entity.UserEntity;
+import com.codebytes2.recommender.auth.commons.models.enums.UserRole;
+import com.codebytes2.recommender.auth.repository.UserEntityRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The users loaded to authenticate requests are reused until the user is saved again.
+ */
+@SpringBootTest
+class UserDetailsCacheTest {
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private UserEntityRepository userEntityRepository;
+
+    @Test
+    void loadUserByUsername_RepeatedCalls_ReuseCachedUser() {
+        UserEntity saved = createUser();
+
+        UserDetails first = userDetailsService.loadUserByUsername(saved.getEmail());
+        UserDetails second = userDetailsService.loadUserByUsername(saved.getEmail());
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void loadUserByUsername_AfterDisablingUser_ReadsItAgain() {
+        UserEntity saved = createUser();
+        userDetailsService.loadUserByUsername(saved.getEmail());
+
+        UserEntity user = userEntityRepository.findById(saved.getId()).orElseThrow();
+        user.setEnabled(false);
+        userEntityRepository.save(user);
+
+        assertFalse(userDetailsService.loadUserByUsername(saved.getEmail()).isEnabled());
+    }
+
+    @Test
+    void loadUserByUsername_AfterRoleChange_ReadsItAgain() {
+        UserEntity saved = createUser();
+        userDetailsService.loadUserByUsername(saved.getEmail());
+
+        UserEntity user = userEntityRepository.findById(saved.getId()).orElseThrow();
+        user.setRoles(new HashSet<>(Set.of(UserRole.PLAYER, UserRole.ADMIN)));
+        userEntityRepository.save(user);
+
+        UserDetails reloaded = userDetailsService.loadUserByUsername(saved.getEmail());
+        assertTrue(reloaded.getAuthorities().stream()
+                .anyMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN")));
+    }
+
+    private UserEntity createUser() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        return userEntityRepository.save(UserEntity.builder()
+                .username("cached-" + suffix)
+                .email("cached-" + suffix + "@test.com")
+                .password("password")
+                .roles(new HashSet<>(Set.of(UserRole.PLAYER)))
+                .build());
+    }
+}
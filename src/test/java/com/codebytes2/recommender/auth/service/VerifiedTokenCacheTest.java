@@ -0,0 +1,66 @@
+package com.codebytes2.recommender.auth.service;
+
+import com.codebytes2.recommender.auth.service.impl.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    @Test
+    void get_AtExpiration_ReturnsNull() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, now::get);
+        Claims claims = claims(now.get() + 60_000);
+        cache.put("token-a", claims);
+
+        now.addAndGet(59_999);
+        assertSame(claims, cache.get("token-a"));
+
+        now.addAndGet(1);
+        assertNull(cache.get("token-a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_DifferentToken_ReturnsNull() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, now::get);
+        cache.put("token-a", claims(now.get() + 60_000));
+
+        assertNull(cache.get("token-b"));
+    }
+
+    @Test
+    void put_WhenFull_PurgesExpiredOrSkips() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2, now::get);
+        cache.put("token-a", claims(now.get() + 1_000));
+        cache.put("token-b", claims(now.get() + 60_000));
+
+        cache.put("token-c", claims(now.get() + 60_000));
+        assertNull(cache.get("token-c"));
+
+        now.addAndGet(1_000);
+        cache.put("token-c", claims(now.get() + 60_000));
+        assertNotNull(cache.get("token-b"));
+        assertNotNull(cache.get("token-c"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void put_WithoutExpiration_IsNotCached() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, now::get);
+        cache.put("token-a", Jwts.claims().subject("a@test.com").build());
+
+        assertNull(cache.get("token-a"));
+    }
+
+    private static Claims claims(long expiresAtMillis) {
+        return Jwts.claims().subject("a@test.com").expiration(new Date(expiresAtMillis)).build();
+    }
+}
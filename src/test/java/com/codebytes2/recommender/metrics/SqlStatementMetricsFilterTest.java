@@ -0,0 +1,66 @@
+package com.codebytes2.recommender.metrics;
+
+import com.codebytes2.recommender.config.metrics.SqlStatementCounter;
+import com.codebytes2.recommender.config.metrics.SqlStatementMetricsFilter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatementMetricsFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SqlStatementMetricsFilter filter;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new SqlStatementMetricsFilter(meterRegistry);
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sql-statement-counter;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(new SqlStatementCounter(h2));
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS counted (id INT)");
+    }
+
+    @Test
+    void doFilter_RecordsStatementsIssuedByTheRequest() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/123");
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM counted", Integer.class);
+            jdbcTemplate.batchUpdate("INSERT INTO counted (id) VALUES (?)",
+                    List.of(new Object[]{1}, new Object[]{2}));
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/products/{id}");
+        });
+
+        // Then
+        DistributionSummary summary = meterRegistry.get("http.server.requests.sql.statements")
+                .tag("method", "GET")
+                .tag("uri", "/api/products/{id}")
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(2.0, summary.totalAmount());
+    }
+
+    @Test
+    void execute_OutsideRequest_IsNotCounted() {
+        // When
+        Integer one = jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+
+        // Then
+        assertEquals(1, one);
+        assertEquals(0, SqlStatementCounter.stop());
+    }
+}
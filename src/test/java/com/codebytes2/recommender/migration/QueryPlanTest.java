@@ -0,0 +1,147 @@
+package com.codebytes2.recommender.migration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+/**
+ * Runs the Flyway migrations on a real PostgreSQL and checks with {@code EXPLAIN} that the SQL of
+ * each repository query can be answered without a sequential scan of a large table. Sequential
+ * scans are disabled for the session, so the planner only falls back to one when no index fits.
+ * Needs Docker; the test is skipped without it.
+ * <p>
+ * The statements have the shape Hibernate generates for the repository methods named in each case.
+ * Queries that read a whole table on purpose ({@code RatingRepository.streamAllEntries}) are left out.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanTest {
+
+    private static final Set<String> LARGE_TABLES = Set.of("ratings", "products", "product_tags",
+            "recommendations", "recommended_products", "tournaments", "tournament_registrations", "users");
+
+    private static final String ID = "'a0eebc99-9c0b-4ef8-bb6d-6bb9bd380a11'";
+    private static final String NOW = "TIMESTAMPTZ '2025-06-01 00:00:00+00'";
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15");
+
+    @BeforeAll
+    static void migrate() {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .load()
+                .migrate();
+    }
+
+    static Stream<Arguments> repositoryQueries() {
+        return Stream.of(
+                // RatingRepository
+                arguments("findByUserEntityId", "SELECT r.*, p.*, t.* FROM ratings r " +
+                        "JOIN products p ON p.id = r.product_id LEFT JOIN product_tags t ON t.product_id = p.id " +
+                        "WHERE r.user_id = " + ID),
+                arguments("findByProductId", "SELECT * FROM ratings r WHERE r.product_id = " + ID),
+                arguments("existsByUserEntityIdAndProductId", "SELECT r.id FROM ratings r " +
+                        "WHERE r.user_id = " + ID + " AND r.product_id = " + ID + " FETCH FIRST 1 ROWS ONLY"),
+                arguments("countByProductId", "SELECT count(r.id) FROM ratings r WHERE r.product_id = " + ID),
+                arguments("existsByUserEntityIdAndInsertedAtAfter", "SELECT r.id FROM ratings r " +
+                        "WHERE r.user_id = " + ID + " AND r.inserted_at > " + NOW + " FETCH FIRST 1 ROWS ONLY"),
+
+                // RecommendationRepository
+                arguments("findByUserId", "SELECT * FROM recommendations r WHERE r.user_id = " + ID),
+                arguments("findTopByUserIdOrderByComputedAtDesc", "SELECT * FROM recommendations r " +
+                        "WHERE r.user_id = " + ID + " ORDER BY r.computed_at DESC FETCH FIRST 1 ROWS ONLY"),
+                arguments("Recommendation.items", "SELECT * FROM recommended_products i " +
+                        "WHERE i.recommendation_result_id = " + ID + " ORDER BY i.position"),
+
+                // TournamentRepository, with the default sort of the listings
+                arguments("findByStatus", "SELECT * FROM tournaments t WHERE t.status = 'OPEN' " +
+                        "ORDER BY t.start_date OFFSET 0 ROWS FETCH FIRST 20 ROWS ONLY"),
+                arguments("findAll", "SELECT * FROM tournaments t " +
+                        "ORDER BY t.start_date OFFSET 0 ROWS FETCH FIRST 20 ROWS ONLY"),
+                arguments("findByGameContainingIgnoreCase", "SELECT * FROM tournaments t " +
+                        "WHERE lower(t.game) LIKE lower('%valorant%') ESCAPE '\\' ORDER BY t.start_date FETCH FIRST 20 ROWS ONLY"),
+                arguments("findByStatusAndGameContainingIgnoreCase", "SELECT * FROM tournaments t " +
+                        "WHERE t.status = 'OPEN' AND lower(t.game) LIKE lower('%valorant%') ESCAPE '\\' " +
+                        "ORDER BY t.start_date FETCH FIRST 20 ROWS ONLY"),
+                arguments("findByNameContainingIgnoreCaseOrGameContainingIgnoreCase", "SELECT * FROM tournaments t " +
+                        "WHERE lower(t.name) LIKE lower('%latam%') ESCAPE '\\' " +
+                        "OR lower(t.game) LIKE lower('%latam%') ESCAPE '\\' " +
+                        "ORDER BY t.start_date FETCH FIRST 20 ROWS ONLY"),
+                arguments("findOpeningsAfter", "SELECT t.id, t.registration_open_at FROM tournaments t " +
+                        "WHERE t.status = 'UPCOMING' AND (t.registration_open_at > " + NOW +
+                        " OR (t.registration_open_at = " + NOW + " AND t.id > " + ID + ")) " +
+                        "ORDER BY t.registration_open_at, t.id FETCH FIRST 1000 ROWS ONLY"),
+                arguments("findClosingsAfter", "SELECT t.id, t.registration_close_at FROM tournaments t " +
+                        "WHERE t.registration_close_at > " + NOW +
+                        " OR (t.registration_close_at = " + NOW + " AND t.id > " + ID + ") " +
+                        "ORDER BY t.registration_close_at, t.id FETCH FIRST 1000 ROWS ONLY"),
+                arguments("findIdsAfter", "SELECT t.id FROM tournaments t WHERE t.id > " + ID +
+                        " ORDER BY t.id FETCH FIRST 500 ROWS ONLY"),
+                arguments("findIdsWithOverdueStatus", "SELECT t.id FROM tournaments t " +
+                        "WHERE (t.status = 'UPCOMING' AND t.registration_open_at <= " + NOW + ") " +
+                        "OR (t.status <> 'CLOSED' AND t.registration_close_at <= " + NOW + ")"),
+
+                // TournamentRegistrationRepository
+                arguments("existsByTournamentIdAndUserEntityId", "SELECT tr.id FROM tournament_registrations tr " +
+                        "WHERE tr.tournament_id = " + ID + " AND tr.user_id = " + ID + " FETCH FIRST 1 ROWS ONLY"),
+                arguments("countActiveRegistrations", "SELECT count(tr.id) FROM tournament_registrations tr " +
+                        "WHERE tr.tournament_id = " + ID + " AND tr.status IN ('REGISTERED', 'CONFIRMED')"),
+                arguments("findWaitlistIds", "SELECT tr.id FROM tournament_registrations tr " +
+                        "WHERE tr.tournament_id = " + ID + " AND tr.status = 'WAITLISTED' " +
+                        "ORDER BY tr.registered_at, tr.id FETCH FIRST 10 ROWS ONLY"),
+
+                // ProductRepository and the tag lookups
+                arguments("findMostPopularIds", "SELECT p.id FROM products p " +
+                        "ORDER BY p.popularity_score DESC FETCH FIRST 50 ROWS ONLY"),
+                arguments("findByNameContainingIgnoreCase", "SELECT * FROM products p " +
+                        "WHERE lower(p.name) LIKE lower('%teclado%') ESCAPE '\\' ORDER BY p.name FETCH FIRST 20 ROWS ONLY"),
+                arguments("product_tags by tag", "SELECT t.product_id FROM product_tags t WHERE t.tag = 'gaming'")
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void repositoryQuery_DoesNotScanLargeTables(String query, String sql) throws SQLException {
+        List<String> plan = explain(sql);
+
+        for (String line : plan) {
+            for (String table : LARGE_TABLES) {
+                assertFalse(line.contains("Seq Scan on " + table + " "),
+                        () -> query + " recorre " + table + " secuencialmente:\n" + String.join("\n", plan));
+            }
+        }
+    }
+
+    private static List<String> explain(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+            List<String> plan = new ArrayList<>();
+            try (ResultSet rows = statement.executeQuery("EXPLAIN " + sql)) {
+                while (rows.next()) {
+                    plan.add(rows.getString(1));
+                }
+            }
+            return plan;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.codebytes2.recommender.model.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7Test {
+
+    @Test
+    void next_HasVersion7AndCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7.next();
+        long after = System.currentTimeMillis();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        long millis = id.getMostSignificantBits() >>> 16;
+        assertTrue(millis >= before && millis <= after + 1, () -> "timestamp " + millis);
+    }
+
+    @Test
+    void next_IsStrictlyIncreasingWithinTheSameMillisecond() {
+        Set<UUID> ids = new HashSet<>();
+        UUID previous = UuidV7.next();
+        for (int i = 0; i < 100_000; i++) {
+            UUID id = UuidV7.next();
+            // The most significant bits are positive until the year 6429, so the signed order is the byte order
+            assertTrue(id.compareTo(previous) > 0);
+            ids.add(id);
+            previous = id;
+        }
+        assertEquals(100_000, ids.size());
+    }
+}
@@ -6,8 +6,11 @@ import com.codebytes2.recommender.config.security.SecurityConfig;
 import com.codebytes2.recommender.controller.ProductController;
 import com.codebytes2.recommender.dto.request.ProductCreateRequest;
 import com.codebytes2.recommender.dto.request.ProductUpdateRequest;
+import com.codebytes2.recommender.dto.response.CursorSliceDto;
 import com.codebytes2.recommender.dto.response.ProductDetailDto;
+import com.codebytes2.recommender.dto.response.ProductImportResultDto;
 import com.codebytes2.recommender.dto.response.ProductSummaryDto;
+import com.codebytes2.recommender.service.ProductCatalogService;
 import com.codebytes2.recommender.service.ProductService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,13 +21,16 @@ import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithAnonymousUser;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.security.test.context.support.WithSecurityContext;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.time.Instant;
@@ -33,9 +39,12 @@ import java.util.Set;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.verify;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -53,6 +62,9 @@ class ProductControllerTest {
     @MockitoBean
     private ProductService productService;
 
+    @MockitoBean
+    private ProductCatalogService productCatalogService;
+
     @MockitoBean
     private JwtService jwtService;
 
@@ -183,6 +195,69 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.totalElements").value(1));
     }
 
+    @Test
+    @WithMockUser
+    void searchProducts_WithoutSort_SortsByName() throws Exception {
+        given(productService.searchProducts(eq("Test"), any(Pageable.class))).willReturn(Page.empty());
+
+        mockMvc.perform(get("/api/products/search")
+                        .param("name", "Test"))
+                .andExpect(status().isOk());
+
+        verify(productService).searchProducts(eq("Test"), argThat(pageable -> pageable.getSort().equals(Sort.by("name"))));
+    }
+
+    @Test
+    @WithMockUser
+    void searchProducts_SortByRelevance_IsPassedThrough() throws Exception {
+        given(productService.searchProducts(eq("Test"), any(Pageable.class))).willReturn(Page.empty());
+
+        mockMvc.perform(get("/api/products/search")
+                        .param("name", "Test")
+                        .param("sort", "relevance"))
+                .andExpect(status().isOk());
+
+        verify(productService).searchProducts(eq("Test"), argThat(pageable -> pageable.getSort().equals(Sort.by("relevance"))));
+    }
+
+    @Test
+    @WithMockUser
+    void getAllProducts_WithCursor_ReturnsSliceWithoutTotals() throws Exception {
+        CursorSliceDto<ProductSummaryDto> slice = CursorSliceDto.<ProductSummaryDto>builder()
+                .content(List.of(productSummaryDto))
+                .size(1)
+                .hasNext(true)
+                .nextCursor("next")
+                .build();
+        given(productService.getAllProducts(eq("abc"), any(Pageable.class))).willReturn(slice);
+
+        mockMvc.perform(get("/api/products")
+                        .param("after", "abc")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(productSummaryDto.getId().toString()))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser
+    void searchProducts_WithEmptyCursor_StartsCursorMode() throws Exception {
+        CursorSliceDto<ProductSummaryDto> slice = CursorSliceDto.<ProductSummaryDto>builder()
+                .content(List.of(productSummaryDto))
+                .size(1)
+                .build();
+        given(productService.searchProducts(eq("Test"), eq(""), any(Pageable.class))).willReturn(slice);
+
+        mockMvc.perform(get("/api/products/search")
+                        .param("name", "Test")
+                        .param("after", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("Test Product"))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
     @Test
     @WithUserEntity(roles = {"ADMIN"})
     void updateProduct_AsAdmin_ReturnsOk() throws Exception {
@@ -257,4 +332,47 @@ class ProductControllerTest {
                         .content(objectMapper.writeValueAsString(invalidRequest)))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithUserEntity(roles = {"ADMIN"})
+    void importProducts_AsAdmin_ReturnsImportResult() throws Exception {
+        given(productCatalogService.importProducts(any())).willReturn(ProductImportResultDto.builder()
+                .received(1)
+                .imported(1)
+                .errors(List.of())
+                .build());
+
+        mockMvc.perform(post("/api/products/bulk")
+                        .with(csrf())
+                        .contentType("application/x-ndjson")
+                        .content("{\"name\": \"Test Product\", \"tags\": [\"tag1\"]}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+    }
+
+    @Test
+    @WithUserEntity(roles = {"ADMIN"})
+    void exportProducts_AsAdmin_StreamsNdjson() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"name\":\"Test Product\"}\n".getBytes());
+            return null;
+        }).when(productCatalogService).exportProducts(any());
+
+        MvcResult result = mockMvc.perform(get("/api/products/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"name\":\"Test Product\"}\n"));
+    }
+
+    @Test
+    @WithUserEntity(roles = {"PLAYER"})
+    void exportProducts_AsPlayer_ReturnsForbidden() throws Exception {
+        mockMvc.perform(get("/api/products/export"))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,151 @@
+package com.codebytes2.recommender.product.service;
+
+import com.codebytes2.recommender.backend.TournamentStatus;
+import com.codebytes2.recommender.dto.response.CursorSliceDto;
+import com.codebytes2.recommender.dto.response.ProductSummaryDto;
+import com.codebytes2.recommender.dto.response.TournamentSummaryDto;
+import com.codebytes2.recommender.model.Product;
+import com.codebytes2.recommender.model.Tournament;
+import com.codebytes2.recommender.repository.ProductRepository;
+import com.codebytes2.recommender.repository.TournamentRepository;
+import com.codebytes2.recommender.service.ProductService;
+import com.codebytes2.recommender.service.TournamentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Walks listings slice by slice through the cursor and checks that every row comes exactly once,
+ * in order, including rows that share the same sort value.
+ */
+@SpringBootTest
+class KeysetPaginationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TournamentService tournamentService;
+
+    @Autowired
+    private TournamentRepository tournamentRepository;
+
+    @Test
+    void searchProducts_WithCursor_ReturnsEveryProductOnceInOrder() {
+        // Given: seven products, several with the same name so the id has to break the tie
+        String token = "keyset-" + UUID.randomUUID().toString().substring(0, 8);
+        for (String suffix : List.of("c", "a", "b", "a", "c", "a", "d")) {
+            Product product = new Product();
+            product.setName(token + " " + suffix);
+            productRepository.save(product);
+        }
+        PageRequest pageable = PageRequest.of(0, 3, Sort.by("name"));
+
+        // When
+        List<ProductSummaryDto> products = new ArrayList<>();
+        int slices = 0;
+        String after = "";
+        CursorSliceDto<ProductSummaryDto> slice;
+        do {
+            slice = productService.searchProducts(token, after, pageable);
+            products.addAll(slice.getContent());
+            after = slice.getNextCursor();
+            slices++;
+        } while (slice.isHasNext());
+
+        // Then
+        assertEquals(3, slices);
+        assertNull(slice.getNextCursor());
+        assertEquals(7, products.size());
+        Set<UUID> ids = new HashSet<>();
+        products.forEach(product -> ids.add(product.getId()));
+        assertEquals(7, ids.size());
+        for (int i = 1; i < products.size(); i++) {
+            assertTrue(products.get(i - 1).getName().compareTo(products.get(i).getName()) <= 0);
+        }
+    }
+
+    @Test
+    void searchProducts_CursorFromAnotherSort_IsRejected() {
+        String token = "keyset-" + UUID.randomUUID().toString().substring(0, 8);
+        for (int i = 0; i < 3; i++) {
+            Product product = new Product();
+            product.setName(token + " " + i);
+            productRepository.save(product);
+        }
+        String cursor = productService.searchProducts(token, "", PageRequest.of(0, 1, Sort.by("name")))
+                .getNextCursor();
+
+        assertThrows(IllegalArgumentException.class, () ->
+                productService.searchProducts(token, cursor, PageRequest.of(0, 1, Sort.by("createdAt"))));
+        assertThrows(IllegalArgumentException.class, () ->
+                productService.searchProducts(token, "not-a-cursor", PageRequest.of(0, 1, Sort.by("name"))));
+    }
+
+    @Test
+    void searchProducts_WithCursor_MatchesWildcardCharactersLiterally() {
+        // Given: names that a pattern with an unescaped % or _ would also match
+        String token = "keyset-" + UUID.randomUUID().toString().substring(0, 8);
+        for (String suffix : List.of("50% off", "50x off", "a_b", "axb")) {
+            Product product = new Product();
+            product.setName(token + " " + suffix);
+            productRepository.save(product);
+        }
+        PageRequest pageable = PageRequest.of(0, 10, Sort.by("name"));
+
+        // When
+        List<ProductSummaryDto> percent = productService.searchProducts(token + " 50%", "", pageable).getContent();
+        List<ProductSummaryDto> underscore = productService.searchProducts(token + " a_", "", pageable).getContent();
+
+        // Then
+        assertEquals(List.of(token + " 50% off"), percent.stream().map(ProductSummaryDto::getName).toList());
+        assertEquals(List.of(token + " a_b"), underscore.stream().map(ProductSummaryDto::getName).toList());
+    }
+
+    @Test
+    void getAllTournaments_WithCursorAndFilters_WalksMatchingTournaments() {
+        // Given: five open tournaments of one game, sorted by start date descending
+        String game = "keyset-" + UUID.randomUUID().toString().substring(0, 8);
+        Instant now = Instant.now();
+        for (int i = 0; i < 5; i++) {
+            tournamentRepository.save(Tournament.builder()
+                    .name("Cup " + i)
+                    .game(game)
+                    .registrationOpenAt(now.minus(1, ChronoUnit.HOURS))
+                    .registrationCloseAt(now.plus(1, ChronoUnit.DAYS))
+                    .startDate(now.plus(2 + i, ChronoUnit.DAYS))
+                    .endDate(now.plus(10, ChronoUnit.DAYS))
+                    .status(TournamentStatus.OPEN)
+                    .build());
+        }
+        PageRequest pageable = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "startDate"));
+
+        // When
+        List<String> names = new ArrayList<>();
+        String after = "";
+        CursorSliceDto<TournamentSummaryDto> slice;
+        do {
+            slice = tournamentService.getAllTournaments(after, pageable, TournamentStatus.OPEN, game, null);
+            slice.getContent().forEach(tournament -> names.add(tournament.getName()));
+            after = slice.getNextCursor();
+        } while (slice.isHasNext());
+
+        // Then
+        assertEquals(List.of("Cup 4", "Cup 3", "Cup 2", "Cup 1", "Cup 0"), names);
+    }
+}
@@ -0,0 +1,88 @@
+package com.codebytes2.recommender.product.service;
+
+import com.codebytes2.recommender.backend.TournamentStatus;
+import com.codebytes2.recommender.model.Product;
+import com.codebytes2.recommender.model.Tournament;
+import com.codebytes2.recommender.repository.ProductRepository;
+import com.codebytes2.recommender.repository.TournamentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the repository name and game searches with text containing LIKE wildcards, which must
+ * match only themselves.
+ */
+@SpringBootTest
+class LiteralSearchTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TournamentRepository tournamentRepository;
+
+    private final Pageable pageable = PageRequest.of(0, 10);
+
+    @Test
+    void findByNameContainingIgnoreCase_PercentAndUnderscore_MatchLiterally() {
+        // Given
+        String token = "literal-" + UUID.randomUUID().toString().substring(0, 8);
+        for (String suffix : List.of("50% off", "50x off", "a_b", "axb", "c\\d", "cd")) {
+            Product product = new Product();
+            product.setName(token + " " + suffix);
+            productRepository.save(product);
+        }
+
+        // Then
+        assertEquals(List.of(token + " 50% off"), productNames(token + " 50%"));
+        assertEquals(List.of(token + " a_b"), productNames(token + " A_"));
+        assertEquals(List.of(token + " c\\d"), productNames(token + " c\\"));
+    }
+
+    @Test
+    void tournamentGameSearches_PercentAndUnderscore_MatchLiterally() {
+        // Given
+        String token = "literal-" + UUID.randomUUID().toString().substring(0, 8);
+        Tournament percent = save("Cup", token + " 100%");
+        save("Cup", token + " 1000");
+        Tournament underscore = save(token + " x_y", "Game");
+        save(token + " xzy", "Game");
+
+        // Then
+        assertEquals(List.of(percent.getId()), tournamentRepository
+                .findByGameContainingIgnoreCase(token + " 100%", pageable).map(Tournament::getId).getContent());
+        assertEquals(List.of(percent.getId()), tournamentRepository
+                .findByStatusAndGameContainingIgnoreCase(TournamentStatus.OPEN, token + " 100%", pageable)
+                .map(Tournament::getId).getContent());
+        assertEquals(List.of(underscore.getId()), tournamentRepository
+                .findByNameContainingIgnoreCaseOrGameContainingIgnoreCase(token + " x_", pageable)
+                .map(Tournament::getId).getContent());
+    }
+
+    private List<String> productNames(String name) {
+        return productRepository.findByNameContainingIgnoreCase(name, pageable).map(Product::getName).getContent();
+    }
+
+    private Tournament save(String name, String game) {
+        Instant now = Instant.now();
+        return tournamentRepository.save(Tournament.builder()
+                .name(name)
+                .game(game)
+                .registrationOpenAt(now.minus(1, ChronoUnit.HOURS))
+                .registrationCloseAt(now.plus(1, ChronoUnit.DAYS))
+                .startDate(now.plus(2, ChronoUnit.DAYS))
+                .endDate(now.plus(3, ChronoUnit.DAYS))
+                .status(TournamentStatus.OPEN)
+                .build());
+    }
+}
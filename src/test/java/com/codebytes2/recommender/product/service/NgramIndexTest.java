@@ -0,0 +1,79 @@
+package com.codebytes2.recommender.product.service;
+
+import com.codebytes2.recommender.service.search.NgramIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NgramIndexTest {
+
+    private final NgramIndex index = new NgramIndex();
+
+    @Test
+    void search_ReturnsSubstringMatchesOnly() {
+        UUID counterStrike = UUID.randomUUID();
+        UUID strikeForce = UUID.randomUUID();
+        UUID valorant = UUID.randomUUID();
+        index.put(counterStrike, "Counter-Strike 2");
+        index.put(strikeForce, "Strike Force Heroes");
+        index.put(valorant, "Valorant");
+
+        List<UUID> result = index.search("STRIKE");
+
+        assertEquals(2, result.size());
+        assertTrue(result.containsAll(List.of(counterStrike, strikeForce)));
+        // Shares trigrams with "strike" but does not contain it
+        assertTrue(index.search("strikes").isEmpty());
+    }
+
+    @Test
+    void search_RanksCloserNamesFirst() {
+        UUID exact = UUID.randomUUID();
+        UUID longer = UUID.randomUUID();
+        UUID longest = UUID.randomUUID();
+        index.put(longest, "Rocket League Championship Series Collector Edition");
+        index.put(exact, "Rocket League");
+        index.put(longer, "Rocket League Ultimate");
+
+        assertEquals(List.of(exact, longer, longest), index.search("rocket league"));
+    }
+
+    @Test
+    void search_ScoresTheBestMatchingField() {
+        UUID byGame = UUID.randomUUID();
+        UUID byName = UUID.randomUUID();
+        index.put(byGame, "Copa de verano de esports", "Valorant");
+        index.put(byName, "Valorant Masters Latinoamérica", "Shooter táctico");
+
+        assertEquals(List.of(byGame, byName), index.search("valorant"));
+    }
+
+    @Test
+    void search_ShortQuery_ScansEveryDocument() {
+        UUID fifa = UUID.randomUUID();
+        UUID dota = UUID.randomUUID();
+        index.put(fifa, "FIFA 24");
+        index.put(dota, "Dota 2");
+
+        assertEquals(List.of(fifa), index.search("fi"));
+        assertEquals(2, index.search("a").size());
+    }
+
+    @Test
+    void put_ReplacesPreviousVersion_AndRemoveForgetsDocument() {
+        UUID id = UUID.randomUUID();
+        index.put(id, "Old name");
+        index.put(id, "New name");
+
+        assertTrue(index.search("old").isEmpty());
+        assertEquals(List.of(id), index.search("new"));
+
+        index.remove(id);
+
+        assertTrue(index.search("name").isEmpty());
+        assertEquals(0, index.size());
+    }
+}
@@ -0,0 +1,120 @@
+package com.codebytes2.recommender.product.service;
+
+import com.codebytes2.recommender.dto.response.ProductDetailDto;
+import com.codebytes2.recommender.dto.response.ProductImportResultDto;
+import com.codebytes2.recommender.model.Product;
+import com.codebytes2.recommender.repository.ProductRepository;
+import com.codebytes2.recommender.service.ProductCatalogService;
+import com.codebytes2.recommender.service.index.ProductTagIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Imports and exports against the test database. Products and tags are written with JDBC, so they
+ * are read back through the repository.
+ */
+@SpringBootTest(properties = "product.bulk-import.batch-size=2")
+class ProductCatalogServiceImplTest {
+
+    @Autowired
+    private ProductCatalogService productCatalogService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductTagIndex productTagIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void importProducts_SavesProductsWithTagsAndSkipsExistingIds() {
+        // Given: one product already in the catalog
+        Product existing = new Product();
+        existing.setName("catalog-existing");
+        existing = productRepository.save(existing);
+        String tag = "catalog-" + UUID.randomUUID().toString().substring(0, 8);
+        UUID id = UUID.randomUUID();
+
+        String body = """
+                {"id": "%1$s", "name": "catalog-a", "category": "FPS", "tags": ["%3$s", "shooter"], "popularityScore": 7}
+
+                {"name": "catalog-b", "tags": ["%3$s"]}
+                {"id": "%1$s", "name": "catalog-a again"}
+                {"id": "%2$s", "name": "catalog-existing"}
+                {"name": ""}
+                {"name": "catalog-c", "tags": ["%3$s"
+                """.formatted(id, existing.getId(), tag);
+
+        // When
+        ProductImportResultDto result = productCatalogService.importProducts(stream(body));
+
+        // Then
+        assertEquals(6, result.getReceived());
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getDuplicates());
+        assertEquals(2, result.getRejected());
+        assertEquals(List.of(6L, 7L), result.getErrors().stream().map(error -> error.getLine()).toList());
+
+        Product imported = transactionTemplate.execute(status -> {
+            Product product = productRepository.findById(id).orElseThrow();
+            product.getTags().size();
+            return product;
+        });
+        assertEquals("catalog-a", imported.getName());
+        assertEquals(Set.of(tag, "shooter"), imported.getTags());
+        assertEquals(7L, imported.getPopularityScore());
+        assertNotNull(imported.getCreatedAt());
+        assertEquals(2, productTagIndex.findCandidates(List.of(tag)).size());
+    }
+
+    @Test
+    void exportProducts_WritesEveryProductOnceWithItsTags() throws Exception {
+        String token = "export-" + UUID.randomUUID().toString().substring(0, 8);
+        String body = """
+                {"name": "%1$s 1", "tags": ["a", "b", "c"]}
+                {"name": "%1$s 2"}
+                """.formatted(token);
+        productCatalogService.importProducts(stream(body));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        productCatalogService.exportProducts(out);
+
+        List<ProductDetailDto> exported = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            ProductDetailDto product = objectMapper.readValue(line, ProductDetailDto.class);
+            if (product.getName().startsWith(token)) {
+                exported.add(product);
+            }
+        }
+        assertEquals(2, exported.size());
+        ProductDetailDto tagged = exported.stream()
+                .filter(product -> product.getName().endsWith("1"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(Set.of("a", "b", "c"), tagged.getTags());
+        assertNotNull(tagged.getId());
+        assertNotNull(tagged.getCreatedAt());
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -6,8 +6,13 @@ import com.codebytes2.recommender.dto.response.ProductDetailDto;
 import com.codebytes2.recommender.dto.response.ProductSummaryDto;
 import com.codebytes2.recommender.mapper.ProductMapper;
 import com.codebytes2.recommender.model.Product;
+import com.codebytes2.recommender.repository.ProductRatingStatsRepository;
 import com.codebytes2.recommender.repository.ProductRepository;
+import com.codebytes2.recommender.repository.RatingRepository;
+import com.codebytes2.recommender.service.event.ProductChangedEvent;
+import com.codebytes2.recommender.service.index.ProductTagIndex;
 import com.codebytes2.recommender.service.impl.ProductServiceImpl;
+import com.codebytes2.recommender.service.search.TextSearch;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,10 +20,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -36,6 +45,21 @@ public class ProductServiceImplTest {
     @Mock
     private ProductMapper productMapper;
 
+    @Mock
+    private RatingRepository ratingRepository;
+
+    @Mock
+    private ProductRatingStatsRepository productRatingStatsRepository;
+
+    @Mock
+    private ProductTagIndex productTagIndex;
+
+    @Mock
+    private TextSearch textSearch;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -78,6 +102,7 @@ public class ProductServiceImplTest {
         assertNotNull(result);
         assertEquals(detailDto.getId(), result.getId());
         verify(productRepository, times(1)).save(any(Product.class));
+        verify(productRatingStatsRepository).createEmpty(eq(product.getId()), any(Instant.class));
     }
 
     @Test
@@ -128,6 +153,8 @@ public class ProductServiceImplTest {
         assertNotNull(result);
         verify(productMapper, times(1)).updateFromRequest(updateRequest, product);
         verify(productRepository, times(1)).save(product);
+        verify(productTagIndex).index(product);
+        verify(eventPublisher).publishEvent(new ProductChangedEvent(product.getId()));
     }
 
     @Test
@@ -150,6 +177,8 @@ public class ProductServiceImplTest {
         });
 
         verify(productRepository, times(1)).delete(product);
+        verify(productTagIndex).remove(product.getId());
+        verify(eventPublisher).publishEvent(new ProductChangedEvent(product.getId()));
     }
 
     @Test
@@ -194,4 +223,32 @@ public class ProductServiceImplTest {
         assertEquals(1, result.getTotalElements());
         verify(productRepository, times(1)).findAll(pageable);
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchProducts_SortedByRelevance_KeepsRankingOrder() {
+        // Given: the search ranks the second product first
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("relevance"));
+        Product other = new Product();
+        other.setId(UUID.randomUUID());
+        other.setName("Test");
+        when(textSearch.searchProducts("Test", pageable))
+                .thenReturn(new PageImpl<>(List.of(other.getId(), product.getId()), pageable, 2));
+        when(productRepository.findAllById(List.of(other.getId(), product.getId())))
+                .thenReturn(List.of(product, other));
+        when(productMapper.toSummaryDto(any(Product.class))).thenAnswer(invocation -> {
+            Product source = invocation.getArgument(0);
+            ProductSummaryDto summary = new ProductSummaryDto();
+            summary.setId(source.getId());
+            return summary;
+        });
+
+        // When
+        Page<ProductSummaryDto> result = productService.searchProducts("Test", pageable);
+
+        // Then
+        assertEquals(List.of(other.getId(), product.getId()),
+                result.getContent().stream().map(ProductSummaryDto::getId).toList());
+        assertEquals(2, result.getTotalElements());
+        verify(productRepository, never()).findByNameContainingIgnoreCase(any(), any());
+    }
+}
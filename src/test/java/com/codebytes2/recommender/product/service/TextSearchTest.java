@@ -0,0 +1,63 @@
+package com.codebytes2.recommender.product.service;
+
+import com.codebytes2.recommender.dto.request.ProductCreateRequest;
+import com.codebytes2.recommender.dto.response.ProductDetailDto;
+import com.codebytes2.recommender.dto.response.ProductSummaryDto;
+import com.codebytes2.recommender.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Product search ranked by relevance through the service, on H2 with the in-memory trigram index.
+ */
+@SpringBootTest
+class TextSearchTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void searchProducts_ByRelevance_RanksAndFollowsWrites() {
+        // Given
+        String token = "trgm" + UUID.randomUUID().toString().substring(0, 8);
+        ProductDetailDto longest = create(token + " Deluxe Collector Bundle");
+        ProductDetailDto exact = create(token);
+        ProductDetailDto longer = create(token + " Deluxe");
+        PageRequest byRelevance = PageRequest.of(0, 2, Sort.by("relevance"));
+
+        // When
+        Page<ProductSummaryDto> first = productService.searchProducts(token.toUpperCase(), byRelevance);
+        Page<ProductSummaryDto> second = productService.searchProducts(token, byRelevance.next());
+
+        // Then
+        assertEquals(3, first.getTotalElements());
+        assertEquals(List.of(exact.getId(), longer.getId()), ids(first));
+        assertEquals(List.of(longest.getId()), ids(second));
+
+        // When: a deleted product leaves the results
+        productService.deleteProduct(exact.getId());
+
+        // Then
+        assertEquals(List.of(longer.getId(), longest.getId()),
+                ids(productService.searchProducts(token, PageRequest.of(0, 10, Sort.by("relevance")))));
+    }
+
+    private ProductDetailDto create(String name) {
+        ProductCreateRequest request = new ProductCreateRequest();
+        request.setName(name);
+        return productService.createProduct(request);
+    }
+
+    private static List<UUID> ids(Page<ProductSummaryDto> page) {
+        return page.getContent().stream().map(ProductSummaryDto::getId).toList();
+    }
+}
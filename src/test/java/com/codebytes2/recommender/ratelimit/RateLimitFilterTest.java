@@ -0,0 +1,113 @@
+package com.codebytes2.recommender.ratelimit;
+
+import com.codebytes2.recommender.auth.commons.models.entity.UserEntity;
+import com.codebytes2.recommender.config.security.RateLimitFilter;
+import com.codebytes2.recommender.config.security.RateLimitProperties;
+import com.codebytes2.recommender.config.security.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+    private final AtomicInteger passed = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setCapacity(10);
+        properties.setRefillPerSecond(1);
+        RateLimitProperties.Route recommendations = new RateLimitProperties.Route();
+        recommendations.setMethod("GET");
+        recommendations.setPath("/api/recommendations/{userId}");
+        recommendations.setCost(5);
+        RateLimitProperties.Route health = new RateLimitProperties.Route();
+        health.setPath("/actuator/**");
+        health.setCost(0);
+        properties.setRoutes(List.of(recommendations, health));
+
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(properties,
+                new TokenBucketRateLimiter(properties.getCapacity(), properties.getRefillPerSecond()), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_ExpensiveRouteOverBudget_Returns429WithRetryAfter() throws Exception {
+        // Given
+        authenticate(UUID.randomUUID());
+
+        // When
+        perform("GET", "/api/recommendations/123", "10.0.0.1");
+        perform("GET", "/api/recommendations/123", "10.0.0.1");
+        MockHttpServletResponse rejected = perform("GET", "/api/recommendations/123", "10.0.0.1");
+
+        // Then
+        assertEquals(2, passed.get());
+        assertEquals(429, rejected.getStatus());
+        assertEquals("5", rejected.getHeader("Retry-After"));
+        assertEquals(1, meterRegistry.get("http.server.requests.rate.limited")
+                .tag("route", "/api/recommendations/{userId}")
+                .tag("key", "user")
+                .counter().count());
+    }
+
+    @Test
+    void doFilter_AnonymousRequests_AreLimitedPerIp() throws Exception {
+        // When
+        for (int i = 0; i < 11; i++) {
+            perform("GET", "/api/tournaments", "10.0.0.1");
+        }
+        MockHttpServletResponse otherClient = perform("GET", "/api/tournaments", "10.0.0.2");
+
+        // Then
+        assertEquals(11, passed.get());
+        assertEquals(200, otherClient.getStatus());
+        assertEquals(1, meterRegistry.get("http.server.requests.rate.limited")
+                .tag("route", "default")
+                .tag("key", "ip")
+                .counter().count());
+    }
+
+    @Test
+    void doFilter_ZeroCostRoute_IsNeverLimited() throws Exception {
+        // When
+        for (int i = 0; i < 50; i++) {
+            perform("GET", "/actuator/health", "10.0.0.1");
+        }
+
+        // Then
+        assertEquals(50, passed.get());
+    }
+
+    private void authenticate(UUID userId) {
+        UserEntity user = UserEntity.builder().id(userId).email("a@test.com").username("a").password("x").build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    private MockHttpServletResponse perform(String method, String uri, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> passed.incrementAndGet());
+        return response;
+    }
+}
@@ -0,0 +1,54 @@
+package com.codebytes2.recommender.ratelimit;
+
+import com.codebytes2.recommender.config.security.TokenBucketRateLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    // 10 tokens, one more every 100 ms
+    private final TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(10, 10, nanoTime::get);
+
+    @Test
+    void tryAcquire_AfterBurst_RejectsUntilRefilled() {
+        assertEquals(0, rateLimiter.tryAcquire("ip:1", 4));
+        assertEquals(0, rateLimiter.tryAcquire("ip:1", 6));
+
+        long wait = rateLimiter.tryAcquire("ip:1", 2);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(200), wait);
+
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+        assertEquals(0, rateLimiter.tryAcquire("ip:1", 2));
+    }
+
+    @Test
+    void tryAcquire_KeysHaveSeparateBuckets() {
+        assertEquals(0, rateLimiter.tryAcquire("user:a", 10));
+
+        assertTrue(rateLimiter.tryAcquire("user:a", 1) > 0);
+        assertEquals(0, rateLimiter.tryAcquire("user:b", 1));
+    }
+
+    @Test
+    void tryAcquire_CostAboveCapacity_ChargesFullBucket() {
+        assertEquals(0, rateLimiter.tryAcquire("ip:1", 50));
+        assertTrue(rateLimiter.tryAcquire("ip:1", 1) > 0);
+    }
+
+    @Test
+    void evictFullBuckets_DropsOnlyRefilledBuckets() {
+        rateLimiter.tryAcquire("ip:1", 10);
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        rateLimiter.tryAcquire("ip:2", 10);
+
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        rateLimiter.evictFullBuckets();
+
+        assertEquals(1, rateLimiter.size());
+    }
+}
@@ -4,8 +4,12 @@ package com.codebytes2.recommender.rating.controller;
 import com.codebytes2.recommender.auth.commons.models.entity.UserEntity;
 import com.codebytes2.recommender.controller.RatingController;
 import com.codebytes2.recommender.dto.request.ProductRatingRequest;
+import com.codebytes2.recommender.dto.response.ProductRatingStatsDto;
+import com.codebytes2.recommender.dto.response.ImportErrorDto;
+import com.codebytes2.recommender.dto.response.RatingImportResultDto;
 import com.codebytes2.recommender.dto.response.RatingResponseDto;
 import com.codebytes2.recommender.auth.service.JwtService;
+import com.codebytes2.recommender.service.RatingImportService;
 import com.codebytes2.recommender.service.RatingService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,8 +23,11 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -42,6 +49,9 @@ class RatingControllerTest {
     @MockitoBean
     private RatingService ratingService;
     
+    @MockitoBean
+    private RatingImportService ratingImportService;
+
     @MockitoBean
     private JwtService jwtService;
 
@@ -146,14 +156,18 @@ class RatingControllerTest {
         Double averageRating = 4.2;
         long totalRatings = 5;
 
-        given(ratingService.getAverageRatingByProduct(eq(productId))).willReturn(averageRating);
-        given(ratingService.getRatingCountByProduct(eq(productId))).willReturn(totalRatings);
+        given(ratingService.getRatingStatsByProduct(eq(productId))).willReturn(ProductRatingStatsDto.builder()
+                .averageRating(averageRating)
+                .totalRatings(totalRatings)
+                .distribution(Map.of(1, 0L, 2, 0L, 3, 1L, 4, 2L, 5, 2L))
+                .build());
 
         // Act & Assert
         mockMvc.perform(get("/api/ratings/average/{productId}", productId))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.averageRating").value(averageRating))
-                .andExpect(jsonPath("$.totalRatings").value(totalRatings));
+                .andExpect(jsonPath("$.totalRatings").value(totalRatings))
+                .andExpect(jsonPath("$.distribution.5").value(2));
     }
 
     @Test
@@ -162,8 +176,11 @@ class RatingControllerTest {
         // Arrange
         UUID productId = UUID.randomUUID();
 
-        given(ratingService.getAverageRatingByProduct(eq(productId))).willReturn(null);
-        given(ratingService.getRatingCountByProduct(eq(productId))).willReturn(0L);
+        given(ratingService.getRatingStatsByProduct(eq(productId))).willReturn(ProductRatingStatsDto.builder()
+                .averageRating(0.0)
+                .totalRatings(0L)
+                .distribution(Map.of(1, 0L, 2, 0L, 3, 0L, 4, 0L, 5, 0L))
+                .build());
 
         // Act & Assert
         mockMvc.perform(get("/api/ratings/average/{productId}", productId))
@@ -233,6 +250,28 @@ class RatingControllerTest {
                 .with(csrf()))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    @WithUserEntity(roles = {"ADMIN"})
+    void importRatings_Csv_ReturnsImportResult() throws Exception {
+        // Arrange
+        RatingImportResultDto result = RatingImportResultDto.builder()
+                .received(2)
+                .imported(1)
+                .rejected(1)
+                .errors(List.of(new ImportErrorDto(3, "La puntuación debe estar entre 1 y 5")))
+                .build();
+        given(ratingImportService.importRatings(any(), eq(RatingImportService.Format.CSV))).willReturn(result);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/ratings/bulk")
+                .contentType("text/csv")
+                .content("userId,productId,score\n" + UUID.randomUUID() + "," + UUID.randomUUID() + ",4\n")
+                .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3));
+    }
     
     @WithSecurityContext(factory = WithUserEntitySecurityContextFactory.class)
     @Retention(RetentionPolicy.RUNTIME)
@@ -0,0 +1,195 @@
+package com.codebytes2.recommender.rating.service;
+
+import com.codebytes2.recommender.auth.commons.models.entity.UserEntity;
+import com.codebytes2.recommender.auth.repository.UserEntityRepository;
+import com.codebytes2.recommender.dto.response.RatingImportResultDto;
+import com.codebytes2.recommender.model.Product;
+import com.codebytes2.recommender.model.ProductRatingStats;
+import com.codebytes2.recommender.repository.ProductRatingStatsRepository;
+import com.codebytes2.recommender.repository.ProductRepository;
+import com.codebytes2.recommender.repository.RatingRepository;
+import com.codebytes2.recommender.service.RatingImportService;
+import com.codebytes2.recommender.service.RatingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Imports against the test database: ratings and product aggregates are written with JDBC, so
+ * both are read back through the repositories.
+ */
+@SpringBootTest(properties = "rating.bulk-import.batch-size=2")
+class RatingImportServiceImplTest {
+
+    @Autowired
+    private RatingImportService ratingImportService;
+
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    @Autowired
+    private ProductRatingStatsRepository productRatingStatsRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserEntityRepository userEntityRepository;
+
+    @Test
+    void importRatings_Ndjson_SavesRatingsAndUpdatesStats() {
+        // Given: one product already rated through the API, one never rated
+        List<UUID> users = createUsers(3);
+        UUID rated = createProduct();
+        UUID unrated = createProduct();
+        ratingService.createRatingByUser(users.get(0), rated, 5);
+        Instant startedAt = Instant.now();
+
+        String body = """
+                {"userId": "%1$s", "productId": "%4$s", "score": 3}
+                {"userId": "%2$s", "productId": "%4$s", "score": 1, "createdAt": "2025-06-01T10:00:00Z"}
+
+                {"userId": "%3$s", "productId": "%5$s", "score": 4}
+                {"userId": "%3$s", "productId": "%4$s", "score": 2}
+                """.formatted(users.get(0), users.get(1), users.get(2), rated, unrated);
+
+        // When
+        RatingImportResultDto result = ratingImportService.importRatings(stream(body), RatingImportService.Format.NDJSON);
+
+        // Then: the first line repeats the rating saved through the API
+        assertEquals(4, result.getReceived());
+        assertEquals(3, result.getImported());
+        assertEquals(1, result.getDuplicates());
+        assertEquals(0, result.getRejected());
+        assertTrue(result.getErrors().isEmpty());
+        assertEquals(3, ratingRepository.countByProductId(rated));
+        assertTrue(ratingRepository.existsByUserEntityIdAndProductId(users.get(2), unrated));
+
+        ProductRatingStats ratedStats = productRatingStatsRepository.findById(rated).orElseThrow();
+        assertEquals(3, ratedStats.getRatingCount());
+        assertEquals(8, ratedStats.getRatingSum());
+        assertEquals(1, ratedStats.getOneStarCount());
+        assertEquals(1, ratedStats.getTwoStarCount());
+        assertEquals(1, ratedStats.getFiveStarCount());
+
+        ProductRatingStats unratedStats = productRatingStatsRepository.findById(unrated).orElseThrow();
+        assertEquals(1, unratedStats.getRatingCount());
+        assertEquals(1, unratedStats.getFourStarCount());
+
+        // A rating imported with a past createdAt still counts as new for stored recommendations
+        assertTrue(ratingRepository.existsByUserEntityIdAndInsertedAtAfter(users.get(1), startedAt));
+    }
+
+    @Test
+    void importRatings_PairRepeatedInLaterChunk_CountedAsDuplicateOnce() {
+        // Given: with chunks of two, the repeated pair lands in the second chunk
+        List<UUID> users = createUsers(2);
+        UUID product = createProduct();
+        String body = """
+                %1$s,%3$s,5
+                %2$s,%3$s,4
+                %1$s,%3$s,1
+                """.formatted(users.get(0), users.get(1), product);
+
+        // When
+        RatingImportResultDto result = ratingImportService.importRatings(stream(body), RatingImportService.Format.CSV);
+
+        // Then: the insert skips it, and neither the chunk nor the aggregate is affected
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getDuplicates());
+        assertEquals(0, result.getRejected());
+        ProductRatingStats stats = productRatingStatsRepository.findById(product).orElseThrow();
+        assertEquals(2, stats.getRatingCount());
+        assertEquals(9, stats.getRatingSum());
+    }
+
+    @Test
+    void importRatings_CsvWithInvalidLines_ReportsThemByLine() {
+        List<UUID> users = createUsers(2);
+        UUID product = createProduct();
+        UUID unknown = UUID.randomUUID();
+
+        String body = """
+                userId,productId,score,createdAt
+                %1$s,%3$s,5,2025-06-01T10:00:00Z
+                %1$s,%3$s,4,
+                %2$s,%3$s,9
+                %2$s,%4$s,3
+                not-a-uuid,%3$s,3
+                %2$s,%3$s,2
+                """.formatted(users.get(0), users.get(1), product, unknown);
+
+        RatingImportResultDto result = ratingImportService.importRatings(stream(body), RatingImportService.Format.CSV);
+
+        // The header is not counted; the second rating of the same pair in the file is a duplicate
+        assertEquals(6, result.getReceived());
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getDuplicates());
+        assertEquals(3, result.getRejected());
+        assertEquals(List.of(4L, 5L, 6L), result.getErrors().stream().map(error -> error.getLine()).toList());
+        assertTrue(result.getErrors().get(1).getMessage().contains(unknown.toString()));
+        assertEquals(2, ratingRepository.countByProductId(product));
+        assertEquals(7, productRatingStatsRepository.findById(product).orElseThrow().getRatingSum());
+    }
+
+    @Test
+    void importRatings_CsvUpperCaseHeaderUnderTurkishLocale_IsSkipped() {
+        List<UUID> users = createUsers(1);
+        UUID product = createProduct();
+        String body = """
+                USERID,PRODUCTID,SCORE
+                %s,%s,4
+                """.formatted(users.get(0), product);
+
+        // Lower-casing "USERID" with the Turkish locale gives a dotless i, which would miss the header
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        RatingImportResultDto result;
+        try {
+            result = ratingImportService.importRatings(stream(body), RatingImportService.Format.CSV);
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+
+        assertEquals(1, result.getReceived());
+        assertEquals(1, result.getImported());
+        assertEquals(0, result.getRejected());
+    }
+
+    private List<UUID> createUsers(int count) {
+        List<UUID> userIds = new ArrayList<>();
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        for (int i = 0; i < count; i++) {
+            UserEntity user = userEntityRepository.save(UserEntity.builder()
+                    .username("import" + i + "-" + suffix)
+                    .email("import" + i + "-" + suffix + "@test.com")
+                    .password("password")
+                    .build());
+            userIds.add(user.getId());
+        }
+        return userIds;
+    }
+
+    private UUID createProduct() {
+        Product product = new Product();
+        product.setName("import-" + UUID.randomUUID().toString().substring(0, 8));
+        return productRepository.save(product).getId();
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
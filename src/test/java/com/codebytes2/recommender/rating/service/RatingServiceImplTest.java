@@ -1,28 +1,35 @@
 package com.codebytes2.recommender.rating.service;
 
 import com.codebytes2.recommender.auth.commons.models.entity.UserEntity;
-import com.codebytes2.recommender.dto.request.ProductRatingRequest;
 import com.codebytes2.recommender.dto.response.RatingResponseDto;
 import com.codebytes2.recommender.mapper.RatingMapper;
+import com.codebytes2.recommender.dto.response.ProductRatingStatsDto;
+import com.codebytes2.recommender.exceptions.DuplicateRatingException;
 import com.codebytes2.recommender.model.Product;
+import com.codebytes2.recommender.model.ProductRatingStats;
 import com.codebytes2.recommender.model.Rating;
+import com.codebytes2.recommender.repository.ProductRatingStatsRepository;
 import com.codebytes2.recommender.repository.ProductRepository;
 import com.codebytes2.recommender.repository.RatingRepository;
 import com.codebytes2.recommender.auth.repository.UserEntityRepository;
+import com.codebytes2.recommender.service.event.RatingCreatedEvent;
 import com.codebytes2.recommender.service.impl.RatingServiceImpl;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +47,12 @@ class RatingServiceImplTest {
     @Mock
     private RatingMapper ratingMapper;
 
+    @Mock
+    private ProductRatingStatsRepository productRatingStatsRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private RatingServiceImpl ratingService;
 
     private UUID userId;
@@ -49,7 +62,8 @@ class RatingServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        ratingService = new RatingServiceImpl(ratingRepository, userRepository, productRepository, ratingMapper);
+        ratingService = new RatingServiceImpl(ratingRepository, userRepository, productRepository, ratingMapper,
+                productRatingStatsRepository, eventPublisher);
         userId = UUID.randomUUID();
         productId = UUID.randomUUID();
         userEntity = new UserEntity();
@@ -91,6 +105,8 @@ class RatingServiceImplTest {
         verify(ratingRepository).existsByUserEntityIdAndProductId(userId, productId);
         verify(ratingRepository).save(any(Rating.class));
         verify(ratingMapper).toResponseDto(any(Rating.class));
+        verify(productRatingStatsRepository).addScore(eq(productId), eq(score), any());
+        verify(eventPublisher).publishEvent(new RatingCreatedEvent(userId, productId));
     }
 
     @Test
@@ -117,11 +133,12 @@ class RatingServiceImplTest {
         when(ratingRepository.existsByUserEntityIdAndProductId(userId, productId)).thenReturn(true);
 
         // Act & Assert
-        IllegalArgumentException exception = assertThrows(
-                IllegalArgumentException.class,
+        DuplicateRatingException exception = assertThrows(
+                DuplicateRatingException.class,
                 () -> ratingService.createRatingByUser(userId, productId, score)
         );
         assertEquals("El usuario ya ha valorado este producto", exception.getMessage());
+        verify(productRatingStatsRepository, never()).addScore(any(UUID.class), anyInt(), any());
     }
 
     @Test
@@ -159,27 +176,24 @@ class RatingServiceImplTest {
     @Test
     void getAverageRatingByProduct_WithRatings_ReturnsCorrectAverage() {
         // Arrange
-        Rating rating1 = new Rating();
-        rating1.setScore(5);
-        Rating rating2 = new Rating();
-        rating2.setScore(3);
-        Rating rating3 = new Rating();
-        rating3.setScore(4);
-        
-        List<Rating> ratings = List.of(rating1, rating2, rating3);
-        when(ratingRepository.findByProductId(productId)).thenReturn(ratings);
+        ProductRatingStats stats = new ProductRatingStats(productId);
+        stats.addScore(5);
+        stats.addScore(3);
+        stats.addScore(4);
+        when(productRatingStatsRepository.findById(productId)).thenReturn(Optional.of(stats));
 
         // Act
         Double average = ratingService.getAverageRatingByProduct(productId);
 
         // Assert
         assertEquals(4.0, average); // (5+3+4)/3 = 4.0
+        verify(ratingRepository, never()).findByProductId(any(UUID.class));
     }
 
     @Test
     void getAverageRatingByProduct_NoRatings_ReturnsNull() {
         // Arrange
-        when(ratingRepository.findByProductId(productId)).thenReturn(List.of());
+        when(productRatingStatsRepository.findById(productId)).thenReturn(Optional.empty());
 
         // Act
         Double average = ratingService.getAverageRatingByProduct(productId);
@@ -187,4 +201,24 @@ class RatingServiceImplTest {
         // Assert
         assertNull(average);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getRatingStatsByProduct_ReturnsAverageCountAndDistribution() {
+        // Arrange
+        ProductRatingStats stats = new ProductRatingStats(productId);
+        stats.addScore(5);
+        stats.addScore(5);
+        stats.addScore(2);
+        when(productRatingStatsRepository.findById(productId)).thenReturn(Optional.of(stats));
+
+        // Act
+        ProductRatingStatsDto result = ratingService.getRatingStatsByProduct(productId);
+
+        // Assert
+        assertEquals(4.0, result.getAverageRating());
+        assertEquals(3L, result.getTotalRatings());
+        assertEquals(2L, result.getDistribution().get(5));
+        assertEquals(1L, result.getDistribution().get(2));
+        assertEquals(0L, result.getDistribution().get(1));
+    }
+}
@@ -0,0 +1,140 @@
+package com.codebytes2.recommender.rating.service;
+
+import com.codebytes2.recommender.auth.commons.models.entity.UserEntity;
+import com.codebytes2.recommender.auth.repository.UserEntityRepository;
+import com.codebytes2.recommender.dto.request.ProductCreateRequest;
+import com.codebytes2.recommender.model.Product;
+import com.codebytes2.recommender.model.ProductRatingStats;
+import com.codebytes2.recommender.model.Rating;
+import com.codebytes2.recommender.repository.ProductRatingStatsRepository;
+import com.codebytes2.recommender.repository.ProductRepository;
+import com.codebytes2.recommender.repository.RatingRepository;
+import com.codebytes2.recommender.service.ProductService;
+import com.codebytes2.recommender.service.RatingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Product rating aggregates against the test database. The stats row is created with the product,
+ * so concurrent first ratings only ever update it and none of them may fail or be lost.
+ */
+@SpringBootTest
+class RatingStatsTest {
+
+    private static final int PLAYERS = 40;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private ProductRatingStatsRepository productRatingStatsRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    @Autowired
+    private UserEntityRepository userEntityRepository;
+
+    @Test
+    void createRatingByUser_ConcurrentFirstRatings_AllCounted() throws Exception {
+        // Given
+        UUID productId = productService.createProduct(ProductCreateRequest.builder()
+                .name("stats-race-" + UUID.randomUUID().toString().substring(0, 8))
+                .popularityScore(0L)
+                .build()).getId();
+        List<UUID> userIds = createPlayers(PLAYERS);
+
+        // When: every player rates the product at the same instant
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            UUID userId = userIds.get(i);
+            int score = 1 + i % 5;
+            futures.add(executor.submit(() -> {
+                start.await();
+                ratingService.createRatingByUser(userId, productId, score);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then: 8 ratings of each score
+        ProductRatingStats stats = productRatingStatsRepository.findById(productId).orElseThrow();
+        assertEquals(PLAYERS, stats.getRatingCount());
+        assertEquals(PLAYERS / 5 * (1 + 2 + 3 + 4 + 5), stats.getRatingSum());
+        assertEquals(PLAYERS / 5, stats.getOneStarCount());
+        assertEquals(PLAYERS / 5, stats.getFiveStarCount());
+    }
+
+    @Test
+    void reconcileRatingStats_CreatesMissingRowsAndKeepsExistingOnes() {
+        // Given: a product saved directly, so without stats row, rated directly as well
+        List<UUID> userIds = createPlayers(2);
+        Product unmanaged = new Product();
+        unmanaged.setName("stats-unmanaged");
+        unmanaged = productRepository.save(unmanaged);
+        for (UUID userId : userIds) {
+            Rating rating = new Rating();
+            rating.setUserEntity(userEntityRepository.findById(userId).orElseThrow());
+            rating.setProduct(unmanaged);
+            rating.setScore(4);
+            ratingRepository.save(rating);
+        }
+        // and a product rated through the service
+        UUID managed = productService.createProduct(ProductCreateRequest.builder()
+                .name("stats-managed")
+                .popularityScore(0L)
+                .build()).getId();
+        ratingService.createRatingByUser(userIds.get(0), managed, 2);
+        ProductRatingStats before = productRatingStatsRepository.findById(managed).orElseThrow();
+
+        // When
+        int created = ratingService.reconcileRatingStats();
+
+        // Then
+        assertTrue(created >= 1);
+        ProductRatingStats stats = productRatingStatsRepository.findById(unmanaged.getId()).orElseThrow();
+        assertEquals(2, stats.getRatingCount());
+        assertEquals(8, stats.getRatingSum());
+        assertEquals(2, stats.getFourStarCount());
+        assertEquals(before, productRatingStatsRepository.findById(managed).orElseThrow());
+    }
+
+    private List<UUID> createPlayers(int count) {
+        List<UUID> userIds = new ArrayList<>();
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        for (int i = 0; i < count; i++) {
+            UserEntity user = userEntityRepository.save(UserEntity.builder()
+                    .username("rater" + i + "-" + suffix)
+                    .email("rater" + i + "-" + suffix + "@test.com")
+                    .password("password")
+                    .build());
+            userIds.add(user.getId());
+        }
+        return userIds;
+    }
+}
@@ -3,6 +3,7 @@ package com.codebytes2.recommender.recommendation.controller;
 import com.codebytes2.recommender.auth.commons.models.entity.UserEntity;
 import com.codebytes2.recommender.auth.service.JwtService;
 import com.codebytes2.recommender.controller.RecommendationController;
+import com.codebytes2.recommender.dto.response.RecommendationModelStatusDto;
 import com.codebytes2.recommender.dto.response.RecommendationResponseDto;
 import com.codebytes2.recommender.dto.response.RecommendedProductDto;
 import com.codebytes2.recommender.service.RecommendationService;
@@ -65,7 +66,7 @@ class RecommendationControllerTest {
                 .algorithmVersion("v1.0")
                 .build();
 
-        given(recommendationService.getRecommendationsForUser(eq(userId)))
+        given(recommendationService.getRecommendationsForUser(eq(userId), eq(20)))
                 .willReturn(responseDto);
 
         // When & Then
@@ -84,7 +85,7 @@ class RecommendationControllerTest {
         // Given
         UUID userId = UUID.randomUUID();
 
-        given(recommendationService.getRecommendationsForUser(eq(userId)))
+        given(recommendationService.getRecommendationsForUser(eq(userId), eq(20)))
                 .willThrow(new RuntimeException("Service error"));
 
         // When & Then
@@ -110,7 +111,7 @@ class RecommendationControllerTest {
         // Given
         UUID userId = UUID.randomUUID();
 
-        given(recommendationService.getRecommendationsForUser(eq(userId)))
+        given(recommendationService.getRecommendationsForUser(eq(userId), eq(20)))
                 .willThrow(new EntityNotFoundException("Usuario no encontrado con ID: " + userId));
 
         // When & Then
@@ -133,7 +134,7 @@ class RecommendationControllerTest {
                 .algorithmVersion("v1.0")
                 .build();
 
-        given(recommendationService.getRecommendationsForUser(eq(userId)))
+        given(recommendationService.getRecommendationsForUser(eq(userId), eq(20)))
                 .willReturn(responseDto);
 
         // When & Then
@@ -144,4 +145,69 @@ class RecommendationControllerTest {
                 .andExpect(jsonPath("$.recommendedProducts").isArray())
                 .andExpect(jsonPath("$.recommendedProducts").isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(roles = {"PLAYER"})
+    void getRecommendations_WithLimit_PassesLimitToService() throws Exception {
+        // Given
+        UUID userId = UUID.randomUUID();
+
+        RecommendationResponseDto responseDto = RecommendationResponseDto.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .recommendedProducts(new ArrayList<>())
+                .computedAt(Instant.now())
+                .algorithmVersion("v1.0")
+                .build();
+
+        given(recommendationService.getRecommendationsForUser(eq(userId), eq(5)))
+                .willReturn(responseDto);
+
+        // When & Then
+        mockMvc.perform(get("/api/recommendations/{userId}", userId)
+                .param("limit", "5")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(userId.toString()));
+    }
+
+    @Test
+    @WithMockUser(roles = {"PLAYER"})
+    void getRecommendations_LimitOutOfRange_ReturnsBadRequest() throws Exception {
+        // Given
+        UUID userId = UUID.randomUUID();
+
+        given(recommendationService.getRecommendationsForUser(eq(userId), eq(0)))
+                .willThrow(new IllegalArgumentException("El límite debe estar entre 1 y 100"));
+
+        // When & Then
+        mockMvc.perform(get("/api/recommendations/{userId}", userId)
+                .param("limit", "0")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void getModelStatus_ReturnsTrainingMetrics() throws Exception {
+        // Given
+        RecommendationModelStatusDto status = RecommendationModelStatusDto.builder()
+                .algorithmVersion("als-v1")
+                .modelVersion(3L)
+                .trainedAt(Instant.now())
+                .trainingTimeMs(850L)
+                .rmse(0.91)
+                .build();
+
+        given(recommendationService.getModelStatus()).willReturn(status);
+
+        // When & Then
+        mockMvc.perform(get("/api/recommendations/model")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.algorithmVersion").value("als-v1"))
+                .andExpect(jsonPath("$.modelVersion").value(3))
+                .andExpect(jsonPath("$.trainingTimeMs").value(850))
+                .andExpect(jsonPath("$.rmse").value(0.91));
+    }
+}
@@ -0,0 +1,46 @@
+package com.codebytes2.recommender.recommendation.service;
+
+import com.codebytes2.recommender.service.scoring.AlsTrainer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlsTrainerTest {
+
+    @Test
+    void train_FitsObservedRatings() {
+        // 3 users x 3 items, two taste groups
+        int[] users = {0, 0, 0, 1, 1, 1, 2, 2};
+        int[] items = {0, 1, 2, 0, 1, 2, 0, 2};
+        float[] scores = {5, 5, 1, 4, 5, 2, 1, 5};
+
+        AlsTrainer.Factors factors = AlsTrainer.train(3, 3, users, items, scores, 3, 20, 0.01, 42L);
+
+        for (int n = 0; n < scores.length; n++) {
+            assertEquals(scores[n], factors.predict(users[n], items[n]), 0.5);
+        }
+    }
+
+    @Test
+    void train_PredictsUnseenRatingFromSimilarUsers() {
+        // User 2 agrees with user 0 on items 0 and 2; user 0 loves item 1
+        int[] users = {0, 0, 0, 1, 1, 1, 2, 2};
+        int[] items = {0, 1, 2, 0, 1, 2, 0, 2};
+        float[] scores = {5, 5, 1, 1, 1, 5, 5, 1};
+
+        AlsTrainer.Factors factors = AlsTrainer.train(3, 3, users, items, scores, 2, 20, 0.05, 42L);
+
+        assertTrue(factors.predict(2, 1) > factors.globalMean());
+    }
+
+    @Test
+    void train_UserWithoutRatings_PredictsGlobalMean() {
+        int[] users = {0, 0};
+        int[] items = {0, 1};
+        float[] scores = {4, 2};
+
+        AlsTrainer.Factors factors = AlsTrainer.train(2, 2, users, items, scores, 2, 5, 0.1, 42L);
+
+        assertEquals(3.0, factors.predict(1, 0), 1e-6);
+    }
+}
@@ -0,0 +1,87 @@
+package com.codebytes2.recommender.recommendation.service;
+
+import com.codebytes2.recommender.config.recommendation.RecommendationProperties;
+import com.codebytes2.recommender.repository.RatingRepository;
+import com.codebytes2.recommender.repository.projection.RatingEntry;
+import com.codebytes2.recommender.service.scoring.ItemNeighborIndex;
+import com.codebytes2.recommender.service.scoring.RatingMatrixLoader;
+import com.codebytes2.recommender.service.scoring.ScoredItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemNeighborIndexTest {
+
+    @Mock
+    private RatingRepository ratingRepository;
+
+    private ItemNeighborIndex itemNeighborIndex;
+
+    private final UUID shooter = UUID.randomUUID();
+    private final UUID arena = UUID.randomUUID();
+    private final UUID puzzle = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        itemNeighborIndex = new ItemNeighborIndex(new RatingMatrixLoader(ratingRepository), new RecommendationProperties());
+
+        // Users who like shooter also like arena and dislike puzzle
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        UUID carol = UUID.randomUUID();
+        when(ratingRepository.streamAllEntries()).thenReturn(Stream.of(
+                new RatingEntry(alice, shooter, 5),
+                new RatingEntry(alice, arena, 4),
+                new RatingEntry(alice, puzzle, 1),
+                new RatingEntry(bob, shooter, 4),
+                new RatingEntry(bob, arena, 5),
+                new RatingEntry(bob, puzzle, 2),
+                new RatingEntry(carol, puzzle, 5),
+                new RatingEntry(carol, shooter, 2)));
+        itemNeighborIndex.rebuild();
+    }
+
+    @Test
+    void rebuild_KeepsOnlyPositivelyCorrelatedNeighbors() {
+        assertEquals(3, itemNeighborIndex.size());
+        assertEquals(List.of(arena), itemNeighborIndex.getNeighbors(shooter));
+        assertEquals(List.of(shooter), itemNeighborIndex.getNeighbors(arena));
+        assertTrue(itemNeighborIndex.getNeighbors(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void recommend_MergesNeighborListsAndExcludesRatedProducts() {
+        List<ScoredItem> result = itemNeighborIndex.recommend(Map.of(shooter, 5), 10);
+
+        assertEquals(1, result.size());
+        assertEquals(arena, result.get(0).productId());
+        assertTrue(result.get(0).score() > 0);
+
+        assertTrue(itemNeighborIndex.recommend(Map.of(shooter, 5, arena, 5), 10).isEmpty());
+    }
+
+    @Test
+    void recommend_NeutralRatingAddsNoWeight() {
+        assertTrue(itemNeighborIndex.recommend(Map.of(shooter, 3), 10).isEmpty());
+
+        ScoredItem alone = itemNeighborIndex.recommend(Map.of(shooter, 5), 10).get(0);
+        ScoredItem withNeutral = itemNeighborIndex.recommend(Map.of(shooter, 5, puzzle, 3), 10).get(0);
+        assertEquals(alone, withNeutral);
+    }
+
+    @Test
+    void recommend_LowRatingDoesNotPromoteNeighbors() {
+        assertTrue(itemNeighborIndex.recommend(Map.of(shooter, 1), 10).isEmpty());
+    }
+}
@@ -0,0 +1,42 @@
+package com.codebytes2.recommender.recommendation.service;
+
+import com.codebytes2.recommender.model.Product;
+import com.codebytes2.recommender.repository.ProductRepository;
+import com.codebytes2.recommender.service.index.ProductTagIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Rebuilds the index from the test database, outside of any test transaction, as on startup.
+ */
+@SpringBootTest
+class ProductTagIndexRebuildTest {
+
+    @Autowired
+    private ProductTagIndex productTagIndex;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void rebuild_WithTaggedProductsInDatabase_IndexesTheirTags() {
+        String tag = "rebuild-" + UUID.randomUUID().toString().substring(0, 8);
+        Product product = new Product();
+        product.setName("rebuild-tagged");
+        product.setTags(new HashSet<>(Set.of(tag, "shooter")));
+        product = productRepository.save(product);
+
+        assertDoesNotThrow(() -> productTagIndex.rebuild());
+
+        assertEquals(Set.of(product.getId()), productTagIndex.findCandidates(List.of(tag)));
+        assertTrue(productTagIndex.findCandidates(List.of("shooter")).contains(product.getId()));
+    }
+}
@@ -0,0 +1,80 @@
+package com.codebytes2.recommender.recommendation.service;
+
+import com.codebytes2.recommender.model.Product;
+import com.codebytes2.recommender.repository.ProductRepository;
+import com.codebytes2.recommender.repository.projection.ProductTag;
+import com.codebytes2.recommender.service.index.ProductTagIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductTagIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductTagIndex productTagIndex;
+
+    private Product shooter;
+    private Product racing;
+
+    @BeforeEach
+    void setUp() {
+        productTagIndex = new ProductTagIndex(productRepository);
+
+        shooter = new Product();
+        shooter.setId(UUID.randomUUID());
+        shooter.setTags(Set.of("fps", "multiplayer"));
+
+        racing = new Product();
+        racing.setId(UUID.randomUUID());
+        racing.setTags(Set.of("racing", "multiplayer"));
+    }
+
+    @Test
+    void rebuild_IndexesWholeCatalog() {
+        when(productRepository.streamAllTags()).thenReturn(Stream.of(
+                new ProductTag(shooter.getId(), "fps"),
+                new ProductTag(shooter.getId(), "multiplayer"),
+                new ProductTag(racing.getId(), "racing"),
+                new ProductTag(racing.getId(), "multiplayer")));
+
+        productTagIndex.rebuild();
+
+        assertEquals(2, productTagIndex.size());
+        assertEquals(Set.of(shooter.getId(), racing.getId()), productTagIndex.findCandidates(Set.of("multiplayer")));
+        assertEquals(Set.of(shooter.getId()), productTagIndex.findCandidates(Set.of("fps")));
+    }
+
+    @Test
+    void index_UpdatedProduct_ReplacesOldPostings() {
+        productTagIndex.index(shooter);
+
+        shooter.setTags(Set.of("strategy"));
+        productTagIndex.index(shooter);
+
+        assertTrue(productTagIndex.findCandidates(Set.of("fps", "multiplayer")).isEmpty());
+        assertEquals(Set.of(shooter.getId()), productTagIndex.findCandidates(Set.of("strategy")));
+    }
+
+    @Test
+    void remove_DeletedProduct_IsNoLongerCandidate() {
+        productTagIndex.index(shooter);
+        productTagIndex.index(racing);
+
+        productTagIndex.remove(shooter.getId());
+
+        assertEquals(Set.of(racing.getId()), productTagIndex.findCandidates(Set.of("fps", "multiplayer")));
+        assertEquals(1, productTagIndex.size());
+    }
+}
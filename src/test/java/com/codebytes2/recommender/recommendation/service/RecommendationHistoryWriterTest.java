@@ -0,0 +1,103 @@
+package com.codebytes2.recommender.recommendation.service;
+
+import com.codebytes2.recommender.config.recommendation.RecommendationProperties;
+import com.codebytes2.recommender.model.Recommendation;
+import com.codebytes2.recommender.model.RecommendedItem;
+import com.codebytes2.recommender.service.history.RecommendationHistoryWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecommendationHistoryWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RecommendationProperties recommendationProperties;
+
+    @BeforeEach
+    void setUp() {
+        recommendationProperties = new RecommendationProperties();
+    }
+
+    @Test
+    void flush_WritesQueuedRecordsInBatches() {
+        // Given
+        recommendationProperties.getHistory().setBatchSize(2);
+        RecommendationHistoryWriter writer =
+                new RecommendationHistoryWriter(jdbcTemplate, transactionManager, recommendationProperties);
+
+        writer.enqueue(recommendation(2));
+        writer.enqueue(recommendation(1));
+        writer.enqueue(recommendation(0));
+
+        // When
+        writer.flush();
+
+        // Then
+        assertEquals(0, writer.getQueueSize());
+        assertEquals(3, writer.getWrittenCount());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> rowsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(startsWith("INSERT INTO recommendations "), rowsCaptor.capture());
+        assertEquals(List.of(2, 1), rowsCaptor.getAllValues().stream().map(List::size).toList());
+
+        // Only the first batch has items, one row per position
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith("INSERT INTO recommended_products "), rowsCaptor.capture());
+        List<Object[]> itemRows = rowsCaptor.getValue();
+        assertEquals(3, itemRows.size());
+        assertEquals(0, itemRows.get(0)[1]);
+        assertEquals(1, itemRows.get(1)[1]);
+    }
+
+    @Test
+    void enqueue_QueueFull_DropsRecord() {
+        // Given
+        recommendationProperties.getHistory().setQueueCapacity(1);
+        RecommendationHistoryWriter writer =
+                new RecommendationHistoryWriter(jdbcTemplate, transactionManager, recommendationProperties);
+
+        // When
+        boolean first = writer.enqueue(recommendation(1));
+        boolean second = writer.enqueue(recommendation(1));
+
+        // Then
+        assertTrue(first);
+        assertFalse(second);
+        assertEquals(1, writer.getQueueSize());
+        assertEquals(1, writer.getDroppedCount());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private Recommendation recommendation(int items) {
+        Recommendation recommendation = new Recommendation();
+        recommendation.setId(UUID.randomUUID());
+        recommendation.setUserId(UUID.randomUUID());
+        recommendation.setComputedAt(Instant.now());
+        recommendation.setAlgorithmVersion("v1.0");
+        recommendation.setResultLimit(20);
+        for (int i = 0; i < items; i++) {
+            recommendation.getItems().add(new RecommendedItem(UUID.randomUUID(), 1.0 - i * 0.1));
+        }
+        return recommendation;
+    }
+}
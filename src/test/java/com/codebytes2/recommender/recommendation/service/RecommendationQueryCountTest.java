@@ -0,0 +1,95 @@
+package com.codebytes2.recommender.recommendation.service;
+
+import com.codebytes2.recommender.auth.commons.models.entity.UserEntity;
+import com.codebytes2.recommender.auth.repository.UserEntityRepository;
+import com.codebytes2.recommender.config.metrics.SqlStatementCounter;
+import com.codebytes2.recommender.dto.request.ProductCreateRequest;
+import com.codebytes2.recommender.dto.response.RecommendationResponseDto;
+import com.codebytes2.recommender.service.ProductService;
+import com.codebytes2.recommender.service.RatingService;
+import com.codebytes2.recommender.service.RecommendationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SQL statements issued by the default algorithm against the test database, counted on the JDBC
+ * connections. Candidates and their tags are loaded together, so the count must not depend on how
+ * many products share the user's tags.
+ */
+@SpringBootTest
+class RecommendationQueryCountTest {
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private UserEntityRepository userEntityRepository;
+
+    @Test
+    void getRecommendationsForUser_MoreCandidates_SameNumberOfStatements() {
+        // Given: a rated product whose tag is shared first by 2, then by 20 other products
+        String tag = "count-" + UUID.randomUUID().toString().substring(0, 8);
+        UUID rated = createProduct(tag);
+        createProducts(tag, 2);
+        int fewCandidates = countStatements(rated, 20, 2);
+
+        createProducts(tag, 18);
+
+        // When
+        int manyCandidates = countStatements(rated, 20, 20);
+
+        // Then
+        assertEquals(fewCandidates, manyCandidates);
+    }
+
+    /**
+     * Statements of one recommendation for a new user who has rated {@code rated}.
+     */
+    private int countStatements(UUID rated, int limit, int expectedResults) {
+        UUID userId = createUser();
+        ratingService.createRatingByUser(userId, rated, 5);
+
+        SqlStatementCounter.start();
+        RecommendationResponseDto result = recommendationService.getRecommendationsForUser(userId, limit);
+        int statements = SqlStatementCounter.stop();
+
+        assertEquals(expectedResults, result.getRecommendedProducts().size());
+        result.getRecommendedProducts().forEach(product -> assertTrue(product.getTags().size() > 0));
+        return statements;
+    }
+
+    private void createProducts(String tag, int count) {
+        for (int i = 0; i < count; i++) {
+            createProduct(tag);
+        }
+    }
+
+    private UUID createProduct(String tag) {
+        return productService.createProduct(ProductCreateRequest.builder()
+                .name(tag + "-" + UUID.randomUUID().toString().substring(0, 8))
+                .tags(Set.of(tag))
+                .popularityScore(1L)
+                .build()).getId();
+    }
+
+    private UUID createUser() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        return userEntityRepository.save(UserEntity.builder()
+                .username("count-" + suffix)
+                .email("count-" + suffix + "@test.com")
+                .password("password")
+                .build()).getId();
+    }
+}
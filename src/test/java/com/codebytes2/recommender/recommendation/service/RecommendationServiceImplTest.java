@@ -2,15 +2,30 @@ package com.codebytes2.recommender.recommendation.service;
 
 import com.codebytes2.recommender.auth.commons.models.entity.UserEntity;
 import com.codebytes2.recommender.auth.repository.UserEntityRepository;
+import com.codebytes2.recommender.config.recommendation.RecommendationProperties;
+import com.codebytes2.recommender.dto.response.RecommendationModelStatusDto;
 import com.codebytes2.recommender.dto.response.RecommendationResponseDto;
 import com.codebytes2.recommender.mapper.RecommendationMapper;
 import com.codebytes2.recommender.model.Product;
+import com.codebytes2.recommender.model.ProductRatingStats;
 import com.codebytes2.recommender.model.Rating;
 import com.codebytes2.recommender.model.Recommendation;
+import com.codebytes2.recommender.model.RecommendedItem;
+import com.codebytes2.recommender.repository.ProductRatingStatsRepository;
 import com.codebytes2.recommender.repository.ProductRepository;
 import com.codebytes2.recommender.repository.RatingRepository;
 import com.codebytes2.recommender.repository.RecommendationRepository;
+import com.codebytes2.recommender.repository.projection.RatingEntry;
+import com.codebytes2.recommender.service.cache.RecommendationResultCache;
+import com.codebytes2.recommender.service.event.ProductChangedEvent;
+import com.codebytes2.recommender.service.event.RatingCreatedEvent;
 import com.codebytes2.recommender.service.impl.RecommendationServiceImpl;
+import com.codebytes2.recommender.service.history.RecommendationHistoryWriter;
+import com.codebytes2.recommender.service.index.ProductTagIndex;
+import com.codebytes2.recommender.service.scoring.ItemNeighborIndex;
+import com.codebytes2.recommender.service.scoring.MatrixFactorizationModel;
+import com.codebytes2.recommender.service.scoring.RatingMatrixLoader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,12 +33,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +50,9 @@ class RecommendationServiceImplTest {
     @Mock
     private RecommendationRepository recommendationRepository;
 
+    @Mock
+    private RecommendationHistoryWriter recommendationHistoryWriter;
+
     @Mock
     private ProductRepository productRepository;
 
@@ -44,6 +65,19 @@ class RecommendationServiceImplTest {
     @Mock
     private RecommendationMapper recommendationMapper;
 
+    @Mock
+    private ProductRatingStatsRepository productRatingStatsRepository;
+
+    private ProductTagIndex productTagIndex;
+
+    private RecommendationProperties recommendationProperties;
+
+    private ItemNeighborIndex itemNeighborIndex;
+
+    private MatrixFactorizationModel matrixFactorizationModel;
+
+    private RecommendationResultCache recommendationResultCache;
+
     private RecommendationServiceImpl recommendationService;
 
     private UUID userId;
@@ -52,9 +86,17 @@ class RecommendationServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        productTagIndex = new ProductTagIndex(productRepository);
+        recommendationProperties = new RecommendationProperties();
+        recommendationProperties.setCacheTtl(Duration.ofMinutes(10));
+        itemNeighborIndex = new ItemNeighborIndex(new RatingMatrixLoader(ratingRepository), recommendationProperties);
+        matrixFactorizationModel = new MatrixFactorizationModel(new RatingMatrixLoader(ratingRepository), recommendationProperties);
+        recommendationResultCache = new RecommendationResultCache(recommendationProperties, new SimpleMeterRegistry());
         recommendationService = new RecommendationServiceImpl(
                 recommendationRepository, productRepository, ratingRepository, 
-                userEntityRepository, recommendationMapper);
+                userEntityRepository, recommendationMapper, productTagIndex, productRatingStatsRepository,
+                recommendationProperties, recommendationHistoryWriter, itemNeighborIndex,
+                matrixFactorizationModel, recommendationResultCache);
         
         userId = UUID.randomUUID();
         user = new UserEntity();
@@ -78,6 +120,26 @@ class RecommendationServiceImplTest {
         product3.setName("Product 3");
         product3.setTags(Set.of("tag3", "tag4"));
         product3.setPopularityScore(50L);
+
+        productTagIndex.index(product1);
+        productTagIndex.index(product2);
+        productTagIndex.index(product3);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubFindAllById(List<Product> catalog) {
+        when(productRepository.findAllWithTagsByIdIn(any())).thenAnswer(invocation -> {
+            Set<UUID> ids = new HashSet<>((Collection<UUID>) invocation.getArgument(0));
+            return catalog.stream().filter(p -> ids.contains(p.getId())).toList();
+        });
+    }
+
+    private void stubMostPopular(List<Product> products) {
+        when(productRepository.findMostPopularIds(any(Pageable.class)))
+                .thenReturn(products.stream().map(Product::getId).toList());
+        if (!products.isEmpty()) {
+            stubFindAllById(products);
+        }
     }
 
     @Test
@@ -90,30 +152,36 @@ class RecommendationServiceImplTest {
         List<Rating> userRatings = Arrays.asList(rating1);
 
         when(userEntityRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(productRepository.findAll()).thenReturn(allProducts);
+        stubFindAllById(allProducts);
         when(ratingRepository.findByUserEntityId(userId)).thenReturn(userRatings);
-        when(ratingRepository.findByProductId(any(UUID.class))).thenReturn(new ArrayList<>()); // Empty ratings for products
-        when(ratingRepository.existsByUserEntityIdAndProductId(any(UUID.class), any(UUID.class))).thenReturn(false);
 
         // When
-        RecommendationResponseDto result = recommendationService.getRecommendationsForUser(userId);
+        RecommendationResponseDto result = recommendationService.getRecommendationsForUser(userId, 20);
 
         // Then
         assertNotNull(result);
         assertEquals(userId, result.getUserId());
         assertNotNull(result.getRecommendedProducts());
         assertFalse(result.getRecommendedProducts().isEmpty());
+
+        // Only products sharing a tag with product1 (tag1, tag2) are candidates
+        assertTrue(result.getRecommendedProducts().stream()
+                .noneMatch(dto -> dto.getId().equals(product3.getId())));
         
         // Verify repository calls
         verify(userEntityRepository).findById(userId);
-        verify(productRepository).findAll();
+        verify(productRepository, never()).findAll();
         verify(ratingRepository).findByUserEntityId(userId);
+        verify(ratingRepository, never()).findByProductId(any(UUID.class));
+        verify(ratingRepository, never()).existsByUserEntityIdAndProductId(any(UUID.class), any(UUID.class));
         
         // Verify that a recommendation was saved
         ArgumentCaptor<Recommendation> recommendationCaptor = ArgumentCaptor.forClass(Recommendation.class);
-        verify(recommendationRepository).save(recommendationCaptor.capture());
+        verify(recommendationHistoryWriter).enqueue(recommendationCaptor.capture());
         Recommendation savedRecommendation = recommendationCaptor.getValue();
         assertEquals(userId, savedRecommendation.getUserId());
+        assertNotNull(savedRecommendation.getId());
+        assertEquals(savedRecommendation.getId(), result.getId());
     }
 
     @Test
@@ -123,11 +191,12 @@ class RecommendationServiceImplTest {
 
         // When & Then
         assertThrows(EntityNotFoundException.class, 
-            () -> recommendationService.getRecommendationsForUser(userId));
+            () -> recommendationService.getRecommendationsForUser(userId, 20));
         
         verify(userEntityRepository).findById(userId);
-        verify(productRepository, never()).findAll();
-        verify(recommendationRepository, never()).save(any());
+        verify(productRepository, never()).findAllWithTagsByIdIn(any());
+        verify(productRepository, never()).findMostPopularIds(any(Pageable.class));
+        verify(recommendationHistoryWriter, never()).enqueue(any());
     }
 
     @Test
@@ -137,18 +206,18 @@ class RecommendationServiceImplTest {
         List<Rating> userRatings = new ArrayList<>(); // No ratings
 
         when(userEntityRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(productRepository.findAll()).thenReturn(allProducts);
+        stubMostPopular(allProducts);
         when(ratingRepository.findByUserEntityId(userId)).thenReturn(userRatings);
-        when(ratingRepository.findByProductId(any(UUID.class))).thenReturn(new ArrayList<>());
-        when(ratingRepository.existsByUserEntityIdAndProductId(any(UUID.class), any(UUID.class))).thenReturn(false);
 
         // When
-        RecommendationResponseDto result = recommendationService.getRecommendationsForUser(userId);
+        RecommendationResponseDto result = recommendationService.getRecommendationsForUser(userId, 20);
 
         // Then
         assertNotNull(result);
         assertEquals(userId, result.getUserId());
         assertNotNull(result.getRecommendedProducts());
+        assertEquals(allProducts.size(), result.getRecommendedProducts().size());
+        verify(productRepository).findMostPopularIds(any(Pageable.class));
     }
 
     @Test
@@ -163,13 +232,11 @@ class RecommendationServiceImplTest {
         List<Rating> userRatings = Arrays.asList(rating1);
 
         when(userEntityRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(productRepository.findAll()).thenReturn(allProducts);
+        stubFindAllById(allProducts);
         when(ratingRepository.findByUserEntityId(userId)).thenReturn(userRatings);
-        when(ratingRepository.findByProductId(any(UUID.class))).thenReturn(new ArrayList<>());
-        when(ratingRepository.existsByUserEntityIdAndProductId(any(UUID.class), any(UUID.class))).thenReturn(false);
 
         // When
-        RecommendationResponseDto result = recommendationService.getRecommendationsForUser(userId);
+        RecommendationResponseDto result = recommendationService.getRecommendationsForUser(userId, 20);
 
         // Then
         assertNotNull(result);
@@ -181,11 +248,11 @@ class RecommendationServiceImplTest {
     void getRecommendationsForUser_NoProductsInSystem_ReturnsEmptyRecommendations() {
         // Given
         when(userEntityRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(productRepository.findAll()).thenReturn(new ArrayList<>()); // No products
+        stubMostPopular(new ArrayList<>()); // No products
         when(ratingRepository.findByUserEntityId(userId)).thenReturn(new ArrayList<>());
 
         // When
-        RecommendationResponseDto result = recommendationService.getRecommendationsForUser(userId);
+        RecommendationResponseDto result = recommendationService.getRecommendationsForUser(userId, 20);
 
         // Then
         assertNotNull(result);
@@ -193,23 +260,28 @@ class RecommendationServiceImplTest {
         assertTrue(result.getRecommendedProducts().isEmpty());
 
         verify(userEntityRepository).findById(userId);
-        verify(productRepository).findAll();
-        verify(recommendationRepository).save(any(Recommendation.class));
+        verify(productRepository).findMostPopularIds(any(Pageable.class));
+        verify(recommendationHistoryWriter).enqueue(any(Recommendation.class));
     }
 
     @Test
     void getRecommendationsForUser_UserHasRatedAllProducts_ReturnsNoRecommendations() {
         // Given
         List<Product> allProducts = Arrays.asList(product1, product2, product3);
+        List<Rating> userRatings = new ArrayList<>();
+        for (Product product : allProducts) {
+            Rating rating = new Rating();
+            rating.setProduct(product);
+            rating.setScore(4);
+            userRatings.add(rating);
+        }
 
         when(userEntityRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(productRepository.findAll()).thenReturn(allProducts);
-        when(ratingRepository.findByUserEntityId(userId)).thenReturn(new ArrayList<>());
-        // When user has rated all products, all calls return true
-        when(ratingRepository.existsByUserEntityIdAndProductId(eq(userId), any(UUID.class))).thenReturn(true);
+        stubFindAllById(allProducts);
+        when(ratingRepository.findByUserEntityId(userId)).thenReturn(userRatings);
 
         // When
-        RecommendationResponseDto result = recommendationService.getRecommendationsForUser(userId);
+        RecommendationResponseDto result = recommendationService.getRecommendationsForUser(userId, 20);
 
         // Then
         assertNotNull(result);
@@ -217,7 +289,359 @@ class RecommendationServiceImplTest {
         assertTrue(result.getRecommendedProducts().isEmpty());
 
         verify(userEntityRepository).findById(userId);
-        verify(productRepository).findAll();
-        verify(ratingRepository, times(allProducts.size())).existsByUserEntityIdAndProductId(eq(userId), any(UUID.class));
+        verify(ratingRepository, never()).existsByUserEntityIdAndProductId(any(UUID.class), any(UUID.class));
+    }
+
+    @Test
+    void getRecommendationsForUser_UsesMaterializedRatingStats() {
+        // Given
+        List<Product> allProducts = Arrays.asList(product1, product2, product3);
+        Rating rating1 = new Rating();
+        rating1.setProduct(product1);
+        rating1.setScore(5);
+
+        when(userEntityRepository.findById(userId)).thenReturn(Optional.of(user));
+        stubFindAllById(allProducts);
+        when(ratingRepository.findByUserEntityId(userId)).thenReturn(List.of(rating1));
+        ProductRatingStats product2Stats = new ProductRatingStats(product2.getId());
+        product2Stats.addScore(5);
+        product2Stats.addScore(4);
+        when(productRatingStatsRepository.findAllById(any())).thenReturn(List.of(product2Stats));
+
+        // When
+        RecommendationResponseDto result = recommendationService.getRecommendationsForUser(userId, 20);
+
+        // Then
+        assertEquals(1, result.getRecommendedProducts().size());
+        assertEquals(product2.getId(), result.getRecommendedProducts().get(0).getId());
+        assertEquals(4.5, result.getRecommendedProducts().get(0).getAverageRating());
+
+        verify(productRatingStatsRepository, times(1)).findAllById(any());
+        verify(ratingRepository, never()).findByProductId(any(UUID.class));
+    }
+
+    @Test
+    void getRecommendationsForUser_LimitReturnsBestProductsOnly() {
+        // Given
+        List<Product> allProducts = Arrays.asList(product1, product2, product3);
+
+        when(userEntityRepository.findById(userId)).thenReturn(Optional.of(user));
+        stubMostPopular(allProducts);
+        when(ratingRepository.findByUserEntityId(userId)).thenReturn(new ArrayList<>());
+
+        // When
+        RecommendationResponseDto result = recommendationService.getRecommendationsForUser(userId, 2);
+
+        // Then: cold start ranks purely by popularity (200 > 100 > 50)
+        assertEquals(2, result.getRecommendedProducts().size());
+        assertEquals(product2.getId(), result.getRecommendedProducts().get(0).getId());
+        assertEquals(product1.getId(), result.getRecommendedProducts().get(1).getId());
+
+        ArgumentCaptor<Recommendation> recommendationCaptor = ArgumentCaptor.forClass(Recommendation.class);
+        verify(recommendationHistoryWriter).enqueue(recommendationCaptor.capture());
+        assertEquals(List.of(product2.getId(), product1.getId()), recommendationCaptor.getValue().getProductIds());
+    }
+
+    @Test
+    void getRecommendationsForUser_InvalidLimit_ThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> recommendationService.getRecommendationsForUser(userId, 0));
+
+        verify(userEntityRepository, never()).findById(any());
+    }
+
+    private Recommendation storedRecommendation(Instant computedAt, int resultLimit) {
+        Recommendation recommendation = new Recommendation();
+        recommendation.setId(UUID.randomUUID());
+        recommendation.setUserId(userId);
+        recommendation.setComputedAt(computedAt);
+        recommendation.setAlgorithmVersion("v1.0");
+        recommendation.setResultLimit(resultLimit);
+        recommendation.setItems(new ArrayList<>(List.of(
+                new RecommendedItem(product2.getId(), 0.9),
+                new RecommendedItem(product1.getId(), 0.4))));
+        return recommendation;
+    }
+
+    @Test
+    void getRecommendationsForUser_FreshStoredRecommendation_IsServedWithoutScoring() {
+        // Given
+        Recommendation stored = storedRecommendation(Instant.now().minusSeconds(60), 20);
+
+        when(userEntityRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(recommendationRepository.findTopByUserIdOrderByComputedAtDesc(userId)).thenReturn(Optional.of(stored));
+        when(ratingRepository.existsByUserEntityIdAndInsertedAtAfter(userId, stored.getComputedAt())).thenReturn(false);
+        stubFindAllById(Arrays.asList(product1, product2, product3));
+
+        // When
+        RecommendationResponseDto result = recommendationService.getRecommendationsForUser(userId, 20);
+
+        // Then
+        assertEquals(stored.getId(), result.getId());
+        assertEquals(2, result.getRecommendedProducts().size());
+        assertEquals(product2.getId(), result.getRecommendedProducts().get(0).getId());
+        assertEquals(0.9, result.getRecommendedProducts().get(0).getRelevanceScore());
+
+        verify(ratingRepository, never()).findByUserEntityId(any());
+        verify(recommendationHistoryWriter, never()).enqueue(any());
+    }
+
+    @Test
+    void getRecommendationsForUser_ExpiredStoredRecommendation_IsRecomputed() {
+        // Given
+        Recommendation stored = storedRecommendation(Instant.now().minus(Duration.ofHours(1)), 20);
+
+        when(userEntityRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(recommendationRepository.findTopByUserIdOrderByComputedAtDesc(userId)).thenReturn(Optional.of(stored));
+        stubMostPopular(new ArrayList<>());
+        when(ratingRepository.findByUserEntityId(userId)).thenReturn(new ArrayList<>());
+
+        // When
+        recommendationService.getRecommendationsForUser(userId, 20);
+
+        // Then
+        verify(ratingRepository).findByUserEntityId(userId);
+        verify(recommendationHistoryWriter).enqueue(any(Recommendation.class));
+    }
+
+    @Test
+    void getRecommendationsForUser_UserRatedSinceStoredRecommendation_IsRecomputed() {
+        // Given
+        Recommendation stored = storedRecommendation(Instant.now().minusSeconds(60), 20);
+
+        when(userEntityRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(recommendationRepository.findTopByUserIdOrderByComputedAtDesc(userId)).thenReturn(Optional.of(stored));
+        when(ratingRepository.existsByUserEntityIdAndInsertedAtAfter(userId, stored.getComputedAt())).thenReturn(true);
+        stubMostPopular(new ArrayList<>());
+        when(ratingRepository.findByUserEntityId(userId)).thenReturn(new ArrayList<>());
+
+        // When
+        recommendationService.getRecommendationsForUser(userId, 20);
+
+        // Then
+        verify(recommendationHistoryWriter).enqueue(any(Recommendation.class));
+    }
+
+    @Test
+    void getRecommendationsForUser_StoredRecommendationSmallerThanLimit_IsRecomputed() {
+        // Given
+        Recommendation stored = storedRecommendation(Instant.now().minusSeconds(60), 5);
+
+        when(userEntityRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(recommendationRepository.findTopByUserIdOrderByComputedAtDesc(userId)).thenReturn(Optional.of(stored));
+        stubMostPopular(new ArrayList<>());
+        when(ratingRepository.findByUserEntityId(userId)).thenReturn(new ArrayList<>());
+
+        // When
+        recommendationService.getRecommendationsForUser(userId, 20);
+
+        // Then
+        verify(ratingRepository, never()).existsByUserEntityIdAndInsertedAtAfter(any(), any());
+        verify(recommendationHistoryWriter).enqueue(any(Recommendation.class));
+    }
+
+    @Test
+    void getRecommendationsForUser_RepeatRequest_IsServedFromMemory() {
+        // Given
+        Recommendation stored = storedRecommendation(Instant.now().minusSeconds(60), 20);
+
+        when(userEntityRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(recommendationRepository.findTopByUserIdOrderByComputedAtDesc(userId)).thenReturn(Optional.of(stored));
+        when(ratingRepository.existsByUserEntityIdAndInsertedAtAfter(userId, stored.getComputedAt())).thenReturn(false);
+        stubFindAllById(Arrays.asList(product1, product2, product3));
+
+        // When
+        RecommendationResponseDto first = recommendationService.getRecommendationsForUser(userId, 20);
+        RecommendationResponseDto smaller = recommendationService.getRecommendationsForUser(userId, 1);
+
+        // Then
+        assertSame(first, recommendationService.getRecommendationsForUser(userId, 20));
+        assertEquals(1, smaller.getRecommendedProducts().size());
+        assertEquals(product2.getId(), smaller.getRecommendedProducts().get(0).getId());
+        verify(userEntityRepository, times(1)).findById(userId);
+        verify(recommendationRepository, times(1)).findTopByUserIdOrderByComputedAtDesc(userId);
+        assertEquals(2, recommendationResultCache.stats().hitCount());
+        assertEquals(1, recommendationResultCache.stats().missCount());
+    }
+
+    @Test
+    void getRecommendationsForUser_AfterUserRates_IsRecomputed() {
+        // Given
+        when(userEntityRepository.findById(userId)).thenReturn(Optional.of(user));
+        stubMostPopular(new ArrayList<>());
+        when(ratingRepository.findByUserEntityId(userId)).thenReturn(new ArrayList<>());
+        recommendationService.getRecommendationsForUser(userId, 20);
+
+        // When
+        recommendationResultCache.onRatingCreated(new RatingCreatedEvent(userId, product1.getId()));
+        recommendationService.getRecommendationsForUser(userId, 20);
+
+        // Then
+        verify(ratingRepository, times(2)).findByUserEntityId(userId);
+    }
+
+    @Test
+    void getRecommendationsForUser_AfterRecommendedProductChanges_IsRecomputed() {
+        // Given
+        Recommendation stored = storedRecommendation(Instant.now().minusSeconds(60), 20);
+
+        when(userEntityRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(recommendationRepository.findTopByUserIdOrderByComputedAtDesc(userId)).thenReturn(Optional.of(stored));
+        when(ratingRepository.existsByUserEntityIdAndInsertedAtAfter(userId, stored.getComputedAt())).thenReturn(false);
+        stubFindAllById(Arrays.asList(product1, product2, product3));
+        recommendationService.getRecommendationsForUser(userId, 20);
+
+        // When: a product that was not recommended keeps the entry, a recommended one evicts it
+        recommendationResultCache.onProductChanged(new ProductChangedEvent(product3.getId()));
+        recommendationService.getRecommendationsForUser(userId, 20);
+        recommendationResultCache.onProductChanged(new ProductChangedEvent(product2.getId()));
+        recommendationService.getRecommendationsForUser(userId, 20);
+
+        // Then
+        verify(recommendationRepository, times(2)).findTopByUserIdOrderByComputedAtDesc(userId);
+    }
+
+    @Test
+    void getRecommendationsForUser_ItemCfAlgorithm_RecommendsNeighborsOfRatedProducts() {
+        // Given
+        recommendationProperties.setAlgorithmVersion("item-cf-v1");
+        UUID userA = UUID.randomUUID();
+        UUID userB = UUID.randomUUID();
+        when(ratingRepository.streamAllEntries()).thenReturn(Stream.of(
+                new RatingEntry(userA, product1.getId(), 5),
+                new RatingEntry(userA, product2.getId(), 5),
+                new RatingEntry(userA, product3.getId(), 1),
+                new RatingEntry(userB, product1.getId(), 4),
+                new RatingEntry(userB, product2.getId(), 5),
+                new RatingEntry(userB, product3.getId(), 2)));
+        itemNeighborIndex.rebuild();
+
+        Rating rating1 = new Rating();
+        rating1.setProduct(product1);
+        rating1.setScore(5);
+
+        when(userEntityRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(ratingRepository.findByUserEntityId(userId)).thenReturn(List.of(rating1));
+        stubFindAllById(List.of(product1, product2, product3));
+
+        // When
+        RecommendationResponseDto result = recommendationService.getRecommendationsForUser(userId, 20);
+
+        // Then
+        assertEquals("item-cf-v1", result.getAlgorithmVersion());
+        assertEquals(1, result.getRecommendedProducts().size());
+        assertEquals(product2.getId(), result.getRecommendedProducts().get(0).getId());
+        verify(productRepository, never()).findMostPopularIds(any(Pageable.class));
+    }
+
+    @Test
+    void getRecommendationsForUser_ItemCfWithoutNeighbors_FallsBackToDefaultScorer() {
+        // Given
+        recommendationProperties.setAlgorithmVersion("item-cf-v1");
+        Rating rating1 = new Rating();
+        rating1.setProduct(product1);
+        rating1.setScore(5);
+
+        when(userEntityRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(ratingRepository.findByUserEntityId(userId)).thenReturn(List.of(rating1));
+        stubFindAllById(List.of(product1, product2, product3));
+
+        // When
+        RecommendationResponseDto result = recommendationService.getRecommendationsForUser(userId, 20);
+
+        // Then
+        assertEquals("v1.0", result.getAlgorithmVersion());
+        assertEquals(product2.getId(), result.getRecommendedProducts().get(0).getId());
+    }
+
+    @Test
+    void getRecommendationsForUser_StoredFallbackResult_IsServedWhileConfiguredAlgorithmIsUnchanged() {
+        // Given: the configured scorer had nothing for the user, so the stored result came from v1.0
+        recommendationProperties.setAlgorithmVersion("item-cf-v1");
+        Recommendation stored = storedRecommendation(Instant.now().minusSeconds(60), 20);
+        stored.setConfiguredAlgorithmVersion("item-cf-v1");
+
+        when(userEntityRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(recommendationRepository.findTopByUserIdOrderByComputedAtDesc(userId)).thenReturn(Optional.of(stored));
+        when(ratingRepository.existsByUserEntityIdAndInsertedAtAfter(userId, stored.getComputedAt())).thenReturn(false);
+        stubFindAllById(Arrays.asList(product1, product2, product3));
+
+        // When
+        RecommendationResponseDto result = recommendationService.getRecommendationsForUser(userId, 20);
+
+        // Then
+        assertEquals(stored.getId(), result.getId());
+        assertEquals("v1.0", result.getAlgorithmVersion());
+        verify(ratingRepository, never()).findByUserEntityId(any());
+    }
+
+    @Test
+    void getRecommendationsForUser_AlsAlgorithm_RanksUnratedProductsByPredictedScore() {
+        // Given
+        recommendationProperties.setAlgorithmVersion("als-v1");
+        recommendationProperties.getAls().setHoldoutFraction(0);
+        UUID similarUser = UUID.randomUUID();
+        when(ratingRepository.streamAllEntries()).thenReturn(Stream.of(
+                new RatingEntry(similarUser, product1.getId(), 5),
+                new RatingEntry(similarUser, product2.getId(), 5),
+                new RatingEntry(similarUser, product3.getId(), 1),
+                new RatingEntry(userId, product1.getId(), 5)));
+        matrixFactorizationModel.retrain();
+
+        Rating rating1 = new Rating();
+        rating1.setProduct(product1);
+        rating1.setScore(5);
+
+        when(userEntityRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(ratingRepository.findByUserEntityId(userId)).thenReturn(List.of(rating1));
+        stubFindAllById(List.of(product1, product2, product3));
+
+        // When
+        RecommendationResponseDto result = recommendationService.getRecommendationsForUser(userId, 20);
+
+        // Then
+        assertEquals("als-v1", result.getAlgorithmVersion());
+        assertEquals(product2.getId(), result.getRecommendedProducts().get(0).getId());
+        assertTrue(result.getRecommendedProducts().stream()
+                .noneMatch(dto -> dto.getId().equals(product1.getId())));
+    }
+
+    @Test
+    void getModelStatus_ReturnsTrainingMetrics() {
+        // Given
+        when(ratingRepository.streamAllEntries()).thenReturn(Stream.of(
+                new RatingEntry(userId, product1.getId(), 5),
+                new RatingEntry(userId, product2.getId(), 3)));
+        matrixFactorizationModel.retrain();
+
+        // When
+        RecommendationModelStatusDto status = recommendationService.getModelStatus();
+
+        // Then
+        assertEquals("als-v1", status.getAlgorithmVersion());
+        assertEquals(1L, status.getModelVersion());
+        assertNotNull(status.getTrainedAt());
+        assertEquals(2, status.getTrainingRatings());
+    }
+
+    @Test
+    void retrain_HeldOutRatings_AreStillPartOfTheServedModel() {
+        // Given
+        recommendationProperties.getAls().setHoldoutFraction(1);
+        when(ratingRepository.streamAllEntries()).thenReturn(Stream.of(
+                new RatingEntry(userId, product1.getId(), 5),
+                new RatingEntry(userId, product2.getId(), 3)));
+
+        // When
+        matrixFactorizationModel.retrain();
+
+        // Then
+        MatrixFactorizationModel.TrainingStats stats = matrixFactorizationModel.getTrainingStats();
+        assertEquals(2, stats.holdoutRatings());
+        assertEquals(2, stats.trainingRatings());
+        assertEquals(1, stats.users());
+        assertEquals(2, stats.products());
+        assertNotNull(stats.rmse());
+        assertEquals(1, matrixFactorizationModel.recommend(userId, List.of(product1.getId()), 10).size());
     }
-}
\ No newline at end of file
+}
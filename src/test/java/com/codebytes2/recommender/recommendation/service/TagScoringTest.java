@@ -0,0 +1,54 @@
+package com.codebytes2.recommender.recommendation.service;
+
+import com.codebytes2.recommender.model.Product;
+import com.codebytes2.recommender.model.Rating;
+import com.codebytes2.recommender.service.scoring.TagScoring;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TagScoringTest {
+
+    @Test
+    void userTagPreferences_SumsNormalizedScoresPerTag() {
+        // Given
+        Rating rpg = rating(Set.of("rpg", "fantasy"), 5);
+        Rating strategy = rating(Set.of("strategy", "fantasy"), 2);
+
+        // When
+        Map<String, Double> preferences = TagScoring.userTagPreferences(List.of(rpg, strategy));
+
+        // Then
+        assertEquals(1.0, preferences.get("rpg"), 1e-9);
+        assertEquals(0.4, preferences.get("strategy"), 1e-9);
+        assertEquals(1.4, preferences.get("fantasy"), 1e-9);
+    }
+
+    @Test
+    void tagScore_AddsPreferencesOfTheProductTagsUpToTheCap() {
+        // Given
+        Map<String, Double> preferences = Map.of("rpg", 8.0, "fantasy", 1.5, "strategy", 4.0);
+
+        // When / Then
+        assertEquals(9.5, TagScoring.tagScore(product(Set.of("rpg", "fantasy", "shooter")), preferences), 1e-9);
+        assertEquals(10.0, TagScoring.tagScore(product(Set.of("rpg", "strategy")), preferences), 1e-9);
+        assertEquals(0.0, TagScoring.tagScore(product(Set.of("rpg")), Map.of()), 1e-9);
+    }
+
+    private static Rating rating(Set<String> tags, int score) {
+        Rating rating = new Rating();
+        rating.setProduct(product(tags));
+        rating.setScore(score);
+        return rating;
+    }
+
+    private static Product product(Set<String> tags) {
+        Product product = new Product();
+        product.setTags(tags);
+        return product;
+    }
+}
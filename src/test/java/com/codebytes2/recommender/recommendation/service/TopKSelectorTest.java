@@ -0,0 +1,66 @@
+package com.codebytes2.recommender.recommendation.service;
+
+import com.codebytes2.recommender.service.scoring.TopKSelector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKSelectorTest {
+
+    @Test
+    void selectTopK_ReturnsBestScoresInDescendingOrder() {
+        double[] scores = {0.3, 0.9, 0.1, 0.7, 0.5};
+
+        int[] top = TopKSelector.selectTopK(scores, 3);
+
+        assertArrayEquals(new int[]{1, 3, 4}, top);
+    }
+
+    @Test
+    void selectTopK_SkipsNonPositiveScores() {
+        double[] scores = {0.0, 0.4, -1.0, 0.2};
+
+        int[] top = TopKSelector.selectTopK(scores, 10);
+
+        assertArrayEquals(new int[]{1, 3}, top);
+    }
+
+    @Test
+    void selectTopK_TiesKeepInputOrder() {
+        double[] scores = {0.5, 0.5, 0.8, 0.5};
+
+        int[] top = TopKSelector.selectTopK(scores, 3);
+
+        assertArrayEquals(new int[]{2, 0, 1}, top);
+    }
+
+    @Test
+    void selectTopK_EmptyInputOrZeroK_ReturnsEmpty() {
+        assertEquals(0, TopKSelector.selectTopK(new double[0], 5).length);
+        assertEquals(0, TopKSelector.selectTopK(new double[]{1.0}, 0).length);
+    }
+
+    @Test
+    void selectTopK_MatchesFullSortOnRandomScores() {
+        Random random = new Random(42);
+        double[] scores = new double[1_000];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = random.nextInt(50) / 10.0;
+        }
+
+        int[] expected = IntStream.range(0, scores.length)
+                .filter(i -> scores[i] > 0)
+                .boxed()
+                .sorted(Comparator.comparingDouble((Integer i) -> scores[i]).reversed())
+                .limit(25)
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        assertEquals(Arrays.toString(expected), Arrays.toString(TopKSelector.selectTopK(scores, 25)));
+    }
+}
@@ -312,4 +312,80 @@ class TournamentControllerTest {
                         .content(objectMapper.writeValueAsString(invalidRequest)))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithUserEntity(roles = {"PLAYER"})
+    void joinTournament_Full_ReturnsWaitlisted() throws Exception {
+        // Given
+        UUID userId = ((UserEntity) TestSecurityContextHolder.getContext().getAuthentication().getPrincipal()).getId();
+        UUID tournamentId = UUID.randomUUID();
+        TournamentJoinResponse response = TournamentJoinResponse.builder()
+                .message("No hay plazas disponibles: inscripción añadida a la lista de espera")
+                .tournamentId(tournamentId)
+                .userId(userId)
+                .status("WAITLISTED")
+                .waitlistPosition(2L)
+                .build();
+        given(tournamentService.joinTournament(eq(tournamentId), eq(userId), any(TournamentJoinRequest.class))).willReturn(response);
+
+        // When & Then
+        mockMvc.perform(post("/api/tournaments/{id}/join", tournamentId.toString())
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(TournamentJoinRequest.builder().nickname("TestPlayer").build())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("WAITLISTED"))
+                .andExpect(jsonPath("$.waitlistPosition").value(2));
+    }
+
+    @Test
+    @WithUserEntity(roles = {"PLAYER"})
+    void cancelRegistration_AsPlayer_ReturnsOk() throws Exception {
+        // Given
+        UUID userId = ((UserEntity) TestSecurityContextHolder.getContext().getAuthentication().getPrincipal()).getId();
+        UUID tournamentId = UUID.randomUUID();
+        TournamentJoinResponse response = TournamentJoinResponse.builder()
+                .message("Inscripción cancelada")
+                .tournamentId(tournamentId)
+                .userId(userId)
+                .status("CANCELLED")
+                .build();
+        given(tournamentService.cancelRegistration(tournamentId, userId)).willReturn(response);
+
+        // When & Then
+        mockMvc.perform(delete("/api/tournaments/{id}/join", tournamentId.toString())
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CANCELLED"));
+    }
+
+    @Test
+    @WithUserEntity(roles = {"ADMIN"})
+    void rejectRegistration_AsAdmin_ReturnsOk() throws Exception {
+        // Given
+        UUID tournamentId = UUID.randomUUID();
+        UUID registrationId = UUID.randomUUID();
+        TournamentJoinResponse response = TournamentJoinResponse.builder()
+                .message("Inscripción rechazada")
+                .tournamentId(tournamentId)
+                .status("REJECTED")
+                .build();
+        given(tournamentService.rejectRegistration(tournamentId, registrationId)).willReturn(response);
+
+        // When & Then
+        mockMvc.perform(post("/api/tournaments/{id}/registrations/{registrationId}/reject",
+                        tournamentId.toString(), registrationId.toString())
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("REJECTED"));
+    }
+
+    @Test
+    @WithUserEntity(roles = {"PLAYER"})
+    void rejectRegistration_AsPlayer_ReturnsForbidden() throws Exception {
+        mockMvc.perform(post("/api/tournaments/{id}/registrations/{registrationId}/reject",
+                        UUID.randomUUID().toString(), UUID.randomUUID().toString())
+                        .with(csrf()))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,188 @@
+package com.codebytes2.recommender.tournament.service;
+
+import com.codebytes2.recommender.auth.commons.models.entity.UserEntity;
+import com.codebytes2.recommender.auth.repository.UserEntityRepository;
+import com.codebytes2.recommender.backend.RegistrationStatus;
+import com.codebytes2.recommender.backend.TournamentStatus;
+import com.codebytes2.recommender.dto.request.TournamentJoinRequest;
+import com.codebytes2.recommender.dto.response.RegistrationReconcileResultDto;
+import com.codebytes2.recommender.dto.response.TournamentJoinResponse;
+import com.codebytes2.recommender.model.Tournament;
+import com.codebytes2.recommender.repository.TournamentRegistrationRepository;
+import com.codebytes2.recommender.repository.TournamentRepository;
+import com.codebytes2.recommender.service.TournamentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hammers a single tournament with simultaneous joins and checks that the conditional
+ * slot reservation never lets more players in than maxParticipants, and that the rest
+ * land on the waitlist and are promoted in arrival order.
+ */
+@SpringBootTest
+class TournamentJoinConcurrencyTest {
+
+    private static final int MAX_PARTICIPANTS = 10;
+    private static final int PLAYERS = 100;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private TournamentService tournamentService;
+
+    @Autowired
+    private TournamentRepository tournamentRepository;
+
+    @Autowired
+    private TournamentRegistrationRepository tournamentRegistrationRepository;
+
+    @Autowired
+    private UserEntityRepository userEntityRepository;
+
+    @Test
+    void joinTournament_ConcurrentJoins_NeverOverbook() throws Exception {
+        // Given
+        Tournament tournament = openTournament("Stress Cup", MAX_PARTICIPANTS);
+        List<UUID> userIds = createPlayers(PLAYERS);
+
+        // When: every player joins at the same instant
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger joined = new AtomicInteger();
+        AtomicInteger waitlisted = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (UUID userId : userIds) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                TournamentJoinRequest request = new TournamentJoinRequest();
+                request.setNickname("player-" + userId);
+                TournamentJoinResponse response = tournamentService.joinTournament(tournament.getId(), userId, request);
+                if ("REGISTERED".equals(response.getStatus())) {
+                    joined.incrementAndGet();
+                } else if ("WAITLISTED".equals(response.getStatus())) {
+                    waitlisted.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        Tournament result = tournamentRepository.findById(tournament.getId()).orElseThrow();
+        assertEquals(MAX_PARTICIPANTS, joined.get());
+        assertEquals(PLAYERS - MAX_PARTICIPANTS, waitlisted.get());
+        assertEquals(MAX_PARTICIPANTS, result.getActiveRegistrations());
+        assertEquals(MAX_PARTICIPANTS, tournamentRegistrationRepository.countActiveRegistrations(tournament.getId()));
+        assertEquals(TournamentStatus.CLOSED, result.getStatus());
+    }
+
+    @Test
+    void cancelRegistration_PromotesWaitlistInArrivalOrder() {
+        // Given: three slots, two players waiting
+        Tournament tournament = openTournament("Waitlist Cup", 3);
+        List<UUID> userIds = createPlayers(5);
+        for (UUID userId : userIds) {
+            TournamentJoinRequest request = new TournamentJoinRequest();
+            request.setNickname("player-" + userId);
+            tournamentService.joinTournament(tournament.getId(), userId, request);
+        }
+        assertEquals(RegistrationStatus.WAITLISTED, statusOf(tournament, userIds.get(3)));
+        assertEquals(RegistrationStatus.WAITLISTED, statusOf(tournament, userIds.get(4)));
+
+        // When: a registered player leaves, the first one waiting takes the slot
+        tournamentService.cancelRegistration(tournament.getId(), userIds.get(0));
+
+        // Then
+        assertEquals(RegistrationStatus.REGISTERED, statusOf(tournament, userIds.get(3)));
+        assertEquals(RegistrationStatus.WAITLISTED, statusOf(tournament, userIds.get(4)));
+        Tournament result = tournamentRepository.findById(tournament.getId()).orElseThrow();
+        assertEquals(3, result.getActiveRegistrations());
+        assertEquals(TournamentStatus.CLOSED, result.getStatus());
+
+        // When: the last waiting player gives up and another registered player leaves
+        tournamentService.cancelRegistration(tournament.getId(), userIds.get(4));
+        tournamentService.cancelRegistration(tournament.getId(), userIds.get(1));
+
+        // Then: nobody is waiting, so the slot is freed and the tournament reopens
+        result = tournamentRepository.findById(tournament.getId()).orElseThrow();
+        assertEquals(2, result.getActiveRegistrations());
+        assertEquals(TournamentStatus.OPEN, result.getStatus());
+        assertEquals(2, tournamentRegistrationRepository.countActiveRegistrations(tournament.getId()));
+    }
+
+    @Test
+    void reconcileRegistrationCounts_CorrectsDriftedCounterAndStatus() {
+        // Given: two of three slots taken, but the counter says the tournament is full
+        Tournament tournament = openTournament("Drift Cup", 3);
+        for (UUID userId : createPlayers(2)) {
+            TournamentJoinRequest request = new TournamentJoinRequest();
+            request.setNickname("player-" + userId);
+            tournamentService.joinTournament(tournament.getId(), userId, request);
+        }
+        Tournament drifted = tournamentRepository.findById(tournament.getId()).orElseThrow();
+        drifted.setActiveRegistrations(3);
+        drifted.setStatus(TournamentStatus.CLOSED);
+        tournamentRepository.save(drifted);
+
+        // When
+        RegistrationReconcileResultDto result = tournamentService.reconcileRegistrationCounts();
+
+        // Then: the counter matches the registrations again and the free slot reopens the tournament
+        Tournament reconciled = tournamentRepository.findById(tournament.getId()).orElseThrow();
+        assertTrue(result.getCorrected() >= 1);
+        assertEquals(2, reconciled.getActiveRegistrations());
+        assertEquals(TournamentStatus.OPEN, reconciled.getStatus());
+    }
+
+    private Tournament openTournament(String name, int maxParticipants) {
+        Instant now = Instant.now();
+        return tournamentRepository.save(Tournament.builder()
+                .name(name)
+                .game("Stress")
+                .registrationOpenAt(now.minus(1, ChronoUnit.HOURS))
+                .registrationCloseAt(now.plus(1, ChronoUnit.DAYS))
+                .startDate(now.plus(2, ChronoUnit.DAYS))
+                .endDate(now.plus(3, ChronoUnit.DAYS))
+                .maxParticipants(maxParticipants)
+                .status(TournamentStatus.OPEN)
+                .build());
+    }
+
+    private List<UUID> createPlayers(int count) {
+        List<UUID> userIds = new ArrayList<>();
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        for (int i = 0; i < count; i++) {
+            UserEntity user = userEntityRepository.save(UserEntity.builder()
+                    .username("stress" + i + "-" + suffix)
+                    .email("stress" + i + "-" + suffix + "@test.com")
+                    .password("password")
+                    .build());
+            userIds.add(user.getId());
+        }
+        return userIds;
+    }
+
+    private RegistrationStatus statusOf(Tournament tournament, UUID userId) {
+        return tournamentRegistrationRepository.findByTournamentIdAndUserEntityId(tournament.getId(), userId)
+                .orElseThrow()
+                .getStatus();
+    }
+}
@@ -0,0 +1,175 @@
+package com.codebytes2.recommender.tournament.service;
+
+import com.codebytes2.recommender.config.tournament.TournamentProperties;
+import com.codebytes2.recommender.model.Tournament;
+import com.codebytes2.recommender.repository.TournamentRepository;
+import com.codebytes2.recommender.repository.projection.StatusTransition;
+import com.codebytes2.recommender.service.lifecycle.TournamentLifecycleScheduler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TournamentLifecycleSchedulerTest {
+
+    @Mock
+    private TournamentRepository tournamentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TournamentProperties tournamentProperties;
+
+    @BeforeEach
+    void setUp() {
+        tournamentProperties = new TournamentProperties();
+    }
+
+    @Test
+    void start_AppliesOverdueTransitionsInBatches() {
+        // Given
+        tournamentProperties.getLifecycle().setBatchSize(2);
+        List<UUID> overdue = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        when(tournamentRepository.findIdsWithOverdueStatus(any())).thenReturn(overdue);
+        when(tournamentRepository.findOpeningsAfter(any(), any(), any(Pageable.class))).thenReturn(List.of());
+        when(tournamentRepository.findClosingsAfter(any(), any(), any(Pageable.class))).thenReturn(List.of());
+
+        // When
+        scheduler().start();
+
+        // Then
+        verify(tournamentRepository).applyScheduledStatus(eq(overdue.subList(0, 2)), any());
+        verify(tournamentRepository).applyScheduledStatus(eq(overdue.subList(2, 3)), any());
+    }
+
+    @Test
+    void start_AppliesLoadedTransitionWhenDue() {
+        // Given
+        UUID soon = UUID.randomUUID();
+        UUID later = UUID.randomUUID();
+        Instant now = Instant.now();
+        when(tournamentRepository.findIdsWithOverdueStatus(any())).thenReturn(List.of());
+        when(tournamentRepository.findOpeningsAfter(any(), any(), any(Pageable.class)))
+                .thenReturn(List.of(new StatusTransition(soon, now.plusMillis(100))));
+        when(tournamentRepository.findClosingsAfter(any(), any(), any(Pageable.class)))
+                .thenReturn(List.of(new StatusTransition(later, now.plus(1, ChronoUnit.DAYS))));
+        TournamentLifecycleScheduler scheduler = scheduler();
+
+        // When
+        scheduler.start();
+
+        // Then: only the transition that is due, and the other one stays queued
+        verify(tournamentRepository, timeout(2_000)).applyScheduledStatus(eq(List.of(soon)), any());
+        assertEquals(1, scheduler.getQueueSize());
+        verify(tournamentRepository, never()).applyScheduledStatus(eq(List.of(later)), any());
+    }
+
+    @Test
+    void schedule_NewTournament_AppliedWhenRegistrationOpens() {
+        // Given
+        when(tournamentRepository.findIdsWithOverdueStatus(any())).thenReturn(List.of());
+        when(tournamentRepository.findOpeningsAfter(any(), any(), any(Pageable.class))).thenReturn(List.of());
+        when(tournamentRepository.findClosingsAfter(any(), any(), any(Pageable.class))).thenReturn(List.of());
+        TournamentLifecycleScheduler scheduler = scheduler();
+        scheduler.start();
+
+        Instant now = Instant.now();
+        Tournament tournament = Tournament.builder()
+                .id(UUID.randomUUID())
+                .registrationOpenAt(now.plusMillis(100))
+                .registrationCloseAt(now.plus(1, ChronoUnit.DAYS))
+                .build();
+
+        // When
+        scheduler.schedule(tournament);
+
+        // Then
+        verify(tournamentRepository, timeout(2_000)).applyScheduledStatus(eq(List.of(tournament.getId())), any());
+        assertEquals(1, scheduler.getQueueSize());
+    }
+
+    @Test
+    void applyDueTransitions_QueueDrained_LoadsFromHorizon() {
+        // Given: a page of one means more transitions may follow the one loaded
+        tournamentProperties.getLifecycle().setQueueSize(1);
+        UUID first = UUID.randomUUID();
+        Instant horizon = Instant.now().plusMillis(100);
+        when(tournamentRepository.findIdsWithOverdueStatus(any())).thenReturn(List.of());
+        when(tournamentRepository.findOpeningsAfter(any(), any(), any(Pageable.class)))
+                .thenReturn(List.of(new StatusTransition(first, horizon)))
+                .thenReturn(List.of());
+        when(tournamentRepository.findClosingsAfter(any(), any(), any(Pageable.class))).thenReturn(List.of());
+
+        // When
+        scheduler().start();
+
+        // Then
+        verify(tournamentRepository, timeout(2_000)).applyScheduledStatus(eq(List.of(first)), any());
+        verify(tournamentRepository, timeout(2_000)).findOpeningsAfter(eq(horizon), eq(first), any(Pageable.class));
+    }
+
+    @Test
+    void applyDueTransitions_PageEndsInTies_ResumesAfterLastIdRead() {
+        // Given: more openings at the same instant than fit in a page
+        tournamentProperties.getLifecycle().setQueueSize(2);
+        Instant at = Instant.now().plusMillis(100);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        when(tournamentRepository.findIdsWithOverdueStatus(any())).thenReturn(List.of());
+        when(tournamentRepository.findOpeningsAfter(any(), any(), any(Pageable.class)))
+                .thenReturn(List.of(new StatusTransition(first, at), new StatusTransition(second, at)))
+                .thenReturn(List.of(new StatusTransition(third, at)))
+                .thenReturn(List.of());
+        when(tournamentRepository.findClosingsAfter(any(), any(), any(Pageable.class))).thenReturn(List.of());
+
+        // When
+        scheduler().start();
+
+        // Then: the second page starts after the last tournament read, not at the same instant again
+        verify(tournamentRepository, timeout(2_000)).findOpeningsAfter(eq(at), eq(second), any(Pageable.class));
+        verify(tournamentRepository, timeout(2_000)).applyScheduledStatus(eq(List.of(third)), any());
+    }
+
+    @Test
+    void applyDueTransitions_UpdateFails_KeepsTransitionQueued() {
+        // Given
+        UUID due = UUID.randomUUID();
+        when(tournamentRepository.findIdsWithOverdueStatus(any())).thenReturn(List.of());
+        when(tournamentRepository.findOpeningsAfter(any(), any(), any(Pageable.class))).thenReturn(List.of());
+        when(tournamentRepository.findClosingsAfter(any(), any(), any(Pageable.class))).thenReturn(List.of());
+        when(tournamentRepository.applyScheduledStatus(any(), any())).thenThrow(new IllegalStateException("db down"));
+        TournamentLifecycleScheduler scheduler = scheduler();
+        scheduler.start();
+        scheduler.schedule(Tournament.builder()
+                .id(due)
+                .registrationOpenAt(Instant.now().plus(1, ChronoUnit.DAYS))
+                .registrationCloseAt(Instant.now().minusSeconds(1))
+                .build());
+
+        // When
+        scheduler.applyDueTransitions();
+
+        // Then
+        verify(tournamentRepository, atLeastOnce()).applyScheduledStatus(eq(List.of(due)), any());
+        assertEquals(2, scheduler.getQueueSize());
+    }
+
+    private TournamentLifecycleScheduler scheduler() {
+        return new TournamentLifecycleScheduler(tournamentRepository, transactionManager, tournamentProperties);
+    }
+}
@@ -1,23 +1,36 @@
 package com.codebytes2.recommender.tournament.service;
 
+import com.codebytes2.recommender.auth.commons.models.entity.UserEntity;
+import com.codebytes2.recommender.auth.repository.UserEntityRepository;
+import com.codebytes2.recommender.backend.RegistrationStatus;
 import com.codebytes2.recommender.backend.TournamentStatus;
 import com.codebytes2.recommender.dto.request.TournamentCreateRequest;
+import com.codebytes2.recommender.dto.request.TournamentJoinRequest;
+import com.codebytes2.recommender.dto.response.RegistrationReconcileResultDto;
 import com.codebytes2.recommender.dto.response.TournamentDetailDto;
+import com.codebytes2.recommender.dto.response.TournamentJoinResponse;
 import com.codebytes2.recommender.dto.response.TournamentSummaryDto;
 import com.codebytes2.recommender.mapper.TournamentMapper;
 import com.codebytes2.recommender.model.Tournament;
+import com.codebytes2.recommender.model.TournamentRegistration;
+import com.codebytes2.recommender.repository.TournamentRegistrationRepository;
 import com.codebytes2.recommender.repository.TournamentRepository;
 import com.codebytes2.recommender.service.impl.TournamentServiceImpl;
+import com.codebytes2.recommender.service.lifecycle.TournamentLifecycleScheduler;
+import com.codebytes2.recommender.service.search.TextSearch;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -27,6 +40,7 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +52,21 @@ public class TournamentServiceImplTest {
     @Mock
     private TournamentMapper tournamentMapper;
 
+    @Mock
+    private UserEntityRepository userEntityRepository;
+
+    @Mock
+    private TournamentRegistrationRepository tournamentRegistrationRepository;
+
+    @Mock
+    private TournamentLifecycleScheduler tournamentLifecycleScheduler;
+
+    @Mock
+    private TextSearch textSearch;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private TournamentServiceImpl tournamentService;
 
@@ -72,6 +101,8 @@ public class TournamentServiceImplTest {
 
     @Test
     void createTournament_Success() {
+        tournament.setRegistrationOpenAt(createRequest.getRegistrationOpenAt());
+        tournament.setRegistrationCloseAt(createRequest.getRegistrationCloseAt());
         when(tournamentMapper.toEntity(any(TournamentCreateRequest.class))).thenReturn(tournament);
         when(tournamentRepository.save(any(Tournament.class))).thenReturn(tournament);
         when(tournamentMapper.toDetailDto(any(Tournament.class))).thenReturn(detailDto);
@@ -81,6 +112,26 @@ public class TournamentServiceImplTest {
         assertNotNull(result);
         assertEquals(tournament.getId(), result.getId());
         verify(tournamentRepository, times(1)).save(any(Tournament.class));
+        // Registration opens in the future, the lifecycle scheduler takes it from here
+        assertEquals(TournamentStatus.UPCOMING, tournament.getStatus());
+        verify(tournamentLifecycleScheduler).schedule(tournament);
+    }
+
+    @Test
+    void createTournament_RegistrationAlreadyOpen_StartsOpen() {
+        createRequest.setRegistrationOpenAt(Instant.now().minus(1, ChronoUnit.HOURS));
+        tournament.setRegistrationOpenAt(createRequest.getRegistrationOpenAt());
+        tournament.setRegistrationCloseAt(createRequest.getRegistrationCloseAt());
+        tournament.setMaxParticipants(8);
+        when(tournamentMapper.toEntity(any(TournamentCreateRequest.class))).thenReturn(tournament);
+        when(tournamentRepository.save(any(Tournament.class))).thenReturn(tournament);
+        when(tournamentMapper.toDetailDto(any(Tournament.class))).thenReturn(detailDto);
+
+        tournamentService.createTournament(createRequest);
+
+        // Registration is already open, so players can join without waiting for the scheduler
+        assertEquals(TournamentStatus.OPEN, tournament.getStatus());
+        verify(tournamentLifecycleScheduler).schedule(tournament);
     }
 
     @Test
@@ -170,4 +221,224 @@ public class TournamentServiceImplTest {
 
         verify(tournamentRepository, never()).deleteById(any());
     }
-}
\ No newline at end of file
+
+    private void openRegistration(int maxParticipants, int activeRegistrations) {
+        tournament.setRegistrationOpenAt(Instant.now().minus(1, ChronoUnit.HOURS));
+        tournament.setRegistrationCloseAt(Instant.now().plus(1, ChronoUnit.DAYS));
+        tournament.setMaxParticipants(maxParticipants);
+        tournament.setActiveRegistrations(activeRegistrations);
+        tournament.setRegistrations(null); // the counter must be enough, never the collection
+    }
+
+    @Test
+    void joinTournament_ReservesSlotAtomically() {
+        openRegistration(10, 3);
+        UUID userId = UUID.randomUUID();
+        UserEntity user = new UserEntity();
+        user.setId(userId);
+        TournamentJoinRequest request = new TournamentJoinRequest();
+        request.setNickname("PlayerOne");
+
+        when(tournamentRepository.findById(tournament.getId())).thenReturn(Optional.of(tournament));
+        when(userEntityRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(tournamentRegistrationRepository.existsByTournamentIdAndUserEntityId(tournament.getId(), userId))
+                .thenReturn(false);
+        when(tournamentRepository.reserveSlot(tournament.getId())).thenReturn(1);
+
+        TournamentJoinResponse response = tournamentService.joinTournament(tournament.getId(), userId, request);
+
+        assertEquals("REGISTERED", response.getStatus());
+        verify(tournamentRegistrationRepository).saveAndFlush(any(TournamentRegistration.class));
+        verify(tournamentRepository).reserveSlot(tournament.getId());
+        verify(tournamentRepository, never()).save(any());
+    }
+
+    @Test
+    void joinTournament_SlotTakenConcurrently_IsWaitlisted() {
+        openRegistration(4, 3);
+        UUID userId = UUID.randomUUID();
+        UserEntity user = new UserEntity();
+        user.setId(userId);
+        TournamentJoinRequest request = new TournamentJoinRequest();
+        request.setNickname("PlayerOne");
+
+        when(tournamentRepository.findById(tournament.getId())).thenReturn(Optional.of(tournament));
+        when(userEntityRepository.findById(userId)).thenReturn(Optional.of(user));
+        // Another join took the last slot between the read and the reservation
+        when(tournamentRepository.reserveSlot(tournament.getId())).thenReturn(0);
+        when(tournamentRegistrationRepository.countWaitlistedUpTo(eq(tournament.getId()), any())).thenReturn(1L);
+
+        TournamentJoinResponse response = tournamentService.joinTournament(tournament.getId(), userId, request);
+
+        assertEquals("WAITLISTED", response.getStatus());
+        assertEquals(1L, response.getWaitlistPosition());
+        verify(tournamentRepository).lockById(tournament.getId());
+        verify(tournamentRepository, times(2)).reserveSlot(tournament.getId());
+    }
+
+    @Test
+    void joinTournament_Full_IsWaitlisted() {
+        openRegistration(4, 4);
+        UUID userId = UUID.randomUUID();
+        when(tournamentRepository.findById(tournament.getId())).thenReturn(Optional.of(tournament));
+        when(userEntityRepository.findById(userId)).thenReturn(Optional.of(new UserEntity()));
+        when(tournamentRepository.reserveSlot(tournament.getId())).thenReturn(0);
+        when(tournamentRegistrationRepository.countWaitlistedUpTo(eq(tournament.getId()), any())).thenReturn(3L);
+
+        TournamentJoinResponse response =
+                tournamentService.joinTournament(tournament.getId(), userId, new TournamentJoinRequest());
+
+        assertEquals("WAITLISTED", response.getStatus());
+        assertEquals(3L, response.getWaitlistPosition());
+        ArgumentCaptor<TournamentRegistration> captor = ArgumentCaptor.forClass(TournamentRegistration.class);
+        verify(tournamentRegistrationRepository, times(2)).saveAndFlush(captor.capture());
+        assertEquals(RegistrationStatus.WAITLISTED, captor.getValue().getStatus());
+        // Only the retry under the row lock, the optimistic attempt is skipped
+        verify(tournamentRepository, times(1)).reserveSlot(tournament.getId());
+    }
+
+    @Test
+    void joinTournament_FullButSlotFreedWhileLocking_Registers() {
+        openRegistration(4, 4);
+        UUID userId = UUID.randomUUID();
+        when(tournamentRepository.findById(tournament.getId())).thenReturn(Optional.of(tournament));
+        when(userEntityRepository.findById(userId)).thenReturn(Optional.of(new UserEntity()));
+        when(tournamentRepository.reserveSlot(tournament.getId())).thenReturn(1);
+
+        TournamentJoinResponse response =
+                tournamentService.joinTournament(tournament.getId(), userId, new TournamentJoinRequest());
+
+        assertEquals("REGISTERED", response.getStatus());
+        assertNull(response.getWaitlistPosition());
+        verify(tournamentRegistrationRepository, never()).countWaitlistedUpTo(any(), any());
+    }
+
+    private TournamentRegistration registration(UUID userId, RegistrationStatus status) {
+        UserEntity user = new UserEntity();
+        user.setId(userId);
+        return TournamentRegistration.builder()
+                .id(UUID.randomUUID())
+                .tournament(tournament)
+                .userEntity(user)
+                .nickname("PlayerOne")
+                .status(status)
+                .build();
+    }
+
+    @Test
+    void cancelRegistration_Active_PromotesOldestWaitlisted() {
+        UUID userId = UUID.randomUUID();
+        TournamentRegistration registration = registration(userId, RegistrationStatus.REGISTERED);
+        UUID alreadyPromoted = UUID.randomUUID();
+        UUID next = UUID.randomUUID();
+
+        when(tournamentRegistrationRepository.findByTournamentIdAndUserEntityId(tournament.getId(), userId))
+                .thenReturn(Optional.of(registration));
+        when(tournamentRegistrationRepository.findWaitlistIds(eq(tournament.getId()), any(Pageable.class)))
+                .thenReturn(List.of(alreadyPromoted, next));
+        // The first one was promoted by a concurrent cancellation
+        when(tournamentRegistrationRepository.promoteFromWaitlist(alreadyPromoted)).thenReturn(0);
+        when(tournamentRegistrationRepository.promoteFromWaitlist(next)).thenReturn(1);
+
+        TournamentJoinResponse response = tournamentService.cancelRegistration(tournament.getId(), userId);
+
+        assertEquals("CANCELLED", response.getStatus());
+        assertEquals(RegistrationStatus.CANCELLED, registration.getStatus());
+        InOrder inOrder = inOrder(tournamentRepository, tournamentRegistrationRepository);
+        inOrder.verify(tournamentRepository).releaseSlot(eq(tournament.getId()), any(Instant.class));
+        inOrder.verify(tournamentRegistrationRepository).promoteFromWaitlist(next);
+        inOrder.verify(tournamentRepository).reserveSlot(tournament.getId());
+    }
+
+    @Test
+    void cancelRegistration_EmptyWaitlist_OnlyReleasesSlot() {
+        UUID userId = UUID.randomUUID();
+        TournamentRegistration registration = registration(userId, RegistrationStatus.CONFIRMED);
+
+        when(tournamentRegistrationRepository.findByTournamentIdAndUserEntityId(tournament.getId(), userId))
+                .thenReturn(Optional.of(registration));
+        when(tournamentRegistrationRepository.findWaitlistIds(eq(tournament.getId()), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        tournamentService.cancelRegistration(tournament.getId(), userId);
+
+        verify(tournamentRepository).releaseSlot(eq(tournament.getId()), any(Instant.class));
+        verify(tournamentRegistrationRepository, never()).promoteFromWaitlist(any());
+        verify(tournamentRepository, never()).reserveSlot(any());
+    }
+
+    @Test
+    void cancelRegistration_Waitlisted_DoesNotReleaseSlot() {
+        UUID userId = UUID.randomUUID();
+        TournamentRegistration registration = registration(userId, RegistrationStatus.WAITLISTED);
+
+        when(tournamentRegistrationRepository.findByTournamentIdAndUserEntityId(tournament.getId(), userId))
+                .thenReturn(Optional.of(registration));
+
+        tournamentService.cancelRegistration(tournament.getId(), userId);
+
+        assertEquals(RegistrationStatus.CANCELLED, registration.getStatus());
+        verify(tournamentRepository, never()).releaseSlot(any(), any());
+    }
+
+    @Test
+    void cancelRegistration_AlreadyCancelled_ThrowsException() {
+        UUID userId = UUID.randomUUID();
+        when(tournamentRegistrationRepository.findByTournamentIdAndUserEntityId(tournament.getId(), userId))
+                .thenReturn(Optional.of(registration(userId, RegistrationStatus.CANCELLED)));
+
+        assertThrows(IllegalStateException.class, () ->
+                tournamentService.cancelRegistration(tournament.getId(), userId));
+
+        verify(tournamentRegistrationRepository, never()).save(any());
+    }
+
+    @Test
+    void rejectRegistration_NotFound_ThrowsException() {
+        UUID registrationId = UUID.randomUUID();
+        when(tournamentRegistrationRepository.findByIdAndTournamentId(registrationId, tournament.getId()))
+                .thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () ->
+                tournamentService.rejectRegistration(tournament.getId(), registrationId));
+    }
+
+    @Test
+    void rejectRegistration_Active_ReleasesSlot() {
+        UUID userId = UUID.randomUUID();
+        TournamentRegistration registration = registration(userId, RegistrationStatus.REGISTERED);
+        when(tournamentRegistrationRepository.findByIdAndTournamentId(registration.getId(), tournament.getId()))
+                .thenReturn(Optional.of(registration));
+        when(tournamentRegistrationRepository.findWaitlistIds(eq(tournament.getId()), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        TournamentJoinResponse response = tournamentService.rejectRegistration(tournament.getId(), registration.getId());
+
+        assertEquals("REJECTED", response.getStatus());
+        assertEquals(userId, response.getUserId());
+        verify(tournamentRepository).releaseSlot(eq(tournament.getId()), any(Instant.class));
+    }
+
+    @Test
+    void reconcileRegistrationCounts_LocksEachTournamentAndCorrectsDriftedCounters() {
+        Tournament drifted = Tournament.builder().id(UUID.randomUUID()).activeRegistrations(5).build();
+        Tournament accurate = Tournament.builder().id(UUID.randomUUID()).activeRegistrations(2).build();
+        when(tournamentRepository.findIdsAfter(any(UUID.class), any(Pageable.class)))
+                .thenReturn(List.of(drifted.getId(), accurate.getId()))
+                .thenReturn(List.of());
+        when(tournamentRepository.lockById(drifted.getId())).thenReturn(Optional.of(drifted));
+        when(tournamentRepository.lockById(accurate.getId())).thenReturn(Optional.of(accurate));
+        when(tournamentRegistrationRepository.countActiveRegistrations(drifted.getId())).thenReturn(3L);
+        when(tournamentRegistrationRepository.countActiveRegistrations(accurate.getId())).thenReturn(2L);
+
+        RegistrationReconcileResultDto result = tournamentService.reconcileRegistrationCounts();
+
+        assertEquals(2, result.getTournaments());
+        assertEquals(1, result.getCorrected());
+        assertEquals(3, drifted.getActiveRegistrations());
+        verify(tournamentRepository).saveAndFlush(drifted);
+        verify(tournamentRepository).applyScheduledStatus(eq(List.of(drifted.getId())), any(Instant.class));
+        verify(tournamentRepository, never()).saveAndFlush(accurate);
+        verify(tournamentRepository).findIdsAfter(eq(accurate.getId()), any(Pageable.class));
+    }
+}